@@ -0,0 +1,50 @@
+#version 330 core
+
+// input values
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec3 color;
+layout(location = 2) in vec3 normal;
+
+// per-instance values - the columns of the model matrix, the color, whether the bond is selected, and the value written to the ID buffer
+layout(location = 3) in vec4 model0;
+layout(location = 4) in vec4 model1;
+layout(location = 5) in vec4 model2;
+layout(location = 6) in vec4 model3;
+layout(location = 7) in vec3 instanceColor;
+layout(location = 8) in float selected;
+layout(location = 9) in uint pickID;
+
+// output values
+out vec3 passColor;
+out vec3 passNormal;
+out vec3 passFragPos;
+flat out uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// the color that selected instances are highlighted with
+const vec3 selectionColor = vec3(1.0, 1.0, 0.0);
+
+void main() {
+    // the transformation from the unit cylinder to this bond
+    mat4 model = mat4(model0, model1, model2, model3);
+    vec4 worldPosition = model * vec4(position, 1.0);
+
+    // set the position of this vertex
+    gl_Position = projection * view * worldPosition;
+
+    // pass the fragment position, normal vector, and color to the fragment shader
+    // the radial normals are unaffected by the length of the bond, so the model matrix can transform them directly
+    passFragPos = vec3(worldPosition);
+    passNormal = normalize(mat3(model) * normal);
+    passColor = mix(color * instanceColor, selectionColor, 0.5 * selected);
+    passPickID = pickID;
+}
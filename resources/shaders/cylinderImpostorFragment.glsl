@@ -0,0 +1,76 @@
+#version 330 core
+
+// input values
+in vec3 passColor;
+in vec3 passFragPos;
+flat in vec3 passBase;
+flat in vec3 passAxis;
+flat in float passRadius;
+flat in uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// if the objet is selected
+uniform float alpha;
+
+// the out color, and the value written to the ID buffer
+layout(location = 0) out vec4 outColor;
+layout(location = 1) out uint outID;
+
+void main() {
+    // cast a ray from the camera through this fragment
+    vec3 rayDir = normalize(passFragPos - viewPos);
+    float len = length(passAxis);
+    vec3 axis = passAxis / len;
+
+    // intersect the ray with the infinite cylinder, using only the components perpendicular to the axis
+    vec3 oc = viewPos - passBase;
+    vec3 ocPerp = oc - dot(oc, axis) * axis;
+    vec3 rayPerp = rayDir - dot(rayDir, axis) * axis;
+    float a = dot(rayPerp, rayPerp);
+    float b = dot(ocPerp, rayPerp);
+    float c = dot(ocPerp, ocPerp) - passRadius * passRadius;
+    float discriminant = b * b - a * c;
+    if (a < 1e-8 || discriminant < 0.0) {
+        discard;
+    }
+    float t = (-b - sqrt(discriminant)) / a;
+
+    // the bond is open at the ends, which are hidden inside the atoms
+    float s = dot(oc + t * rayDir, axis);
+    if (t < 0.0 || s < 0.0 || s > len) {
+        discard;
+    }
+    vec3 fragPos = viewPos + t * rayDir;
+    vec3 normal = normalize(ocPerp + t * rayPerp);
+
+    // write the depth of the surface rather than the depth of the box
+    vec4 clipPos = projection * view * vec4(fragPos, 1.0);
+    gl_FragDepth = (gl_DepthRange.diff * clipPos.z / clipPos.w + gl_DepthRange.near + gl_DepthRange.far) * 0.5;
+
+    // ambient lighting
+    vec3 ambientLight = lightLevel * lightColor;
+
+    // diffusion light
+    vec3 lightDir = normalize(lightPos - fragPos);
+    float diff = max(dot(normal, lightDir), 0.0);
+    vec3 diffuseLight = diff * lightColor;
+
+    // specular light
+    float specularStrength = 0.5;
+    vec3 reflectDir = reflect(-lightDir, normal);
+    float spec = pow(max(dot(-rayDir, reflectDir), 0.0), 32);
+    vec3 specular = specularStrength * spec * lightColor;
+
+    // combine the light components into the final fragment color
+    outColor = vec4((ambientLight + diffuseLight + specular) * passColor, alpha);
+    outID = passPickID;
+}
@@ -0,0 +1,54 @@
+#version 330 core
+
+// input values - a corner of the unit cube, from (-0.5, -0.5, -0.5) to (0.5, 0.5, 0.5)
+layout(location = 0) in vec3 position;
+
+// per-instance values - the columns of the model matrix, the color, whether the bond is selected, and the value written to the ID buffer
+layout(location = 3) in vec4 model0;
+layout(location = 4) in vec4 model1;
+layout(location = 5) in vec4 model2;
+layout(location = 6) in vec4 model3;
+layout(location = 7) in vec3 instanceColor;
+layout(location = 8) in float selected;
+layout(location = 9) in uint pickID;
+
+// output values
+out vec3 passColor;
+out vec3 passFragPos;
+flat out vec3 passBase;
+flat out vec3 passAxis;
+flat out float passRadius;
+flat out uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// the color that selected instances are highlighted with
+const vec3 selectionColor = vec3(1.0, 1.0, 0.0);
+
+void main() {
+    // the transformation from the unit cylinder (radius 1, from y = 0 to y = 1) to this bond
+    mat4 model = mat4(model0, model1, model2, model3);
+
+    // stretch the cube over the box bounding the unit cylinder
+    vec3 local = position * vec3(2.0, 1.0, 2.0) + vec3(0.0, 0.5, 0.0);
+    vec4 worldPosition = model * vec4(local, 1.0);
+
+    // set the position of this vertex
+    gl_Position = projection * view * worldPosition;
+
+    // pass the cylinder to the fragment shader
+    passFragPos = vec3(worldPosition);
+    passBase = model3.xyz;
+    passAxis = model1.xyz;
+    passRadius = length(model0.xyz);
+    passColor = mix(instanceColor, selectionColor, 0.5 * selected);
+    passPickID = pickID;
+}
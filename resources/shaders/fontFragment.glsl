@@ -1,14 +1,14 @@
 #version 330
 
 in vec2 pass_textureCoords;
+flat in vec3 pass_colour;
 
 out vec4 out_colour;
 
-uniform vec3 colour;
 uniform sampler2D fontAtlas;
 
 void main(void){
 
-    out_colour = vec4(colour, texture(fontAtlas, pass_textureCoords).a);
+    out_colour = vec4(pass_colour, texture(fontAtlas, pass_textureCoords).a);
 
 }
\ No newline at end of file
@@ -2,14 +2,20 @@
 
 in vec2 position;
 in vec2 textureCoords;
+in float textIndex;
 
 out vec2 pass_textureCoords;
+flat out vec3 pass_colour;
 
-uniform vec2 translation;
+// one entry for every text in the draw call - the size must match TextBatch.TEXTS_PER_DRAW
+uniform vec3 colour[32];
+uniform vec2 translation[32];
 
 void main(void){
 
-    gl_Position = vec4(position + translation * vec2(2.0, -2.0), 0.0, 1.0);
+    int text = int(textIndex + 0.5);
+    gl_Position = vec4(position + translation[text] * vec2(2.0, -2.0), 0.0, 1.0);
     pass_textureCoords = textureCoords;
+    pass_colour = colour[text];
 
 }
\ No newline at end of file
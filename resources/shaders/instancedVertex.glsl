@@ -0,0 +1,46 @@
+#version 330 core
+
+// input values
+layout(location = 0) in vec3 position;
+layout(location = 1) in vec3 color;
+layout(location = 2) in vec3 normal;
+
+// per-instance values - center, radius, color, whether the atom is selected, and the value written to the ID buffer
+layout(location = 3) in vec3 center;
+layout(location = 4) in float radius;
+layout(location = 5) in vec3 instanceColor;
+layout(location = 6) in float selected;
+layout(location = 7) in uint pickID;
+
+// output values
+out vec3 passColor;
+out vec3 passNormal;
+out vec3 passFragPos;
+flat out uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// the color that selected instances are highlighted with
+const vec3 selectionColor = vec3(1.0, 1.0, 0.0);
+
+void main() {
+    // scale the unit mesh by the radius and move it to the center of the instance
+    vec3 worldPosition = center + radius * position;
+
+    // set the position of this vertex
+    gl_Position = projection * view * vec4(worldPosition, 1.0);
+
+    // pass the fragment position, normal vector, and color to the fragment shader
+    passFragPos = worldPosition;
+    passNormal = normalize(normal);
+    passColor = mix(color * instanceColor, selectionColor, 0.5 * selected);
+    passPickID = pickID;
+}
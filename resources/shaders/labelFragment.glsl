@@ -0,0 +1,22 @@
+#version 330 core
+
+// input values
+in vec2 passTextureCoord;
+in vec3 passColor;
+flat in uint passPickID;
+
+// the font atlas
+uniform sampler2D fontAtlas;
+
+// the out color, and the value written to the ID buffer - a label picks its atom
+layout(location = 0) out vec4 outColor;
+layout(location = 1) out uint outID;
+
+void main() {
+    float alpha = texture(fontAtlas, passTextureCoord).a;
+    if (alpha < 0.05) {
+        discard;
+    }
+    outColor = vec4(passColor, alpha);
+    outID = passPickID;
+}
@@ -0,0 +1,44 @@
+#version 330 core
+
+// input values - the corner of the quad, from (-1, -1) to (1, 1)
+layout(location = 0) in vec3 position;
+
+// per-glyph values - the point the label is attached to, the rectangle of the glyph in pixels around that point, the rectangle of the glyph in the font atlas, the color, and the value written to the ID buffer
+layout(location = 3) in vec3 anchor;
+layout(location = 4) in vec4 rect;
+layout(location = 5) in vec4 textureRect;
+layout(location = 6) in vec3 instanceColor;
+layout(location = 7) in uint pickID;
+
+// output values
+out vec2 passTextureCoord;
+out vec3 passColor;
+flat out uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// the size of the viewport, in pixels
+uniform vec2 screenSize;
+
+void main() {
+    // the corner of the glyph, from (0, 0) at the bottom left to (1, 1) at the top right
+    vec2 corner = position.xy * 0.5 + 0.5;
+
+    // the glyph is offset from the anchor on screen, so it always faces the camera and keeps its size in pixels
+    vec4 clip = projection * view * vec4(anchor, 1.0);
+    vec2 offset = (rect.xy + corner * rect.zw) * 2.0 / screenSize;
+    gl_Position = vec4(clip.xy + offset * clip.w, clip.zw);
+
+    // the top of the glyph is at the smaller y texture coordinate
+    passTextureCoord = vec2(mix(textureRect.x, textureRect.z, corner.x), mix(textureRect.w, textureRect.y, corner.y));
+    passColor = instanceColor;
+    passPickID = pickID;
+}
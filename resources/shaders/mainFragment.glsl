@@ -4,22 +4,24 @@
 in vec3 passColor;
 in vec3 passNormal;
 in vec3 passFragPos;
-
-// the lighting values for shading
-uniform vec3 lightPos;
-uniform float lightLevel;
-
-// the light color
-uniform vec3 lightColor;
-
-// the position of the camera
-uniform vec3 viewPos;
+flat in uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
 
 // if the objet is selected
 uniform float alpha;
 
-// the out color
-out vec4 outColor;
+// the out color, and the value written to the ID buffer
+layout(location = 0) out vec4 outColor;
+layout(location = 1) out uint outID;
 
 
 void main() {
@@ -46,4 +48,5 @@ void main() {
     vec3 colorResult = (ambientLight + diffuseLight + specular) * passColor; // combine the light components
 
     outColor = vec4(colorResult, alpha);
+    outID = passPickID;
 }
\ No newline at end of file
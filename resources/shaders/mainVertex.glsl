@@ -9,11 +9,23 @@ layout(location = 2) in vec3 normal;
 out vec3 passColor;
 out vec3 passNormal;
 out vec3 passFragPos;
+flat out uint passPickID;
 
-// the model, view, and projection matrices to render at
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// the model matrix to render at
 uniform mat4 model;
-uniform mat4 view;
-uniform mat4 projection;
+
+// the color multiplied with the vertex color
+uniform vec3 tint;
 
 void main() {
     // set the position of this vertex
@@ -23,7 +35,9 @@ void main() {
     passFragPos = vec3(model * vec4(position, 1.0));
 
     // pass the normal vector, color, and light position for the specific vertex to the fragment shader
-    passNormal = normalize(normal); // normalize the vector normal to the vertex
+    passNormal = normalize(mat3(model) * normal); // rotate the vector normal to the vertex into world space
+
+    passColor = color * tint; // pass the color
 
-    passColor = color; // pass the color
+    passPickID = 0u; // single objects are not picked
 }
\ No newline at end of file
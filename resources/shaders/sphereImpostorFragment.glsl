@@ -0,0 +1,61 @@
+#version 330 core
+
+// input values
+in vec3 passColor;
+in vec3 passFragPos;
+flat in vec3 passCenter;
+flat in float passRadius;
+flat in uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// if the objet is selected
+uniform float alpha;
+
+// the out color, and the value written to the ID buffer
+layout(location = 0) out vec4 outColor;
+layout(location = 1) out uint outID;
+
+void main() {
+    // cast a ray from the camera through this fragment and intersect it with the sphere
+    vec3 rayDir = normalize(passFragPos - viewPos);
+    vec3 oc = viewPos - passCenter;
+    float b = dot(oc, rayDir);
+    float c = dot(oc, oc) - passRadius * passRadius;
+    float discriminant = b * b - c;
+    if (discriminant < 0.0) {
+        discard;
+    }
+    vec3 fragPos = viewPos + (-b - sqrt(discriminant)) * rayDir;
+    vec3 normal = (fragPos - passCenter) / passRadius;
+
+    // write the depth of the surface rather than the depth of the quad
+    vec4 clipPos = projection * view * vec4(fragPos, 1.0);
+    gl_FragDepth = (gl_DepthRange.diff * clipPos.z / clipPos.w + gl_DepthRange.near + gl_DepthRange.far) * 0.5;
+
+    // ambient lighting
+    vec3 ambientLight = lightLevel * lightColor;
+
+    // diffusion light
+    vec3 lightDir = normalize(lightPos - fragPos);
+    float diff = max(dot(normal, lightDir), 0.0);
+    vec3 diffuseLight = diff * lightColor;
+
+    // specular light
+    float specularStrength = 0.5;
+    vec3 reflectDir = reflect(-lightDir, normal);
+    float spec = pow(max(dot(-rayDir, reflectDir), 0.0), 32);
+    vec3 specular = specularStrength * spec * lightColor;
+
+    // combine the light components into the final fragment color
+    outColor = vec4((ambientLight + diffuseLight + specular) * passColor, alpha);
+    outID = passPickID;
+}
@@ -0,0 +1,56 @@
+#version 330 core
+
+// input values - the corner of the quad, from (-1, -1) to (1, 1)
+layout(location = 0) in vec3 position;
+
+// per-instance values - center, radius, color, whether the atom is selected, and the value written to the ID buffer
+layout(location = 3) in vec3 center;
+layout(location = 4) in float radius;
+layout(location = 5) in vec3 instanceColor;
+layout(location = 6) in float selected;
+layout(location = 7) in uint pickID;
+
+// output values
+out vec3 passColor;
+out vec3 passFragPos;
+flat out vec3 passCenter;
+flat out float passRadius;
+flat out uint passPickID;
+
+// the camera and lighting state, shared by every shader and written once per frame
+layout(std140, row_major) uniform FrameUniforms {
+    mat4 view;
+    mat4 projection;
+    vec3 lightPos;
+    float lightLevel;
+    vec3 viewPos;
+    vec3 lightColor;
+};
+
+// the color that selected instances are highlighted with
+const vec3 selectionColor = vec3(1.0, 1.0, 0.0);
+
+void main() {
+    // the direction from the camera to the center of the sphere
+    vec3 toCenter = center - viewPos;
+    float dist = length(toCenter);
+    vec3 forward = toCenter / dist;
+
+    // the quad faces the camera, and is sized to cover the cone of rays that touch the sphere
+    // if the camera is inside the sphere, the quad collapses and the sphere is not drawn
+    float size = dist > radius ? radius * dist / sqrt(dist * dist - radius * radius) : 0.0;
+    vec3 up = abs(forward.y) < 0.99 ? vec3(0.0, 1.0, 0.0) : vec3(1.0, 0.0, 0.0);
+    vec3 right = normalize(cross(forward, up));
+    up = cross(right, forward);
+    vec3 worldPosition = center + size * (position.x * right + position.y * up);
+
+    // set the position of this vertex
+    gl_Position = projection * view * vec4(worldPosition, 1.0);
+
+    // pass the sphere to the fragment shader
+    passFragPos = worldPosition;
+    passCenter = center;
+    passRadius = radius;
+    passColor = mix(instanceColor, selectionColor, 0.5 * selected);
+    passPickID = pickID;
+}
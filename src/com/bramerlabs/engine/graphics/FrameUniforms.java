@@ -0,0 +1,128 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.io.window.Window;
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+
+import java.nio.FloatBuffer;
+
+public class FrameUniforms {
+
+    // the name of the uniform block in the shaders, and the binding point it is attached to
+    public static final String BLOCK_NAME = "FrameUniforms";
+    public static final int BINDING = 0;
+
+    // the std140 layout of the block, in floats
+    // mat4 view, mat4 projection, vec3 lightPos, float lightLevel, vec3 viewPos, (pad), vec3 lightColor, (pad)
+    private static final int VIEW = 0, PROJECTION = 16, LIGHT_POS = 32, LIGHT_LEVEL = 35, VIEW_POS = 36, LIGHT_COLOR = 40;
+    private static final int SIZE = 44;
+
+    // the uniform buffer object
+    private int ubo;
+
+    // the contents of the block, written once per frame
+    private FloatBuffer data;
+
+    // the view matrix of the current frame
+    private Matrix4f view;
+
+    // the light color
+    private Vector3f lightColor = new Vector3f(1.0f, 1.0f, 1.0f);
+
+    // the ambient light level
+    private float lightLevel = 0.3f;
+
+    /**
+     * creates the uniform buffer and attaches it to its binding point
+     * must be called on the thread that owns the OpenGL context
+     */
+    public void create() {
+        data = GLResources.allocFloat(SIZE, "frame uniforms");
+        ubo = GLResources.genBuffer("frame uniforms");
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, ubo);
+        GL15.glBufferData(GL31.GL_UNIFORM_BUFFER, (long) SIZE * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+        GLResources.setBufferSize(ubo, (long) SIZE * Float.BYTES);
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+        GL30.glBindBufferBase(GL31.GL_UNIFORM_BUFFER, BINDING, ubo);
+    }
+
+    /**
+     * writes the camera and lighting state shared by every shader for this frame
+     * @param camera - the camera perspective
+     * @param window - the window being rendered to
+     * @param lightPosition - the position of the light
+     */
+    public void update(Camera camera, Window window, Vector3f lightPosition) {
+        // the block is declared row_major, so the matrices are copied as they are stored
+        view = Matrix4f.view(camera.getPosition(), camera.getRotation());
+        putMatrix(VIEW, view);
+        putMatrix(PROJECTION, window.getProjectionMatrix());
+        putVector(LIGHT_POS, lightPosition);
+        data.put(LIGHT_LEVEL, lightLevel);
+        putVector(VIEW_POS, camera.getPosition());
+        putVector(LIGHT_COLOR, lightColor);
+
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, ubo);
+        GL15.glBufferSubData(GL31.GL_UNIFORM_BUFFER, 0, data);
+        GL15.glBindBuffer(GL31.GL_UNIFORM_BUFFER, 0);
+        GL30.glBindBufferBase(GL31.GL_UNIFORM_BUFFER, BINDING, ubo);
+    }
+
+    /**
+     * helper method - writes a matrix into the block
+     * @param offset - the offset of the matrix, in floats
+     * @param matrix - the matrix
+     */
+    private void putMatrix(int offset, Matrix4f matrix) {
+        float[] elements = matrix.getAll();
+        for (int i = 0; i < elements.length; i++) {
+            data.put(offset + i, elements[i]);
+        }
+    }
+
+    /**
+     * helper method - writes a vector into the block
+     * @param offset - the offset of the vector, in floats
+     * @param vector - the vector
+     */
+    private void putVector(int offset, Vector3f vector) {
+        data.put(offset, vector.getX());
+        data.put(offset + 1, vector.getY());
+        data.put(offset + 2, vector.getZ());
+    }
+
+    /**
+     * getter method
+     * @return - the view matrix written by the last update
+     */
+    public Matrix4f getView() {
+        return this.view;
+    }
+
+    /**
+     * sets the light color
+     * @param lightColor - the new color
+     */
+    public void setLightColor(Vector3f lightColor) {
+        this.lightColor = lightColor;
+    }
+
+    /**
+     * getter method
+     * @return - the light color
+     */
+    public Vector3f getLightColor() {
+        return this.lightColor;
+    }
+
+    /**
+     * releases the uniform buffer
+     */
+    public void destroy() {
+        GLResources.release(GLResources.Type.BUFFER, ubo);
+        GLResources.free(data);
+    }
+}
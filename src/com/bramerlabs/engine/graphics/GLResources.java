@@ -0,0 +1,290 @@
+package com.bramerlabs.engine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.system.MemoryUtil;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class GLResources {
+
+    /**
+     * the kinds of resource that are tracked
+     */
+    public enum Type {
+        VERTEX_ARRAY, BUFFER, TEXTURE, FRAMEBUFFER, RENDERBUFFER, PROGRAM, SHADER, NATIVE_MEMORY
+    }
+
+    /**
+     * a single live resource
+     */
+    private static class Resource {
+        private Type type;
+        private long handle;
+        private String owner;
+        private long bytes;
+        private int references = 1;
+    }
+
+    // every live resource, keyed by its type and handle
+    private static final HashMap<Long, Resource> resources = new HashMap<>();
+
+    // the number of live resources and bytes of each type
+    private static final int[] liveCounts = new int[Type.values().length];
+    private static final long[] liveBytes = new long[Type.values().length];
+
+    /**
+     * generates a vertex array object and starts tracking it
+     * must be called on the thread that owns the OpenGL context
+     * @param owner - the name of what the vertex array belongs to, used in the report
+     * @return - the vertex array object
+     */
+    public static int genVertexArray(String owner) {
+        int vao = GL30.glGenVertexArrays();
+        track(Type.VERTEX_ARRAY, vao, owner, 0);
+        return vao;
+    }
+
+    /**
+     * generates a buffer object and starts tracking it - its size is set with setBufferSize once it has data
+     * must be called on the thread that owns the OpenGL context
+     * @param owner - the name of what the buffer belongs to, used in the report
+     * @return - the buffer object
+     */
+    public static int genBuffer(String owner) {
+        int buffer = GL15.glGenBuffers();
+        track(Type.BUFFER, buffer, owner, 0);
+        return buffer;
+    }
+
+    /**
+     * records the number of bytes of GPU memory a buffer object holds
+     * @param buffer - the buffer object
+     * @param bytes - the size of its data store
+     */
+    public static synchronized void setBufferSize(int buffer, long bytes) {
+        Resource resource = resources.get(key(Type.BUFFER, buffer));
+        if (resource != null) {
+            liveBytes[Type.BUFFER.ordinal()] += bytes - resource.bytes;
+            resource.bytes = bytes;
+        }
+    }
+
+    /**
+     * starts tracking a resource that was created somewhere else, with one reference
+     * @param type - the type of resource
+     * @param handle - the OpenGL name or native address of the resource
+     * @param owner - the name of what the resource belongs to, used in the report
+     * @param bytes - the number of bytes the resource holds, if known
+     */
+    public static synchronized void track(Type type, long handle, String owner, long bytes) {
+        if (handle == 0) {
+            return;
+        }
+        Resource resource = new Resource();
+        resource.type = type;
+        resource.handle = handle;
+        resource.owner = owner;
+        resource.bytes = bytes;
+        if (resources.put(key(type, handle), resource) == null) {
+            liveCounts[type.ordinal()]++;
+        }
+        liveBytes[type.ordinal()] += bytes;
+    }
+
+    /**
+     * adds a reference to a resource, so that it outlives the next release
+     * @param type - the type of resource
+     * @param handle - the OpenGL name or native address of the resource
+     */
+    public static synchronized void retain(Type type, long handle) {
+        Resource resource = resources.get(key(type, handle));
+        if (resource != null) {
+            resource.references++;
+        }
+    }
+
+    /**
+     * removes a reference to a resource, deleting it when no references are left
+     * OpenGL resources must be released on the thread that owns the OpenGL context
+     * @param type - the type of resource
+     * @param handle - the OpenGL name or native address of the resource
+     */
+    public static synchronized void release(Type type, long handle) {
+        Resource resource = resources.get(key(type, handle));
+        if (resource == null || --resource.references > 0) {
+            return;
+        }
+        resources.remove(key(type, handle));
+        liveCounts[type.ordinal()]--;
+        liveBytes[type.ordinal()] -= resource.bytes;
+        delete(type, handle);
+    }
+
+    /**
+     * allocates native memory and starts tracking it
+     * @param bytes - the number of bytes
+     * @param owner - the name of what the memory belongs to, used in the report
+     * @return - the native buffer
+     */
+    public static ByteBuffer alloc(int bytes, String owner) {
+        ByteBuffer buffer = MemoryUtil.memAlloc(bytes);
+        track(Type.NATIVE_MEMORY, MemoryUtil.memAddress0(buffer), owner, bytes);
+        return buffer;
+    }
+
+    /**
+     * allocates native memory for floats and starts tracking it
+     * @param floats - the number of floats
+     * @param owner - the name of what the memory belongs to, used in the report
+     * @return - the native buffer
+     */
+    public static FloatBuffer allocFloat(int floats, String owner) {
+        FloatBuffer buffer = MemoryUtil.memAllocFloat(floats);
+        track(Type.NATIVE_MEMORY, MemoryUtil.memAddress0(buffer), owner, (long) floats * Float.BYTES);
+        return buffer;
+    }
+
+    /**
+     * allocates native memory for ints and starts tracking it
+     * @param ints - the number of ints
+     * @param owner - the name of what the memory belongs to, used in the report
+     * @return - the native buffer
+     */
+    public static IntBuffer allocInt(int ints, String owner) {
+        IntBuffer buffer = MemoryUtil.memAllocInt(ints);
+        track(Type.NATIVE_MEMORY, MemoryUtil.memAddress0(buffer), owner, (long) ints * Integer.BYTES);
+        return buffer;
+    }
+
+    /**
+     * grows or shrinks tracked native memory for floats, keeping its contents
+     * @param buffer - the native buffer
+     * @param floats - the new number of floats
+     * @param owner - the name of what the memory belongs to, used in the report
+     * @return - the new native buffer, which replaces the old one
+     */
+    public static FloatBuffer reallocFloat(FloatBuffer buffer, int floats, String owner) {
+        untrack(Type.NATIVE_MEMORY, MemoryUtil.memAddress0(buffer));
+        FloatBuffer result = MemoryUtil.memRealloc(buffer, floats);
+        track(Type.NATIVE_MEMORY, MemoryUtil.memAddress0(result), owner, (long) floats * Float.BYTES);
+        return result;
+    }
+
+    /**
+     * frees tracked native memory
+     * @param buffer - the native buffer
+     */
+    public static void free(Buffer buffer) {
+        if (buffer != null) {
+            release(Type.NATIVE_MEMORY, MemoryUtil.memAddress0(buffer));
+        }
+    }
+
+    /**
+     * helper method - stops tracking a resource without deleting it
+     * @param type - the type of resource
+     * @param handle - the OpenGL name or native address of the resource
+     */
+    private static synchronized void untrack(Type type, long handle) {
+        Resource resource = resources.remove(key(type, handle));
+        if (resource != null) {
+            liveCounts[type.ordinal()]--;
+            liveBytes[type.ordinal()] -= resource.bytes;
+        }
+    }
+
+    /**
+     * helper method - deletes a resource
+     * @param type - the type of resource
+     * @param handle - the OpenGL name or native address of the resource
+     */
+    private static void delete(Type type, long handle) {
+        switch (type) {
+            case VERTEX_ARRAY: GL30.glDeleteVertexArrays((int) handle); break;
+            case BUFFER: GL15.glDeleteBuffers((int) handle); break;
+            case TEXTURE: GL11.glDeleteTextures((int) handle); break;
+            case FRAMEBUFFER: GL30.glDeleteFramebuffers((int) handle); break;
+            case RENDERBUFFER: GL30.glDeleteRenderbuffers((int) handle); break;
+            case PROGRAM: GL20.glDeleteProgram((int) handle); break;
+            case SHADER: GL20.glDeleteShader((int) handle); break;
+            case NATIVE_MEMORY: MemoryUtil.nmemFree(handle); break;
+        }
+    }
+
+    /**
+     * helper method - the key of a resource in the table
+     * @param type - the type of resource
+     * @param handle - the OpenGL name or native address of the resource
+     * @return - the key
+     */
+    private static long key(Type type, long handle) {
+        // native addresses use the whole key, OpenGL names only the low 32 bits under their type
+        return type == Type.NATIVE_MEMORY ? handle : ((long) (type.ordinal() + 1) << 56) | (handle & 0xFFFFFFFFL);
+    }
+
+    /**
+     * getter method
+     * @param type - the type of resource
+     * @return - the number of live resources of a type
+     */
+    public static synchronized int getLiveCount(Type type) {
+        return liveCounts[type.ordinal()];
+    }
+
+    /**
+     * getter method
+     * @param type - the type of resource
+     * @return - the number of bytes held by live resources of a type, where known
+     */
+    public static synchronized long getLiveBytes(Type type) {
+        return liveBytes[type.ordinal()];
+    }
+
+    /**
+     * makes a report of the live resources - a summary per type, followed by every live resource if detailed
+     * @param detailed - if every live resource should be listed
+     * @return - the report
+     */
+    public static synchronized String getReport(boolean detailed) {
+        StringBuilder report = new StringBuilder("live GL resources:\n");
+        for (Type type : Type.values()) {
+            report.append(String.format("  %-14s %6d handles %12d bytes%n", type, liveCounts[type.ordinal()], liveBytes[type.ordinal()]));
+        }
+        if (detailed) {
+            for (Resource resource : resources.values()) {
+                report.append(String.format("  %s %d (%s) %d bytes, %d references%n",
+                        resource.type, resource.handle, resource.owner, resource.bytes, resource.references));
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * deletes every live resource regardless of its references, and reports the ones that were still live
+     * must be called on the thread that owns the OpenGL context, before it is destroyed
+     * @return - the number of resources that were still live
+     */
+    public static synchronized int releaseAll() {
+        int leaked = resources.size();
+        if (leaked > 0) {
+            System.err.print(getReport(true));
+        }
+        for (Resource resource : new ArrayList<>(resources.values())) {
+            delete(resource.type, resource.handle);
+        }
+        resources.clear();
+        for (Type type : Type.values()) {
+            liveCounts[type.ordinal()] = 0;
+            liveBytes[type.ordinal()] = 0;
+        }
+        return leaked;
+    }
+}
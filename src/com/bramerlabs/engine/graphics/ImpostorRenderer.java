@@ -0,0 +1,52 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.objects.shapes.MeshRegistry;
+import org.lwjgl.opengl.GL11;
+
+public class ImpostorRenderer {
+
+    // draws each sphere as a quad facing the camera, ray cast in the fragment shader
+    private InstancedRenderer sphereRenderer;
+
+    // draws each cylinder as the box bounding it, ray cast in the fragment shader
+    private InstancedRenderer cylinderRenderer;
+
+    // the counters that every draw and state change is added to
+    private RenderStats stats;
+
+    /**
+     * default constructor
+     * @param sphereShader - the sphere impostor shader, reading center, radius, and color per instance
+     * @param cylinderShader - the cylinder impostor shader, reading the unit cylinder transform and color per instance
+     * @param stats - the counters that every draw and state change is added to
+     */
+    public ImpostorRenderer(Shader sphereShader, Shader cylinderShader, RenderStats stats) {
+        this.sphereRenderer = new InstancedRenderer(sphereShader, stats);
+        this.cylinderRenderer = new InstancedRenderer(cylinderShader, stats);
+        this.stats = stats;
+    }
+
+    /**
+     * renders every sphere in an instance buffer in a single draw call
+     * @param spheres - the per-sphere data - center, radius, color, if it is selected, its pick ID
+     */
+    public void renderSpheres(InstanceBuffer spheres) {
+        sphereRenderer.renderInstances(MeshRegistry.getQuad(), spheres);
+    }
+
+    /**
+     * renders every cylinder in an instance buffer in a single draw call
+     * @param cylinders - the per-cylinder data - the transform of the unit cylinder, color, if it is selected, its pick ID
+     */
+    public void renderCylinders(InstanceBuffer cylinders) {
+        if (cylinders.getCount() == 0) {
+            return;
+        }
+        // the back faces are kept so that a cylinder is still drawn when the camera is inside its box
+        GL11.glDisable(GL11.GL_CULL_FACE);
+        cylinderRenderer.renderInstances(MeshRegistry.getCube(), cylinders);
+        GL11.glEnable(GL11.GL_CULL_FACE);
+        stats.countStateChange();
+        stats.countStateChange();
+    }
+}
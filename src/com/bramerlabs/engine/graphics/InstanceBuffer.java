@@ -0,0 +1,239 @@
+package com.bramerlabs.engine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL33;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+public class InstanceBuffer {
+
+    // the vertex attribute location of the first per-instance attribute - 0, 1, 2 are used by the mesh
+    public static final int FIRST_LOCATION = 3;
+
+    // the number of floats in each per-instance attribute
+    private int[] attributeSizes;
+
+    // the attributes read by the shaders as unsigned integers rather than floats, such as pick IDs
+    private boolean[] integerAttributes;
+
+    // the number of floats per instance
+    private int stride;
+
+    // the per-instance data, kept on the CPU and copied to the GPU when it changes
+    private FloatBuffer data;
+
+    // the number of instances
+    private int count = 0;
+
+    // the number of instances the GPU buffer can currently hold
+    private int gpuCapacity = 0;
+
+    // the range of instances that have changed since the last upload
+    private int dirtyStart = Integer.MAX_VALUE, dirtyEnd = -1;
+
+    // the instance buffer object
+    private int vbo = 0;
+
+    // the vertex array objects combining a mesh's buffers with this buffer
+    private HashMap<Mesh, Integer> vaos = new HashMap<>();
+
+    // the mesh buffers referenced by those vertex arrays, kept alive until this buffer is destroyed
+    private ArrayList<Integer> meshBuffers = new ArrayList<>();
+
+    /**
+     * default constructor
+     * @param attributeSizes - the number of floats in each per-instance attribute, starting at location 3
+     */
+    public InstanceBuffer(int... attributeSizes) {
+        this.attributeSizes = attributeSizes;
+        this.integerAttributes = new boolean[attributeSizes.length];
+        for (int size : attributeSizes) {
+            stride += size;
+        }
+        data = GLResources.allocFloat(stride * 16, "instance data");
+    }
+
+    /**
+     * makes the shaders read an attribute as unsigned integers, so that values above 2^24 are not rounded like floats would be
+     * the values are written with packInt, and this must be called before the first vertex array is made
+     * @param attribute - the index of the attribute, counting from 0 at location 3
+     */
+    public void setIntegerAttribute(int attribute) {
+        integerAttributes[attribute] = true;
+    }
+
+    /**
+     * helper method - stores the bits of an integer in a float, for an attribute read as integers
+     * @param value - the integer
+     * @return - a float with the same bits
+     */
+    public static float packInt(int value) {
+        return Float.intBitsToFloat(value);
+    }
+
+    /**
+     * sets the number of instances, growing the CPU side storage if needed
+     * @param count - the number of instances
+     */
+    public void setCount(int count) {
+        if (count * stride > data.capacity()) {
+            data = GLResources.reallocFloat(data, Math.max(count, data.capacity() / stride * 2) * stride, "instance data");
+        }
+        this.count = count;
+    }
+
+    /**
+     * writes the data of one instance
+     * the values are taken as an array rather than one by one, so that callers can reuse a scratch array instead of making one per instance
+     * @param instance - the index of the instance
+     * @param values - the values of every attribute of the instance, in order - only the first getStride() are read
+     */
+    public void put(int instance, float[] values) {
+        int offset = instance * stride;
+        for (int i = 0; i < stride; i++) {
+            data.put(offset + i, values[i]);
+        }
+        dirtyStart = Math.min(dirtyStart, instance);
+        dirtyEnd = Math.max(dirtyEnd, instance);
+    }
+
+    /**
+     * reads one value of an instance
+     * @param instance - the index of the instance
+     * @param component - the index of the value within the instance
+     * @return - the value
+     */
+    public float get(int instance, int component) {
+        return data.get(instance * stride + component);
+    }
+
+    /**
+     * copies the data of an instance from another buffer with the same layout
+     * @param source - the buffer to copy from
+     * @param from - the index of the instance in the source buffer
+     * @param to - the index of the instance in this buffer
+     */
+    public void copy(InstanceBuffer source, int from, int to) {
+        int offset = to * stride;
+        int sourceOffset = from * stride;
+        for (int i = 0; i < stride; i++) {
+            data.put(offset + i, source.data.get(sourceOffset + i));
+        }
+        dirtyStart = Math.min(dirtyStart, to);
+        dirtyEnd = Math.max(dirtyEnd, to);
+    }
+
+    /**
+     * copies the changed instances to the GPU
+     */
+    public void upload() {
+        if (vbo == 0) {
+            vbo = GLResources.genBuffer("instances");
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        if (count > gpuCapacity) {
+            // reallocate the whole buffer
+            data.limit(count * stride).position(0);
+            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, data, GL15.GL_DYNAMIC_DRAW);
+            GLResources.setBufferSize(vbo, (long) count * stride * Float.BYTES);
+            gpuCapacity = count;
+        } else if (dirtyEnd >= dirtyStart && dirtyStart < count) {
+            // only copy the range that changed
+            int end = Math.min(dirtyEnd + 1, count);
+            data.limit(end * stride).position(dirtyStart * stride);
+            GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, (long) dirtyStart * stride * Float.BYTES, data);
+        }
+        data.clear();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        dirtyStart = Integer.MAX_VALUE;
+        dirtyEnd = -1;
+    }
+
+    /**
+     * gets the vertex array that draws a mesh once per instance in this buffer, creating it if needed
+     * @param mesh - the mesh to draw
+     * @return - the vertex array object
+     */
+    public int getVAO(Mesh mesh) {
+        Integer vao = vaos.get(mesh);
+        if (vao != null) {
+            return vao;
+        }
+        if (vbo == 0) {
+            vbo = GLResources.genBuffer("instances");
+        }
+
+        vao = GLResources.genVertexArray("instances");
+        GL30.glBindVertexArray(vao);
+
+        // the per-vertex attributes of the mesh
+        mesh.bindVertexAttributes();
+        GLResources.retain(GLResources.Type.BUFFER, mesh.getVBO());
+        GLResources.retain(GLResources.Type.BUFFER, mesh.getIBO());
+        meshBuffers.add(mesh.getVBO());
+        meshBuffers.add(mesh.getIBO());
+
+        // the per-instance attributes, advanced once per instance
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        int offset = 0;
+        for (int i = 0; i < attributeSizes.length; i++) {
+            int location = FIRST_LOCATION + i;
+            if (integerAttributes[i]) {
+                GL30.glVertexAttribIPointer(location, attributeSizes[i], GL11.GL_UNSIGNED_INT, stride * Float.BYTES, (long) offset * Float.BYTES);
+            } else {
+                GL20.glVertexAttribPointer(location, attributeSizes[i], GL11.GL_FLOAT, false, stride * Float.BYTES, (long) offset * Float.BYTES);
+            }
+            GL33.glVertexAttribDivisor(location, 1);
+            GL20.glEnableVertexAttribArray(location);
+            offset += attributeSizes[i];
+        }
+
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        vaos.put(mesh, vao);
+        return vao;
+    }
+
+    /**
+     * getter method
+     * @return - the number of instances
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * getter method
+     * @return - the number of floats per instance
+     */
+    public int getStride() {
+        return this.stride;
+    }
+
+    /**
+     * releases the buffer
+     */
+    public void destroy() {
+        for (int vao : vaos.values()) {
+            GLResources.release(GLResources.Type.VERTEX_ARRAY, vao);
+        }
+        vaos.clear();
+        for (int buffer : meshBuffers) {
+            GLResources.release(GLResources.Type.BUFFER, buffer);
+        }
+        meshBuffers.clear();
+        if (vbo != 0) {
+            GLResources.release(GLResources.Type.BUFFER, vbo);
+            vbo = 0;
+        }
+        GLResources.free(data);
+        data = null;
+    }
+}
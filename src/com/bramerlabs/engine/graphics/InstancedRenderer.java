@@ -0,0 +1,54 @@
+package com.bramerlabs.engine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+
+public class InstancedRenderer {
+
+    // the shader program
+    private Shader shader;
+
+    // the location of the alpha uniform, looked up the first time the shader is used, since it is linked after this renderer is made
+    private int alphaLocation = -1;
+    private boolean located = false;
+
+    // the counters that every draw and state change is added to
+    private RenderStats stats;
+
+    /**
+     * default constructor
+     * @param shader - the shader program to use to render, reading per-instance attributes from location 3 onwards
+     * @param stats - the counters that every draw and state change is added to
+     */
+    public InstancedRenderer(Shader shader, RenderStats stats) {
+        this.shader = shader;
+        this.stats = stats;
+    }
+
+    /**
+     * renders a mesh once for every instance in an instance buffer, in a single draw call
+     * the camera and lighting are read from the per-frame uniform block, and nothing is drawn until the mesh has been created
+     * @param mesh - the mesh to draw
+     * @param instances - the per-instance data
+     */
+    public void renderInstances(Mesh mesh, InstanceBuffer instances) {
+        if (instances.getCount() == 0 || !mesh.isCreated()) {
+            return;
+        }
+        GL30.glBindVertexArray(instances.getVAO(mesh));
+        stats.countMeshChange();
+        shader.bind();
+        stats.countShaderChange();
+        if (!located) {
+            alphaLocation = shader.getUniformLocation("alpha");
+            located = true;
+        }
+        shader.setUniform(alphaLocation, 1.0f);
+        mesh.setConstantAttributes();
+        GL31.glDrawElementsInstanced(GL11.GL_TRIANGLES, mesh.getIndexCount(), GL11.GL_UNSIGNED_INT, 0, instances.getCount());
+        stats.countDraw();
+        shader.unbind();
+        GL30.glBindVertexArray(0);
+    }
+}
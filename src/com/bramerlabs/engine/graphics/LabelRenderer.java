@@ -0,0 +1,67 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.math.Vector2f;
+import com.bramerlabs.engine.objects.shapes.MeshRegistry;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+
+public class LabelRenderer {
+
+    // the label shader, reading anchor, rectangle, texture rectangle, and color per glyph
+    private Shader shader;
+
+    // the locations of the uniforms, looked up the first time the shader is used, since it is linked after this renderer is made
+    private int fontAtlasLocation = -1, screenSizeLocation = -1;
+    private boolean located = false;
+
+    // the size of the viewport, passed to the shader
+    private Vector2f screenSize = new Vector2f(0, 0);
+
+    /**
+     * default constructor
+     * @param shader - the label shader
+     */
+    public LabelRenderer(Shader shader) {
+        this.shader = shader;
+    }
+
+    /**
+     * renders every glyph in an instance buffer in a single draw call, as quads facing the camera with a fixed size on screen
+     * labels are hidden behind opaque objects, but do not hide each other
+     * @param glyphs - the per-glyph data - anchor (vec3), rectangle in pixels around the anchor (vec4), texture rectangle (vec4), color (vec3), pick ID (float)
+     * @param fontAtlas - the texture of the font atlas
+     * @param width - the width of the viewport, in pixels
+     * @param height - the height of the viewport, in pixels
+     */
+    public void renderLabels(InstanceBuffer glyphs, int fontAtlas, int width, int height) {
+        Mesh quad = MeshRegistry.getQuad();
+        if (glyphs.getCount() == 0 || !quad.isCreated()) {
+            return;
+        }
+        GL11.glEnable(GL11.GL_BLEND);
+        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        GL11.glDepthMask(false);
+        GL13.glActiveTexture(GL13.GL_TEXTURE0);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, fontAtlas);
+
+        GL30.glBindVertexArray(glyphs.getVAO(quad));
+        shader.bind();
+        if (!located) {
+            fontAtlasLocation = shader.getUniformLocation("fontAtlas");
+            screenSizeLocation = shader.getUniformLocation("screenSize");
+            located = true;
+        }
+        screenSize.set(width, height);
+        shader.setUniform(fontAtlasLocation, 0);
+        shader.setUniform(screenSizeLocation, screenSize);
+        GL31.glDrawElementsInstanced(GL11.GL_TRIANGLES, quad.getIndexCount(), GL11.GL_UNSIGNED_INT, 0, glyphs.getCount());
+        shader.unbind();
+        GL30.glBindVertexArray(0);
+
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        GL11.glDepthMask(true);
+        GL11.glDisable(GL11.GL_BLEND);
+    }
+}
@@ -0,0 +1,67 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.math.Matrix4f;
+
+public class LevelOfDetail {
+
+    // the smallest screen radius, in pixels, at which each level after the first is used
+    private float[] thresholds;
+
+    // how far past a threshold the screen radius must go before the level changes, as a fraction of the threshold
+    private float hysteresis;
+
+    /**
+     * default constructor
+     * @param hysteresis - the fraction of a threshold that the screen radius must pass it by before the level changes
+     * @param thresholds - the smallest screen radius, in pixels, of each level after the coarsest, in increasing order
+     */
+    public LevelOfDetail(float hysteresis, float... thresholds) {
+        this.hysteresis = hysteresis;
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * selects the level of detail for an object
+     * the level only changes once the screen radius is clearly past a threshold, so that objects near one do not flicker between levels
+     * @param screenRadius - the radius of the object on screen, in pixels
+     * @param previous - the level the object was drawn at last frame, or -1 if it has none
+     * @return - the level to draw the object at, from 0 (coarsest) to getLevelCount() - 1 (finest)
+     */
+    public int select(float screenRadius, int previous) {
+        if (previous < 0) {
+            int level = 0;
+            while (level < thresholds.length && screenRadius >= thresholds[level]) {
+                level++;
+            }
+            return level;
+        }
+        int level = previous;
+        while (level < thresholds.length && screenRadius >= thresholds[level] * (1 + hysteresis)) {
+            level++;
+        }
+        while (level > 0 && screenRadius < thresholds[level - 1] * (1 - hysteresis)) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * getter method
+     * @return - the number of levels
+     */
+    public int getLevelCount() {
+        return thresholds.length + 1;
+    }
+
+    /**
+     * finds the number of pixels that one unit covers at a distance of one unit from the camera
+     * the screen radius of an object is its radius times this scale, divided by its distance
+     * @param projection - the projection matrix
+     * @param viewportHeight - the height of the viewport, in pixels
+     * @return - the pixel scale
+     */
+    public static float getPixelScale(Matrix4f projection, int viewportHeight) {
+        // the second diagonal element of a perspective projection is 1 / tan(fov / 2)
+        return projection.get(1, 1) * viewportHeight / 2;
+    }
+}
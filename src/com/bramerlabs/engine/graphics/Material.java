@@ -2,7 +2,6 @@ package com.bramerlabs.engine.graphics;
 
 import com.bramerlabs.engine.io.file_util.FileUtils;
 import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL20;
 import org.newdawn.slick.opengl.Texture;
 import org.newdawn.slick.opengl.TextureLoader;
 
@@ -48,13 +47,14 @@ public class Material {
         width = texture.getWidth();
         height = texture.getHeight();
         textureID = texture.getTextureID();
+        GLResources.track(GLResources.Type.TEXTURE, textureID, pathToTexture, (long) texture.getTextureWidth() * texture.getTextureHeight() * 4);
     }
 
     /**
      * release the texture
      */
     public void destroy() {
-        GL20.glDeleteTextures(textureID);
+        GLResources.release(GLResources.Type.TEXTURE, textureID);
     }
 
     /**
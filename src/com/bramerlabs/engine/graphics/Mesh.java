@@ -1,32 +1,47 @@
 package com.bramerlabs.engine.graphics;
 
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.math.collision.AABB;
 import org.lwjgl.opengl.*;
-import org.lwjgl.system.MemoryUtil;
 
-import java.nio.FloatBuffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
 
 public class Mesh {
 
-    // the vertices and indices of this mesh
-    private Vertex[] vertices;
+    // if meshes drop their vertex data from the heap once it has been uploaded, unless told to keep it
+    private static boolean releaseAfterUpload = true;
+
+    // the position, color, and normal of every vertex, three floats each, and the indices of this mesh
+    // null once the mesh has been created and its data released, until it is read back
+    private float[] positions;
+    private float[] colors;
+    private float[] normals;
     private int[] indices;
 
+    // the number of vertices and indices, which are still known after the data has been released
+    private int vertexCount;
+    private int indexCount;
+
+    // if this mesh keeps its vertex data after it has been created
+    private boolean keepData = false;
+
+    // the layout of the vertex buffer
+    private VertexFormat format;
+
     // vertex array object
     private int vao;
 
-    // position buffer object
-    private int pbo;
-
-    // color buffer object
-    private int cbo;
+    // vertex buffer object - every attribute of a vertex is stored next to each other
+    private int vbo;
 
     // index buffer object
     private int ibo;
 
-    // normal vector buffer object
-    private int nbo;
+    // the box bounding the vertices, in the mesh's own coordinates
+    private AABB bounds;
 
     /**
      * default constructor for specified vertices and indices, and specified material
@@ -34,8 +49,34 @@ public class Mesh {
      * @param indices - the indices of this mesh
      */
     public Mesh(Vertex[] vertices, int[] indices) {
-        this.vertices = vertices;
+        this(vertices, indices, VertexFormat.FLOAT);
+    }
+
+    /**
+     * constructor for specified vertices and indices, and a specified vertex format
+     * @param vertices - the vertices of this mesh
+     * @param indices - the indices of this mesh
+     * @param format - the layout of the vertex buffer
+     */
+    public Mesh(Vertex[] vertices, int[] indices, VertexFormat format) {
+        this.positions = new float[vertices.length * 3];
+        this.colors = new float[vertices.length * 3];
+        this.normals = new float[vertices.length * 3];
+        for (int i = 0; i < vertices.length; i++) {
+            Vertex vertex = vertices[i];
+            Vector3f color = vertex.getColor() == null ? new Vector3f(1) : vertex.getColor();
+            Vector3f normal = vertex.getNormal() == null ? new Vector3f(0, 0, 1) : vertex.getNormal();
+            for (int c = 0; c < 3; c++) {
+                positions[i * 3 + c] = vertex.getPosition().get(c);
+                colors[i * 3 + c] = color.get(c);
+                normals[i * 3 + c] = normal.get(c);
+            }
+        }
         this.indices = indices;
+        this.format = format;
+        this.vertexCount = vertices.length;
+        this.indexCount = indices.length;
+        computeBounds();
     }
 
     /**
@@ -43,14 +84,48 @@ public class Mesh {
      * @param vertices - the list of vertices
      */
     public Mesh(ArrayList<Vertex> vertices) {
-        this.vertices = new Vertex[vertices.size()];
-        for (int i = 0; i < vertices.size(); i++) {
-            this.vertices[i] = vertices.get(i);
+        this(vertices.toArray(new Vertex[0]), sequentialIndices(vertices.size()), VertexFormat.FLOAT);
+    }
+
+    /**
+     * constructor for vertex data that is already in primitive arrays, as made by a mesh builder
+     * @param positions - the position of every vertex, three floats each
+     * @param colors - the color of every vertex, three floats each
+     * @param normals - the normal vector of every vertex, three floats each
+     * @param indices - the indices of this mesh
+     * @param format - the layout of the vertex buffer
+     */
+    public Mesh(float[] positions, float[] colors, float[] normals, int[] indices, VertexFormat format) {
+        this.positions = positions;
+        this.colors = colors;
+        this.normals = normals;
+        this.indices = indices;
+        this.format = format;
+        this.vertexCount = positions.length / 3;
+        this.indexCount = indices.length;
+        computeBounds();
+    }
+
+    /**
+     * helper method - makes the indices of a mesh that draws its vertices in order
+     * @param count - the number of vertices
+     * @return - the indices
+     */
+    private static int[] sequentialIndices(int count) {
+        int[] indices = new int[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = i;
         }
+        return indices;
+    }
 
-        this.indices = new int[vertices.size()];
-        for (int i = 0; i < vertices.size(); i++) {
-            this.indices[i] = i;
+    /**
+     * helper method - finds the box bounding the vertices
+     */
+    private void computeBounds() {
+        bounds = new AABB();
+        for (int i = 0; i < positions.length; i += 3) {
+            bounds.include(positions[i], positions[i + 1], positions[i + 2]);
         }
     }
 
@@ -59,70 +134,229 @@ public class Mesh {
      */
     public void create() {
         // generate and bind the vertex array
-        vao = GL46.glGenVertexArrays();
+        vao = GLResources.genVertexArray("mesh");
         GL46.glBindVertexArray(vao);
 
         // create the buffers
-        makePositionBuffer();
-        makeColorBuffer();
-        makeNormalBuffer();
+        makeVertexBuffer();
         makeIndexBuffer();
+        bindVertexAttributes();
+
+        // unbind the vertex array, which keeps the enabled attributes and the index buffer
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+
+        // the buffers now hold everything needed to draw the mesh
+        if (releaseAfterUpload && !keepData) {
+            releaseData();
+        }
     }
 
     /**
-     * helper method to create the position buffer object
+     * drops the vertex data from the heap, keeping only the counts, the bounds, and the buffers
+     * the data can be read back from the buffers with readBack
      */
-    private void makePositionBuffer() {
-        // preallocate memory
-        FloatBuffer positionBuffer = MemoryUtil.memAllocFloat(vertices.length * 3);
+    public void releaseData() {
+        positions = colors = normals = null;
+        indices = null;
+    }
+
+    /**
+     * reads the vertex data back from the buffers after it has been released, for export or picking
+     * must be called on the thread that owns the OpenGL context
+     * colors of meshes without their own are white, and packed values come back at the precision they were stored with
+     */
+    public void readBack() {
+        if (hasData() || !isCreated()) {
+            return;
+        }
+        ByteBuffer vertexBuffer = GLResources.alloc(vertexCount * format.getStride(), "mesh read back");
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, vbo);
+        GL15.glGetBufferSubData(GL31.GL_COPY_READ_BUFFER, 0, vertexBuffer);
+        IntBuffer indicesBuffer = GLResources.allocInt(indexCount, "mesh read back");
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, ibo);
+        GL15.glGetBufferSubData(GL31.GL_COPY_READ_BUFFER, 0, indicesBuffer);
+        GL15.glBindBuffer(GL31.GL_COPY_READ_BUFFER, 0);
+
+        positions = new float[vertexCount * 3];
+        colors = new float[vertexCount * 3];
+        normals = new float[vertexCount * 3];
+        vertexBuffer.order(ByteOrder.nativeOrder());
+        for (int i = 0; i < vertexCount * 3; i += 3) {
+            switch (format) {
+                case FLOAT:
+                    getFloats(vertexBuffer, positions, i);
+                    getFloats(vertexBuffer, colors, i);
+                    getFloats(vertexBuffer, normals, i);
+                    break;
+                case PACKED:
+                    getFloats(vertexBuffer, positions, i);
+                    getColor(vertexBuffer, colors, i);
+                    unpackNormal(vertexBuffer.getInt(), normals, i);
+                    break;
+                case UNIT:
+                    getShorts(vertexBuffer, positions, i);
+                    colors[i] = colors[i + 1] = colors[i + 2] = 1.0f;
+                    unpackNormal(vertexBuffer.getInt(), normals, i);
+                    break;
+            }
+        }
+        indices = new int[indexCount];
+        indicesBuffer.get(indices);
 
-        // create a new temp array to store position data
-        float[] positionData = new float[vertices.length * 3];
+        GLResources.free(vertexBuffer);
+        GLResources.free(indicesBuffer);
+    }
 
-        // add all the position data to the temp array
-        for (int i = 0; i < vertices.length; i++) {
-            positionData[i * 3    ] = vertices[i].getPosition().getX();
-            positionData[i * 3 + 1] = vertices[i].getPosition().getY();
-            positionData[i * 3 + 2] = vertices[i].getPosition().getZ();
+    /**
+     * helper method to create the vertex buffer object, with the attributes of each vertex interleaved
+     */
+    private void makeVertexBuffer() {
+        int vertexCount = positions.length / 3;
+        ByteBuffer vertexBuffer = GLResources.alloc(vertexCount * format.getStride(), "mesh upload");
+        for (int i = 0; i < vertexCount * 3; i += 3) {
+            switch (format) {
+                case FLOAT:
+                    putFloats(vertexBuffer, positions, i);
+                    putFloats(vertexBuffer, colors, i);
+                    putFloats(vertexBuffer, normals, i);
+                    break;
+                case PACKED:
+                    putFloats(vertexBuffer, positions, i);
+                    putColor(vertexBuffer, colors, i);
+                    vertexBuffer.putInt(packNormal(normals, i));
+                    break;
+                case UNIT:
+                    putShorts(vertexBuffer, positions, i);
+                    vertexBuffer.putInt(packNormal(normals, i));
+                    break;
+            }
         }
+        vertexBuffer.flip();
 
-        // flip the data to make it handleable by OpenGL
-        positionBuffer.put(positionData).flip();
+        vbo = GLResources.genBuffer("mesh vertices");
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertexBuffer, GL15.GL_STATIC_DRAW);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GLResources.setBufferSize(vbo, vertexBuffer.limit());
+        GLResources.free(vertexBuffer);
+    }
 
-        // store the position data in the position buffer object
-        pbo = storeData(positionBuffer, 0, 3);
+    /**
+     * helper method - writes a vector as three floats
+     * @param buffer - the buffer to write to
+     * @param data - the array holding the vector
+     * @param i - the index of the x component of the vector
+     */
+    private static void putFloats(ByteBuffer buffer, float[] data, int i) {
+        buffer.putFloat(data[i]).putFloat(data[i + 1]).putFloat(data[i + 2]);
     }
 
     /**
-     * helper method to create the color buffer object
+     * helper method - writes a vector in the box from (-1, -1, -1) to (1, 1, 1) as three normalized shorts, and a padding short
+     * @param buffer - the buffer to write to
+     * @param data - the array holding the vector
+     * @param i - the index of the x component of the vector
      */
-    public void makeColorBuffer() {
-        FloatBuffer colorBuffer = MemoryUtil.memAllocFloat(vertices.length * 3);
-        float[] colorData = new float[vertices.length * 3];
-        for (int i = 0; i < vertices.length; i++) {
-            colorData[i * 3] = vertices[i].getColor().getX();
-            colorData[i * 3 + 1] = vertices[i].getColor().getY();
-            colorData[i * 3 + 2] = vertices[i].getColor().getZ();
-        }
-        colorBuffer.put(colorData).flip();
+    private static void putShorts(ByteBuffer buffer, float[] data, int i) {
+        buffer.putShort(toShort(data[i])).putShort(toShort(data[i + 1])).putShort(toShort(data[i + 2])).putShort((short) 0);
+    }
 
-        cbo = storeData(colorBuffer, 1, 3);
+    /**
+     * helper method - writes a color as four normalized bytes, with an opaque alpha
+     * @param buffer - the buffer to write to
+     * @param data - the array holding the color, with every component from 0 to 1
+     * @param i - the index of the red component of the color
+     */
+    private static void putColor(ByteBuffer buffer, float[] data, int i) {
+        buffer.put(toByte(data[i])).put(toByte(data[i + 1])).put(toByte(data[i + 2])).put((byte) 255);
     }
 
     /**
-     * helper method to create a buffer object for the vector normal to the surface at every vertex
+     * helper method - reads a vector written by putFloats
+     * @param buffer - the buffer to read from
+     * @param data - the array to store the vector in
+     * @param i - the index of the x component of the vector
      */
-    public void makeNormalBuffer() {
-        FloatBuffer normalBuffer = MemoryUtil.memAllocFloat(vertices.length * 3);
-        float[] normalData = new float[vertices.length * 3];
-        for (int i = 0; i < vertices.length; i++) {
-            normalData[i * 3] = vertices[i].getNormal().getX();
-            normalData[i * 3 + 1] = vertices[i].getNormal().getY();
-            normalData[i * 3 + 2] = vertices[i].getNormal().getZ();
-        }
-        normalBuffer.put(normalData).flip();
+    private static void getFloats(ByteBuffer buffer, float[] data, int i) {
+        data[i] = buffer.getFloat();
+        data[i + 1] = buffer.getFloat();
+        data[i + 2] = buffer.getFloat();
+    }
 
-        nbo = storeData(normalBuffer, 2, 3);
+    /**
+     * helper method - reads a vector written by putShorts
+     * @param buffer - the buffer to read from
+     * @param data - the array to store the vector in
+     * @param i - the index of the x component of the vector
+     */
+    private static void getShorts(ByteBuffer buffer, float[] data, int i) {
+        data[i] = Math.max(-1.0f, buffer.getShort() / (float) Short.MAX_VALUE);
+        data[i + 1] = Math.max(-1.0f, buffer.getShort() / (float) Short.MAX_VALUE);
+        data[i + 2] = Math.max(-1.0f, buffer.getShort() / (float) Short.MAX_VALUE);
+        buffer.getShort();
+    }
+
+    /**
+     * helper method - reads a color written by putColor
+     * @param buffer - the buffer to read from
+     * @param data - the array to store the color in
+     * @param i - the index of the red component of the color
+     */
+    private static void getColor(ByteBuffer buffer, float[] data, int i) {
+        data[i] = (buffer.get() & 0xFF) / 255.0f;
+        data[i + 1] = (buffer.get() & 0xFF) / 255.0f;
+        data[i + 2] = (buffer.get() & 0xFF) / 255.0f;
+        buffer.get();
+    }
+
+    /**
+     * helper method - unpacks a vector packed by packNormal
+     * @param packed - the packed normal vector
+     * @param data - the array to store the normal vector in
+     * @param i - the index of the x component of the normal vector
+     */
+    private static void unpackNormal(int packed, float[] data, int i) {
+        // shift each 10 bit component to the top of the int and back to extend its sign
+        data[i] = Math.max(-1.0f, ((packed << 22) >> 22) / 511.0f);
+        data[i + 1] = Math.max(-1.0f, ((packed << 12) >> 22) / 511.0f);
+        data[i + 2] = Math.max(-1.0f, ((packed << 2) >> 22) / 511.0f);
+    }
+
+    /**
+     * helper method - converts a value from -1 to 1 into a normalized short
+     * @param value - the value
+     * @return - the normalized short
+     */
+    private static short toShort(float value) {
+        return (short) Math.round(Math.max(-1.0f, Math.min(1.0f, value)) * Short.MAX_VALUE);
+    }
+
+    /**
+     * helper method - converts a value from 0 to 1 into a normalized unsigned byte
+     * @param value - the value
+     * @return - the normalized byte
+     */
+    private static byte toByte(float value) {
+        return (byte) Math.round(Math.max(0.0f, Math.min(1.0f, value)) * 255);
+    }
+
+    /**
+     * helper method - packs a vector into the signed 2_10_10_10 format, with 10 bits for each of x, y, and z
+     * the vector is normalized first, since only directions are stored
+     * @param data - the array holding the normal vector
+     * @param i - the index of the x component of the normal vector
+     * @return - the packed normal vector
+     */
+    private static int packNormal(float[] data, int i) {
+        float length = (float) Math.sqrt(data[i] * data[i] + data[i + 1] * data[i + 1] + data[i + 2] * data[i + 2]);
+        if (length == 0) {
+            return 0;
+        }
+        int x = Math.round(data[i] / length * 511) & 0x3FF;
+        int y = Math.round(data[i + 1] / length * 511) & 0x3FF;
+        int z = Math.round(data[i + 2] / length * 511) & 0x3FF;
+        return x | (y << 10) | (z << 20);
     }
 
     /**
@@ -130,61 +364,128 @@ public class Mesh {
      */
     private void makeIndexBuffer() {
         // preallocate memory
-        IntBuffer indicesBuffer = MemoryUtil.memAllocInt(indices.length);
+        IntBuffer indicesBuffer = GLResources.allocInt(indices.length, "mesh upload");
 
         // put the indices into the index buffer flipped
         indicesBuffer.put(indices).flip();
 
         // generate a buffer object
-        ibo = GL15.glGenBuffers();
+        ibo = GLResources.genBuffer("mesh indices");
 
         // bind the buffer object
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ibo);
 
-        // add the index data
+        // add the index data - the buffer stays bound so that the vertex array records it
         GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indicesBuffer, GL15.GL_STATIC_DRAW);
+        GLResources.setBufferSize(ibo, (long) indices.length * Integer.BYTES);
+        GLResources.free(indicesBuffer);
+    }
 
-        // unbind the buffer object
-        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
+    /**
+     * binds the buffers of this mesh to the vertex attributes of the currently bound vertex array, and enables them
+     * used by create, and to share this mesh's buffers with another vertex array, such as one that adds per-instance attributes
+     * position is attribute 0, color attribute 1, and normal attribute 2
+     */
+    public void bindVertexAttributes() {
+        int stride = format.getStride();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        switch (format) {
+            case FLOAT:
+                GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, stride, 0);
+                GL20.glVertexAttribPointer(1, 3, GL11.GL_FLOAT, false, stride, 12);
+                GL20.glVertexAttribPointer(2, 3, GL11.GL_FLOAT, false, stride, 24);
+                break;
+            case PACKED:
+                GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, stride, 0);
+                GL20.glVertexAttribPointer(1, 4, GL11.GL_UNSIGNED_BYTE, true, stride, 12);
+                GL20.glVertexAttribPointer(2, 4, GL33.GL_INT_2_10_10_10_REV, true, stride, 16);
+                break;
+            case UNIT:
+                GL20.glVertexAttribPointer(0, 3, GL11.GL_SHORT, true, stride, 0);
+                GL20.glVertexAttribPointer(2, 4, GL33.GL_INT_2_10_10_10_REV, true, stride, 8);
+                break;
+        }
+        GL20.glEnableVertexAttribArray(0);
+        GL20.glEnableVertexAttribArray(2);
+        if (format.hasColor()) {
+            GL20.glEnableVertexAttribArray(1);
+        } else {
+            // the color is read from the current generic value instead, which is set by setConstantAttributes before drawing
+            GL20.glDisableVertexAttribArray(1);
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ibo);
     }
 
     /**
-     * helper method to store data in a certain buffer object
-     * @param buffer - the float buffer containing the float data
-     * @param index - the index of the data
-     * @param size - the size of the data
-     * @return - the buffer ID
+     * sets the values read by the attributes this mesh's format does not store - a format without color is drawn white
+     * generic values are state of the whole context rather than of a vertex array, so this must be called right before each draw of the mesh
      */
-    private int storeData(FloatBuffer buffer, int index, int size) {
-        // generate a buffer ID
-        int bufferID = GL15.glGenBuffers();
+    public void setConstantAttributes() {
+        if (!format.hasColor()) {
+            GL20.glVertexAttrib3f(1, 1.0f, 1.0f, 1.0f);
+        }
+    }
 
-        // bind the buffer
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, bufferID);
+    /**
+     * sets if meshes drop their vertex data from the heap once it has been uploaded
+     * @param releaseAfterUpload - if the data is dropped, for meshes that are not told to keep it
+     */
+    public static void setReleaseAfterUpload(boolean releaseAfterUpload) {
+        Mesh.releaseAfterUpload = releaseAfterUpload;
+    }
+
+    /**
+     * sets if this mesh keeps its vertex data after it has been created - must be set before it is created
+     * @param keepData - if the data is kept
+     */
+    public void setKeepData(boolean keepData) {
+        this.keepData = keepData;
+    }
 
-        // add the data from the buffer to the gl buffer object
-        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+    /**
+     * getter method
+     * @return - if the vertex data is on the heap, either because it was kept or because it was read back
+     */
+    public boolean hasData() {
+        return this.indices != null;
+    }
 
-        // set the GL attribute
-        GL20.glVertexAttribPointer(index, size, GL11.GL_FLOAT, false, 0, 0);
+    /**
+     * getter method
+     * @return - the number of vertices
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
 
-        // unbind the buffer
-        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    /**
+     * getter method
+     * @return - the number of indices, which is the number of elements to draw
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
 
-        return bufferID;
+    /**
+     * getter method
+     * @return - the position of every vertex, three floats each, or null if the data has been released
+     */
+    public float[] getPositions() {
+        return this.positions;
     }
 
     /**
      * getter method
-     * @return - the vertices of this mesh
+     * @return - the normal vector of every vertex, three floats each, or null if the data has been released
      */
-    public Vertex[] getVertices() {
-        return this.vertices;
+    public float[] getNormals() {
+        return this.normals;
     }
 
     /**
      * getter method
-     * @return - the indices of this mesh
+     * @return - the indices of this mesh, or null if the data has been released
      */
     public int[] getIndices() {
         return this.indices;
@@ -192,34 +493,42 @@ public class Mesh {
 
     /**
      * getter method
-     * @return - the normal vector buffer object
+     * @return - the box bounding the vertices, in the mesh's own coordinates
      */
-    public int getNBO() {
-        return this.nbo;
+    public AABB getBounds() {
+        return this.bounds;
     }
 
     /**
      * getter method
-     * @return - the vertex array object
+     * @return - the layout of the vertex buffer
      */
-    public int getVAO() {
-        return this.vao;
+    public VertexFormat getFormat() {
+        return this.format;
     }
 
     /**
      * getter method
-     * @return - the position buffer object
+     * @return - if the mesh has been created, and can be drawn
      */
-    public int getPBO() {
-        return this.pbo;
+    public boolean isCreated() {
+        return this.vao != 0;
     }
 
     /**
      * getter method
-     * @return - the color buffer object
+     * @return - the vertex array object
      */
-    public int getCBO() {
-        return this.cbo;
+    public int getVAO() {
+        return this.vao;
+    }
+
+    /**
+     * getter method
+     * @return - the vertex buffer object
+     */
+    public int getVBO() {
+        return this.vbo;
     }
 
     /**
@@ -231,16 +540,13 @@ public class Mesh {
     }
 
     /**
-     * release the mesh
+     * release the mesh - buffers still referenced by another vertex array are kept until it releases them too
      */
     public void destroy() {
-        // delete the buffers
-        GL15.glDeleteBuffers(pbo);
-        GL15.glDeleteBuffers(cbo);
-        GL15.glDeleteBuffers(ibo);
-
-        // delete the vertex array
-        GL30.glDeleteVertexArrays(vao);
+        GLResources.release(GLResources.Type.BUFFER, vbo);
+        GLResources.release(GLResources.Type.BUFFER, ibo);
+        GLResources.release(GLResources.Type.VERTEX_ARRAY, vao);
+        vao = vbo = ibo = 0;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.bramerlabs.engine.graphics;
+
+import java.util.Arrays;
+
+public class MeshBuilder {
+
+    // the position, color, and normal of every vertex, three floats each
+    private float[] positions;
+    private float[] colors;
+    private float[] normals;
+
+    // the indices of every triangle, three each
+    private int[] indices;
+
+    // the number of vertices and indices written so far
+    private int vertexCount = 0;
+    private int indexCount = 0;
+
+    // the color given to the vertices that are added next
+    private float r = 1, g = 1, b = 1;
+
+    /**
+     * default constructor
+     */
+    public MeshBuilder() {
+        this(64, 64);
+    }
+
+    /**
+     * constructor for a known size - the builder still grows if more is added
+     * @param vertexCapacity - the number of vertices to make room for
+     * @param indexCapacity - the number of indices to make room for
+     */
+    public MeshBuilder(int vertexCapacity, int indexCapacity) {
+        positions = new float[Math.max(vertexCapacity, 1) * 3];
+        colors = new float[Math.max(vertexCapacity, 1) * 3];
+        normals = new float[Math.max(vertexCapacity, 1) * 3];
+        indices = new int[Math.max(indexCapacity, 3)];
+    }
+
+    /**
+     * sets the color of the vertices that are added next
+     * @param r - the red component, from 0 to 1
+     * @param g - the green component, from 0 to 1
+     * @param b - the blue component, from 0 to 1
+     * @return - this builder
+     */
+    public MeshBuilder color(float r, float g, float b) {
+        this.r = r;
+        this.g = g;
+        this.b = b;
+        return this;
+    }
+
+    /**
+     * adds a vertex with the current color
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     * @param nx - the x component of the normal vector
+     * @param ny - the y component of the normal vector
+     * @param nz - the z component of the normal vector
+     * @return - the index of the new vertex
+     */
+    public int vertex(float x, float y, float z, float nx, float ny, float nz) {
+        if ((vertexCount + 1) * 3 > positions.length) {
+            int length = positions.length * 2;
+            positions = Arrays.copyOf(positions, length);
+            colors = Arrays.copyOf(colors, length);
+            normals = Arrays.copyOf(normals, length);
+        }
+        int i = vertexCount * 3;
+        positions[i] = x; positions[i + 1] = y; positions[i + 2] = z;
+        colors[i] = r; colors[i + 1] = g; colors[i + 2] = b;
+        normals[i] = nx; normals[i + 1] = ny; normals[i + 2] = nz;
+        return vertexCount++;
+    }
+
+    /**
+     * adds a triangle between three vertices, wound counter clockwise when seen from the front
+     * @param v1 - the index of the first vertex
+     * @param v2 - the index of the second vertex
+     * @param v3 - the index of the third vertex
+     * @return - this builder
+     */
+    public MeshBuilder triangle(int v1, int v2, int v3) {
+        if (indexCount + 3 > indices.length) {
+            indices = Arrays.copyOf(indices, indices.length * 2);
+        }
+        indices[indexCount++] = v1;
+        indices[indexCount++] = v2;
+        indices[indexCount++] = v3;
+        return this;
+    }
+
+    /**
+     * gets one component of the position of a vertex that was already added
+     * @param vertex - the index of the vertex
+     * @param component - 0 for x, 1 for y, 2 for z
+     * @return - the component of the position
+     */
+    public float getPosition(int vertex, int component) {
+        return positions[vertex * 3 + component];
+    }
+
+    /**
+     * getter method
+     * @return - the number of vertices added so far
+     */
+    public int getVertexCount() {
+        return this.vertexCount;
+    }
+
+    /**
+     * getter method
+     * @return - the number of indices added so far
+     */
+    public int getIndexCount() {
+        return this.indexCount;
+    }
+
+    /**
+     * empties the builder so that it can be reused, keeping its storage
+     */
+    public void clear() {
+        vertexCount = 0;
+        indexCount = 0;
+        r = g = b = 1;
+    }
+
+    /**
+     * makes a mesh out of everything added so far
+     * the mesh still has to be created on the thread that owns the OpenGL context before it is drawn
+     * @param format - the layout of the vertex buffer
+     * @return - the new mesh
+     */
+    public Mesh build(VertexFormat format) {
+        return new Mesh(
+                Arrays.copyOf(positions, vertexCount * 3),
+                Arrays.copyOf(colors, vertexCount * 3),
+                Arrays.copyOf(normals, vertexCount * 3),
+                Arrays.copyOf(indices, indexCount),
+                format);
+    }
+}
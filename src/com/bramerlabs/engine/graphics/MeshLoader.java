@@ -0,0 +1,75 @@
+package com.bramerlabs.engine.graphics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class MeshLoader {
+
+    // the worker threads that generate meshes and load files, leaving one core for the thread that owns the OpenGL context
+    private static final ExecutorService workers = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+                Thread thread = new Thread(runnable, "Mesh Loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // the meshes that have been generated and are waiting to be created on the thread that owns the OpenGL context
+    private static final ConcurrentLinkedQueue<Mesh> uploads = new ConcurrentLinkedQueue<>();
+
+    /**
+     * runs a task on a worker thread - the task must not make any OpenGL calls
+     * @param task - the task
+     * @param <T> - the type of the result of the task
+     * @return - the pending result of the task
+     */
+    public static <T> Future<T> submit(Callable<T> task) {
+        return workers.submit(task);
+    }
+
+    /**
+     * queues a mesh that has been generated to be created on the thread that owns the OpenGL context
+     * can be called from any thread
+     * @param mesh - the mesh
+     * @return - the same mesh, which is not drawn until it has been created
+     */
+    public static Mesh queueUpload(Mesh mesh) {
+        uploads.add(mesh);
+        return mesh;
+    }
+
+    /**
+     * creates queued meshes until the time budget runs out - at least one mesh is created if any are queued
+     * must be called on the thread that owns the OpenGL context, once per frame
+     * @param budgetNanos - the time that may be spent creating meshes, in nanoseconds
+     * @return - the number of meshes created
+     */
+    public static int upload(long budgetNanos) {
+        long start = System.nanoTime();
+        int created = 0;
+        Mesh mesh;
+        while ((created == 0 || System.nanoTime() - start < budgetNanos) && (mesh = uploads.poll()) != null) {
+            mesh.create();
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * getter method
+     * @return - the number of meshes waiting to be created
+     */
+    public static int getPendingUploads() {
+        return uploads.size();
+    }
+
+    /**
+     * stops the worker threads, and forgets the meshes that were never created
+     */
+    public static void shutdown() {
+        workers.shutdownNow();
+        uploads.clear();
+    }
+}
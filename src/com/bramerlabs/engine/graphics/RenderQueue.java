@@ -0,0 +1,216 @@
+package com.bramerlabs.engine.graphics;
+
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.math.collision.Frustum;
+import com.bramerlabs.engine.objects.RenderObject;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+
+public class RenderQueue {
+
+    // the opaque and transparent submissions of the current frame
+    private ArrayList<Item> opaque = new ArrayList<>();
+    private ArrayList<Item> transparent = new ArrayList<>();
+
+    // submissions are recycled between frames so that queueing does not allocate
+    private ArrayList<Item> pool = new ArrayList<>();
+    private int poolSize = 0;
+
+    // opaque objects are grouped by shader then mesh, and drawn front to back within a group
+    private static final Comparator<Item> OPAQUE_ORDER = Comparator
+            .comparingInt((Item item) -> item.shader.getProgramID())
+            .thenComparingInt(item -> item.object.getMesh().getVAO())
+            .thenComparingDouble(item -> item.depth);
+
+    // transparent objects must be drawn back to front, and are only grouped when they are at the same depth
+    private static final Comparator<Item> TRANSPARENT_ORDER = Comparator
+            .comparingDouble((Item item) -> -item.depth)
+            .thenComparingInt(item -> item.shader.getProgramID())
+            .thenComparingInt(item -> item.object.getMesh().getVAO());
+
+    // the frustum that submissions are culled against - null to draw everything
+    private Frustum frustum;
+
+    // the state currently bound while flushing
+    private Shader currentShader;
+    private Mesh currentMesh;
+    private int modelLocation, tintLocation, alphaLocation;
+
+    // the counters of the last flush
+    private int drawCalls = 0;
+    private int shaderChanges = 0;
+    private int meshChanges = 0;
+
+    // the number of submissions outside of the frustum since the last flush, and before the last flush
+    private int culled = 0;
+    private int lastCulled = 0;
+
+    /**
+     * a single queued draw
+     */
+    private static class Item {
+        private RenderObject object;
+        private Shader shader;
+        private float depth;
+    }
+
+    /**
+     * sets the frustum that submissions are culled against
+     * @param frustum - the frustum of the camera, or null to draw everything
+     */
+    public void setFrustum(Frustum frustum) {
+        this.frustum = frustum;
+    }
+
+    /**
+     * queues an object to be drawn in the next flush, unless it is outside of the frustum or its mesh has not been created yet
+     * @param object - the object to be rendered
+     * @param shader - the shader program to render it with - it must read the per-frame uniform block, and have model, tint, and alpha uniforms
+     * @param transparent - if the object should be drawn half transparent
+     */
+    public void submit(RenderObject object, Shader shader, boolean transparent) {
+        if (!object.getMesh().isCreated()) {
+            return;
+        }
+        // the bounding sphere is a cheap first test, and the box a tighter second one
+        if (frustum != null && (!frustum.intersectsSphere(object.getBoundingCenter(), object.getBoundingRadius())
+                || !frustum.intersects(object.getBounds()))) {
+            culled++;
+            return;
+        }
+        if (poolSize == pool.size()) {
+            pool.add(new Item());
+        }
+        Item item = pool.get(poolSize++);
+        item.object = object;
+        item.shader = shader;
+        (transparent ? this.transparent : this.opaque).add(item);
+    }
+
+    /**
+     * draws every queued object and empties the queue
+     * opaque objects are drawn first, sorted to minimize state changes, then transparent objects from back to front
+     * @param camera - the camera perspective, used to sort the objects by depth
+     */
+    public void flush(Camera camera) {
+        drawCalls = 0;
+        shaderChanges = 0;
+        meshChanges = 0;
+        lastCulled = culled;
+        culled = 0;
+
+        computeDepths(opaque, camera.getPosition());
+        computeDepths(transparent, camera.getPosition());
+        opaque.sort(OPAQUE_ORDER);
+        transparent.sort(TRANSPARENT_ORDER);
+
+        draw(opaque, 1.0f);
+        draw(transparent, 0.5f);
+
+        // release the bound state
+        if (currentShader != null) {
+            currentShader.unbind();
+        }
+        GL30.glBindVertexArray(0);
+        currentShader = null;
+        currentMesh = null;
+
+        opaque.clear();
+        transparent.clear();
+        for (int i = 0; i < poolSize; i++) {
+            pool.get(i).object = null;
+            pool.get(i).shader = null;
+        }
+        poolSize = 0;
+    }
+
+    /**
+     * helper method - sets the depth of every item to its squared distance from the camera
+     * @param items - the items
+     * @param cameraPosition - the position of the camera
+     */
+    private void computeDepths(ArrayList<Item> items, Vector3f cameraPosition) {
+        for (Item item : items) {
+            Vector3f p = item.object.getPosition();
+            float dx = p.getX() - cameraPosition.getX();
+            float dy = p.getY() - cameraPosition.getY();
+            float dz = p.getZ() - cameraPosition.getZ();
+            item.depth = dx * dx + dy * dy + dz * dz;
+        }
+    }
+
+    /**
+     * helper method - draws a sorted list of items, only changing the shader and mesh when they differ from the last item
+     * @param items - the items
+     * @param alpha - the alpha of every item in the list
+     */
+    private void draw(ArrayList<Item> items, float alpha) {
+        // the alpha is set on each shader when it is bound, so a change of list forces a rebind
+        currentShader = null;
+        for (Item item : items) {
+            if (item.shader != currentShader) {
+                currentShader = item.shader;
+                currentShader.bind();
+                modelLocation = currentShader.getUniformLocation("model");
+                tintLocation = currentShader.getUniformLocation("tint");
+                alphaLocation = currentShader.getUniformLocation("alpha");
+                currentShader.setUniform(alphaLocation, alpha);
+                shaderChanges++;
+            }
+            Mesh mesh = item.object.getMesh();
+            if (mesh != currentMesh) {
+                currentMesh = mesh;
+                GL30.glBindVertexArray(mesh.getVAO());
+                meshChanges++;
+            }
+            currentShader.setUniform(modelLocation, item.object.getModelMatrix());
+            currentShader.setUniform(tintLocation, item.object.getColor());
+            mesh.setConstantAttributes();
+            GL11.glDrawElements(GL11.GL_TRIANGLES, mesh.getIndexCount(), GL11.GL_UNSIGNED_INT, 0);
+            drawCalls++;
+        }
+    }
+
+    /**
+     * getter method
+     * @return - the number of draw calls issued by the last flush
+     */
+    public int getDrawCalls() {
+        return this.drawCalls;
+    }
+
+    /**
+     * getter method
+     * @return - the number of shader and mesh changes made by the last flush
+     */
+    public int getStateChanges() {
+        return this.shaderChanges + this.meshChanges;
+    }
+
+    /**
+     * getter method
+     * @return - the number of submissions culled before the last flush
+     */
+    public int getCulled() {
+        return this.lastCulled;
+    }
+
+    /**
+     * getter method
+     * @return - the number of shader changes made by the last flush
+     */
+    public int getShaderChanges() {
+        return this.shaderChanges;
+    }
+
+    /**
+     * getter method
+     * @return - the number of mesh changes made by the last flush
+     */
+    public int getMeshChanges() {
+        return this.meshChanges;
+    }
+}
@@ -0,0 +1,80 @@
+package com.bramerlabs.engine.graphics;
+
+public class RenderStats {
+
+    // the counters of the current frame
+    private int drawCalls = 0;
+    private int shaderChanges = 0;
+    private int meshChanges = 0;
+    private int stateChanges = 0;
+
+    /**
+     * sets every counter back to zero - called at the start of every frame
+     */
+    public void reset() {
+        drawCalls = 0;
+        shaderChanges = 0;
+        meshChanges = 0;
+        stateChanges = 0;
+    }
+
+    /**
+     * counts a draw call
+     */
+    public void countDraw() {
+        drawCalls++;
+    }
+
+    /**
+     * counts a shader program being bound
+     */
+    public void countShaderChange() {
+        shaderChanges++;
+    }
+
+    /**
+     * counts a vertex array being bound
+     */
+    public void countMeshChange() {
+        meshChanges++;
+    }
+
+    /**
+     * counts any other change to the OpenGL state, such as turning face culling on or off
+     */
+    public void countStateChange() {
+        stateChanges++;
+    }
+
+    /**
+     * getter method
+     * @return - the number of draw calls issued this frame
+     */
+    public int getDrawCalls() {
+        return this.drawCalls;
+    }
+
+    /**
+     * getter method
+     * @return - the number of shader, mesh, and other state changes made this frame
+     */
+    public int getStateChanges() {
+        return this.shaderChanges + this.meshChanges + this.stateChanges;
+    }
+
+    /**
+     * getter method
+     * @return - the number of shader changes made this frame
+     */
+    public int getShaderChanges() {
+        return this.shaderChanges;
+    }
+
+    /**
+     * getter method
+     * @return - the number of mesh changes made this frame
+     */
+    public int getMeshChanges() {
+        return this.meshChanges;
+    }
+}
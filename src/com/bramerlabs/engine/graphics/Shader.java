@@ -7,9 +7,13 @@ import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.math.Vector4f;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
 import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.HashMap;
 
 public class Shader {
 
@@ -22,6 +26,12 @@ public class Shader {
     // pointers to shader program
     private int vertexID, fragmentID, programID;
 
+    // the locations of the active uniforms of the program, resolved once when it is linked
+    private HashMap<String, Integer> uniformLocations = new HashMap<>();
+
+    // scratch storage for uploading matrices, reused so that uploads never allocate
+    private static final ThreadLocal<FloatBuffer> matrixBuffer = ThreadLocal.withInitial(() -> MemoryUtil.memAllocFloat(Matrix4f.SIZE * Matrix4f.SIZE));
+
     /**
      * default constructor for the shader from specified path to vertex and fragment shaders
      * @param pathToVertexShader - the path to the vertex shader
@@ -37,6 +47,7 @@ public class Shader {
      */
     public void create() {
         programID = GL20.glCreateProgram();
+        GLResources.track(GLResources.Type.PROGRAM, programID, "shader program", 0);
 
         // create the shaders
         createVertexShader();
@@ -49,11 +60,47 @@ public class Shader {
         // link the program
         linkProgram(programID);
         validateProgram(programID);
+
+        // look up every uniform once, rather than by name on every upload
+        findUniformLocations();
+
+        // attach the per-frame uniform block, if the program uses it
+        int blockIndex = GL31.glGetUniformBlockIndex(programID, FrameUniforms.BLOCK_NAME);
+        if (blockIndex != GL31.GL_INVALID_INDEX) {
+            GL31.glUniformBlockBinding(programID, blockIndex, FrameUniforms.BINDING);
+        }
+    }
+
+    /**
+     * helper method - fills the uniform location table with every active uniform of the linked program
+     */
+    private void findUniformLocations() {
+        uniformLocations.clear();
+        int numUniforms = GL20.glGetProgrami(programID, GL20.GL_ACTIVE_UNIFORMS);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer size = stack.mallocInt(1);
+            IntBuffer type = stack.mallocInt(1);
+            for (int i = 0; i < numUniforms; i++) {
+                String name = GL20.glGetActiveUniform(programID, i, size, type);
+
+                // arrays are reported as name[0], but are also looked up by their plain name
+                if (name.endsWith("[0]")) {
+                    name = name.substring(0, name.length() - 3);
+                }
+                int location = GL20.glGetUniformLocation(programID, name);
+
+                // uniforms inside uniform blocks have no location
+                if (location >= 0) {
+                    uniformLocations.put(name, location);
+                }
+            }
+        }
     }
 
     private void createFragmentShader() {
         // create an id
         fragmentID = GL20.glCreateShader(GL20.GL_FRAGMENT_SHADER);
+        GLResources.track(GLResources.Type.SHADER, fragmentID, "fragment shader", 0);
 
         // point to the source
         GL20.glShaderSource(fragmentID, fragmentFile);
@@ -75,6 +122,7 @@ public class Shader {
     private void createVertexShader() {
         // create an id
         vertexID = GL20.glCreateShader(GL20.GL_VERTEX_SHADER);
+        GLResources.track(GLResources.Type.SHADER, vertexID, "vertex shader", 0);
 
         // point to the source
         GL20.glShaderSource(vertexID, vertexFile);
@@ -123,21 +171,92 @@ public class Shader {
     }
 
     /**
-     * getter method
+     * getter method - the location is a handle that can be passed to the setUniform methods in place of the name
      * @param uniformName - the name of the uniform
-     * @return - the location of the uniform
+     * @return - the location of the uniform, or -1 if the program has no such active uniform
      */
     public int getUniformLocation(String uniformName) {
-        return GL20.glGetUniformLocation(programID, uniformName);
+        Integer location = uniformLocations.get(uniformName);
+        return location == null ? -1 : location;
     }
 
     /**
      * sets the uniform to a float value
+     * @param location - the location of the uniform
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, float value) {
+        GL20.glUniform1f(location, value);
+    }
+
+    /**
+     * sets the uniform to an int value
+     * @param location - the location of the uniform
+     * @param value - the value
+     */
+    public void setUniform(int location, int value) {
+        GL20.glUniform1i(location, value);
+    }
+
+    /**
+     * sets the uniform to a boolean value (converts boolean to 1 or 0)
+     * @param location - the location of the uniform
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, boolean value) {
+        GL20.glUniform1f(location, value ? 1.0f : 0.0f);
+    }
+
+    /**
+     * sets the uniform to a vec2 value
+     * @param location - the location of the uniform
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Vector2f value) {
+        GL20.glUniform2f(location, value.getX(), value.getY());
+    }
+
+    /**
+     * sets the uniform to a vec3 value
+     * @param location - the location of the uniform
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Vector3f value) {
+        GL20.glUniform3f(location, value.getX(), value.getY(), value.getZ());
+    }
+
+    /**
+     * sets the uniform to a vec4 value
+     * @param location - the location of the uniform
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Vector4f value) {
+        GL20.glUniform4f(location, value.getX(), value.getY(), value.getZ(), value.getW());
+    }
+
+    /**
+     * sets the uniform to a mat4 value
+     * @param location - the location of the uniform
+     * @param value - the value of the uniform
+     */
+    public void setUniform(int location, Matrix4f value) {
+        // reuse the scratch buffer of this thread
+        FloatBuffer matrix = matrixBuffer.get();
+        matrix.clear();
+        matrix.put(value.getAll()).flip();
+
+        // transpose is true because we create it in row major order instead of column major order
+        GL20.glUniformMatrix4fv(location, true, matrix);
+    }
+
+    /**
+     * sets the uniform to a float value
+     * the setters that take a name look it up on every call - anything set every frame should keep the location from getUniformLocation instead
      * @param name - the name of the uniform
      * @param value - the value of the uniform
      */
     public void setUniform(String name, float value) {
-        GL20.glUniform1f(getUniformLocation(name), value);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -146,7 +265,7 @@ public class Shader {
      * @param value - the value
      */
     public void setUniform(String name, int value) {
-        GL20.glUniform1i(getUniformLocation(name), value);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -155,7 +274,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, boolean value) {
-        GL20.glUniform1f(getUniformLocation(name), value ? 1.0f : 0.0f);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -164,7 +283,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Vector2f value) {
-        GL20.glUniform2f(getUniformLocation(name), value.getX(), value.getY());
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -173,7 +292,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Vector3f value) {
-        GL20.glUniform3f(getUniformLocation(name), value.getX(), value.getY(), value.getZ());
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -182,7 +301,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Vector4f value) {
-        GL20.glUniform4f(getUniformLocation(name), value.getX(), value.getY(), value.getZ(), value.getW());
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -191,14 +310,7 @@ public class Shader {
      * @param value - the value of the uniform
      */
     public void setUniform(String name, Matrix4f value) {
-        // preallocate memory for the float values
-        FloatBuffer matrix = MemoryUtil.memAllocFloat(Matrix4f.SIZE * Matrix4f.SIZE);
-
-        // put the values flipped of the matrix into the float buffer
-        matrix.put(value.getAll()).flip();
-
-        // transpose is true because we create it in row major order instead of column major order
-        GL20.glUniformMatrix4fv(getUniformLocation(name), true, matrix);
+        setUniform(getUniformLocation(name), value);
     }
 
     /**
@@ -220,11 +332,19 @@ public class Shader {
      */
     public void destroy() {
         // delete the shaders because we now have a program that does the shader stuff
-        GL20.glDeleteShader(vertexID);
-        GL20.glDeleteShader(fragmentID);
+        GLResources.release(GLResources.Type.SHADER, vertexID);
+        GLResources.release(GLResources.Type.SHADER, fragmentID);
 
         // delete the shader program
-        GL20.glDeleteShader(programID);
+        GLResources.release(GLResources.Type.PROGRAM, programID);
+    }
+
+    /**
+     * getter method
+     * @return - the shader program
+     */
+    public int getProgramID() {
+        return this.programID;
     }
 
     /**
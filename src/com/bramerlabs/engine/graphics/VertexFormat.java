@@ -0,0 +1,46 @@
+package com.bramerlabs.engine.graphics;
+
+public enum VertexFormat {
+
+    // position, color, and normal as 32 bit floats - 36 bytes per vertex
+    FLOAT(36, true),
+
+    // position as 32 bit floats, color as normalized bytes, and normal packed into 10 bits per component - 20 bytes per vertex
+    PACKED(20, true),
+
+    // position as normalized 16 bit integers, and normal packed into 10 bits per component - 12 bytes per vertex
+    // for shared unit meshes that fit in the box from (-1, -1, -1) to (1, 1, 1), and are colored per object or per instance
+    UNIT(12, false);
+
+    // the number of bytes of one vertex
+    private final int stride;
+
+    // if every vertex stores its own color - meshes without one are white
+    private final boolean hasColor;
+
+    /**
+     * default constructor
+     * @param stride - the number of bytes of one vertex
+     * @param hasColor - if every vertex stores its own color
+     */
+    VertexFormat(int stride, boolean hasColor) {
+        this.stride = stride;
+        this.hasColor = hasColor;
+    }
+
+    /**
+     * getter method
+     * @return - the number of bytes of one vertex
+     */
+    public int getStride() {
+        return this.stride;
+    }
+
+    /**
+     * getter method
+     * @return - if every vertex stores its own color
+     */
+    public boolean hasColor() {
+        return this.hasColor;
+    }
+}
@@ -1,9 +1,9 @@
 package com.bramerlabs.engine.io.gui.gui_render;
 
+import com.bramerlabs.engine.graphics.GLResources;
 import com.bramerlabs.engine.graphics.Material;
 import com.bramerlabs.engine.graphics.Vertex;
 import org.lwjgl.opengl.*;
-import org.lwjgl.system.MemoryUtil;
 
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -46,7 +46,7 @@ public class GuiMesh {
      */
     public void create() {
         // generate and bind the vertex array
-        vao = GL46.glGenVertexArrays();
+        vao = GLResources.genVertexArray("gui mesh");
         GL46.glBindVertexArray(vao);
 
         // create the buffers
@@ -62,7 +62,7 @@ public class GuiMesh {
      */
     private void makePositionBuffer() {
         // preallocate memory
-        FloatBuffer positionBuffer = MemoryUtil.memAllocFloat(vertices.length * 3);
+        FloatBuffer positionBuffer = GLResources.allocFloat(vertices.length * 3, "gui mesh upload");
 
         // create a new temp array to store position data
         float[] positionData = new float[vertices.length * 3];
@@ -79,6 +79,7 @@ public class GuiMesh {
 
         // store the position data in the position buffer object
         pbo = storeData(positionBuffer, 0, 3);
+        GLResources.free(positionBuffer);
     }
 
     /**
@@ -86,7 +87,7 @@ public class GuiMesh {
      */
     private void makeTextureBuffer() {
         // preallocate memory
-        FloatBuffer textureBuffer = MemoryUtil.memAllocFloat(vertices.length * 2);
+        FloatBuffer textureBuffer = GLResources.allocFloat(vertices.length * 2, "gui mesh upload");
 
         // create a new temp array to store texture coord data
         float[] textureData = new float[vertices.length * 2];
@@ -102,6 +103,7 @@ public class GuiMesh {
 
         // store the texture coord data in the texture buffer object
         tbo = storeData(textureBuffer, 1, 2);
+        GLResources.free(textureBuffer);
     }
 
     /**
@@ -109,19 +111,21 @@ public class GuiMesh {
      */
     private void makeIndexBuffer() {
         // preallocate memory
-        IntBuffer indicesBuffer = MemoryUtil.memAllocInt(indices.length);
+        IntBuffer indicesBuffer = GLResources.allocInt(indices.length, "gui mesh upload");
 
         // put the indices into the index buffer flipped
         indicesBuffer.put(indices).flip();
 
         // generate a buffer object
-        ibo = GL15.glGenBuffers();
+        ibo = GLResources.genBuffer("gui mesh indices");
 
         // bind the buffer object
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ibo);
 
         // add the index data
         GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indicesBuffer, GL15.GL_STATIC_DRAW);
+        GLResources.setBufferSize(ibo, (long) indices.length * Integer.BYTES);
+        GLResources.free(indicesBuffer);
 
         // unbind the buffer object
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, 0);
@@ -136,13 +140,14 @@ public class GuiMesh {
      */
     private int storeData(FloatBuffer buffer, int index, int size) {
         // generate a buffer ID
-        int bufferID = GL15.glGenBuffers();
+        int bufferID = GLResources.genBuffer("gui mesh vertices");
 
         // bind the buffer
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, bufferID);
 
         // add the data from the buffer to the gl buffer object
         GL15.glBufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+        GLResources.setBufferSize(bufferID, (long) buffer.remaining() * Float.BYTES);
 
         // set the GL attribute
         GL20.glVertexAttribPointer(index, size, GL11.GL_FLOAT, false, 0, 0);
@@ -214,12 +219,12 @@ public class GuiMesh {
      */
     public void destroy() {
         // delete the buffers
-        GL15.glDeleteBuffers(pbo);
-        GL15.glDeleteBuffers(tbo);
-        GL15.glDeleteBuffers(ibo);
+        GLResources.release(GLResources.Type.BUFFER, pbo);
+        GLResources.release(GLResources.Type.BUFFER, tbo);
+        GLResources.release(GLResources.Type.BUFFER, ibo);
 
         // delete the vertex array
-        GL30.glDeleteVertexArrays(vao);
+        GLResources.release(GLResources.Type.VERTEX_ARRAY, vao);
 
         // release the material
         material.destroy();
@@ -3,13 +3,10 @@ package com.bramerlabs.engine.io.picking;
 import com.bramerlabs.engine.io.window.Input;
 import com.bramerlabs.engine.io.window.Window;
 import com.bramerlabs.engine.math.Matrix4f;
-import com.bramerlabs.engine.math.Vector2f;
 import com.bramerlabs.engine.math.Vector3f;
-import com.bramerlabs.engine.math.Vector4f;
+import com.bramerlabs.engine.math.collision.Ray;
 import com.bramerlabs.engine.graphics.Camera;
-import org.lwjgl.glfw.GLFW;
 import org.lwjgl.opengl.GL11;
-import org.lwjglx.BufferUtils;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -89,65 +86,17 @@ public class MousePicker {
      */
     public void update() {
         view = Matrix4f.view(camera.getPosition(), camera.getRotation());
+        projection = window.getProjectionMatrix();
         currentRay = calculateRay();
     }
 
     /**
      * calculates the ray
+     * @return - the direction of the ray through the mouse, in world space
      */
     public Vector3f calculateRay() {
-        float mouseX = (float) input.getMouseX();
-        float mouseY = (float) input.getMouseY();
-        Vector2f normalizedCoords = getNormalizedDeviceCoords(mouseX, mouseY);
-        Vector4f clipCoords = new Vector4f(normalizedCoords, -1, 1);
-        Vector4f eyeCoords = toEyeCoords(clipCoords);
-        return toWorldCoords(eyeCoords);
-    }
-
-    /**
-     * converts from eye coords to world coords
-     * @param eyeCoords - the eye coords
-     * @return - the 3-vector world coords
-     */
-    private Vector3f toWorldCoords(Vector4f eyeCoords) {
-        Matrix4f invView = Matrix4f.invert(view);
-        return Vector3f.normalize((Matrix4f.multiply(invView, eyeCoords).getXYZ()));
-    }
-
-    /**
-     * converts to eye coords
-     * @param clipCoords - the clipCoords
-     * @return - the eye coords
-     */
-    private Vector4f toEyeCoords(Vector4f clipCoords) {
-        // create the inverse projection matrix
-        Matrix4f invProjection = Matrix4f.invert(projection);
-
-        return Matrix4f.multiply(invProjection, clipCoords);
-    }
-
-    /**
-     * calculates the normalized device coordinates
-     * @param mouseX - the x position of the mouse
-     * @param mouseY - the y position of the mouse
-     * @return - the mouse coordinates in normalized coordinates
-     */
-    private Vector2f getNormalizedDeviceCoords(float mouseX, float mouseY) {
-        // get the width and height of the display
-        IntBuffer w = BufferUtils.createIntBuffer(1);
-        IntBuffer h = BufferUtils.createIntBuffer(1);
-        GLFW.glfwGetWindowSize(window.getWindowHandle(), w, h);
-        int width = w.get(0);
-        int height = h.get(0);
-
-        // adjust the y position
-        float y = height - mouseY;
-
-        // return the new vector
-        return new Vector2f(
-                2 * mouseX / width - 1,
-                2 * y / height - 1
-        );
+        return Ray.fromScreen((float) input.getMouseX(), (float) input.getMouseY(), window.getWidth(), window.getHeight(),
+                view, projection).getDirection();
     }
 
     /**
@@ -0,0 +1,170 @@
+package com.bramerlabs.engine.io.picking;
+
+import com.bramerlabs.engine.graphics.GLResources;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+public class PickBuffer {
+
+    // the number of samples of the scene framebuffer
+    private int samples;
+
+    // the multisampled framebuffer the scene is drawn to - color in attachment 0, the ID of what is drawn in attachment 1
+    private int sceneFBO;
+    private int colorRBO, idRBO, depthRBO;
+
+    // the single sampled framebuffer the IDs are resolved into, and read back from
+    private int resolveFBO;
+    private int resolveRBO;
+
+    // the size of the framebuffers, in pixels
+    private int width = 0, height = 0;
+
+    /**
+     * default constructor
+     * @param samples - the number of samples per pixel of the scene framebuffer
+     */
+    public PickBuffer(int samples) {
+        this.samples = samples;
+    }
+
+    /**
+     * binds the scene framebuffer and clears it, recreating it if the window changed size
+     * must be called on the thread that owns the OpenGL context, before the scene is drawn, and not while the window is minimized
+     * @param width - the width of the window, in pixels
+     * @param height - the height of the window, in pixels
+     * @param r - the red component of the background color
+     * @param g - the green component of the background color
+     * @param b - the blue component of the background color
+     */
+    public void begin(int width, int height, float r, float g, float b) {
+        if (Math.max(width, 1) != this.width || Math.max(height, 1) != this.height) {
+            destroy();
+            create(width, height);
+        }
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, sceneFBO);
+        GL20.glDrawBuffers(new int[] {GL30.GL_COLOR_ATTACHMENT0, GL30.GL_COLOR_ATTACHMENT1});
+        GL11.glViewport(0, 0, width, height);
+        GL30.glClearBufferfv(GL11.GL_COLOR, 0, new float[] {r, g, b, 1});
+        GL30.glClearBufferuiv(GL11.GL_COLOR, 1, new int[] {0, 0, 0, 0});
+        GL11.glClear(GL11.GL_DEPTH_BUFFER_BIT);
+    }
+
+    /**
+     * resolves the scene into the window and the IDs into the resolve framebuffer, and binds the window again
+     * the IDs can be copied until the next call to begin
+     */
+    public void end() {
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, sceneFBO);
+
+        // the color is resolved into the window
+        GL11.glReadBuffer(GL30.GL_COLOR_ATTACHMENT0);
+        GL30.glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, 0);
+        GL30.glBlitFramebuffer(0, 0, width, height, 0, 0, width, height, GL11.GL_COLOR_BUFFER_BIT, GL11.GL_NEAREST);
+
+        // the IDs are integers, so a single sample of each pixel is kept rather than an average
+        GL11.glReadBuffer(GL30.GL_COLOR_ATTACHMENT1);
+        GL30.glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, resolveFBO);
+        GL30.glBlitFramebuffer(0, 0, width, height, 0, 0, width, height, GL11.GL_COLOR_BUFFER_BIT, GL11.GL_NEAREST);
+
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+    }
+
+    /**
+     * starts copying the ID drawn at a pixel in the last frame into the bound pixel pack buffer
+     * the copy finishes on the GPU later, so this does not wait for the frame to be drawn
+     * @param x - the x position of the pixel, from the left of the window
+     * @param y - the y position of the pixel, from the bottom of the window
+     * @return - false if the pixel is outside the framebuffer, in which case nothing is copied
+     */
+    boolean copyID(int x, int y) {
+        if (resolveFBO == 0 || x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, resolveFBO);
+        GL11.glReadBuffer(GL30.GL_COLOR_ATTACHMENT0);
+        GL11.glReadPixels(x, y, 1, 1, GL30.GL_RED_INTEGER, GL11.GL_UNSIGNED_INT, 0);
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, 0);
+        return true;
+    }
+
+    /**
+     * helper method - creates the framebuffers
+     * @param width - the width, in pixels
+     * @param height - the height, in pixels
+     */
+    private void create(int width, int height) {
+        // a framebuffer with no pixels is incomplete
+        this.width = Math.max(width, 1);
+        this.height = Math.max(height, 1);
+
+        sceneFBO = genFramebuffer("scene framebuffer");
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, sceneFBO);
+        colorRBO = attach(GL30.GL_COLOR_ATTACHMENT0, GL11.GL_RGBA8, samples, (long) this.width * this.height * samples * 4);
+        idRBO = attach(GL30.GL_COLOR_ATTACHMENT1, GL30.GL_R32UI, samples, (long) this.width * this.height * samples * 4);
+        depthRBO = attach(GL30.GL_DEPTH_ATTACHMENT, GL30.GL_DEPTH_COMPONENT24, samples, (long) this.width * this.height * samples * 4);
+        checkStatus("scene");
+
+        resolveFBO = genFramebuffer("pick framebuffer");
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, resolveFBO);
+        resolveRBO = attach(GL30.GL_COLOR_ATTACHMENT0, GL30.GL_R32UI, 0, (long) this.width * this.height * 4);
+        checkStatus("pick");
+
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+    }
+
+    /**
+     * helper method - generates a framebuffer and starts tracking it
+     * @param owner - the name of the framebuffer, used in the resource report
+     * @return - the framebuffer object
+     */
+    private static int genFramebuffer(String owner) {
+        int fbo = GL30.glGenFramebuffers();
+        GLResources.track(GLResources.Type.FRAMEBUFFER, fbo, owner, 0);
+        return fbo;
+    }
+
+    /**
+     * helper method - creates a renderbuffer and attaches it to the bound framebuffer
+     * @param attachment - the attachment point
+     * @param format - the internal format
+     * @param samples - the number of samples per pixel, or 0 for a single sampled renderbuffer
+     * @param bytes - the size of the renderbuffer, for the resource report
+     * @return - the renderbuffer object
+     */
+    private int attach(int attachment, int format, int samples, long bytes) {
+        int rbo = GL30.glGenRenderbuffers();
+        GLResources.track(GLResources.Type.RENDERBUFFER, rbo, "pick buffer attachment", bytes);
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, rbo);
+        GL30.glRenderbufferStorageMultisample(GL30.GL_RENDERBUFFER, samples, format, width, height);
+        GL30.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, attachment, GL30.GL_RENDERBUFFER, rbo);
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
+        return rbo;
+    }
+
+    /**
+     * helper method - makes sure the bound framebuffer can be drawn to
+     * @param name - the name of the framebuffer, used in the error
+     */
+    private static void checkStatus(String name) {
+        int status = GL30.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE) {
+            throw new IllegalStateException("Error: the " + name + " framebuffer is incomplete - status " + status);
+        }
+    }
+
+    /**
+     * releases the framebuffers and their attachments
+     */
+    public void destroy() {
+        GLResources.release(GLResources.Type.FRAMEBUFFER, sceneFBO);
+        GLResources.release(GLResources.Type.FRAMEBUFFER, resolveFBO);
+        GLResources.release(GLResources.Type.RENDERBUFFER, colorRBO);
+        GLResources.release(GLResources.Type.RENDERBUFFER, idRBO);
+        GLResources.release(GLResources.Type.RENDERBUFFER, depthRBO);
+        GLResources.release(GLResources.Type.RENDERBUFFER, resolveRBO);
+        sceneFBO = resolveFBO = colorRBO = idRBO = depthRBO = resolveRBO = 0;
+        width = height = 0;
+    }
+}
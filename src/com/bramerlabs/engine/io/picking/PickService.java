@@ -0,0 +1,119 @@
+package com.bramerlabs.engine.io.picking;
+
+import com.bramerlabs.engine.graphics.GLResources;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL32;
+
+public class PickService {
+
+    // the number of reads that can be in flight at once - results arrive one or two frames after they are requested
+    private static final int RING_SIZE = 3;
+
+    // the framebuffer the IDs are copied from
+    private PickBuffer pickBuffer;
+
+    // a pixel pack buffer and a fence for every read in flight
+    private int[] buffers = new int[RING_SIZE];
+    private long[] fences = new long[RING_SIZE];
+
+    // the slot the next read is written to, and the number of reads in flight
+    private int next = 0;
+    private int pending = 0;
+
+    // the ID from the newest finished read
+    private int pickedID = 0;
+
+    // the ID read back from a pixel pack buffer
+    private int[] result = new int[1];
+
+    /**
+     * default constructor
+     * @param pickBuffer - the framebuffer the IDs are copied from
+     */
+    public PickService(PickBuffer pickBuffer) {
+        this.pickBuffer = pickBuffer;
+    }
+
+    /**
+     * creates the pixel pack buffers
+     * must be called on the thread that owns the OpenGL context
+     */
+    public void create() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            buffers[i] = GLResources.genBuffer("pick readback");
+            GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[i]);
+            GL15.glBufferData(GL21.GL_PIXEL_PACK_BUFFER, Integer.BYTES, GL15.GL_STREAM_READ);
+            GLResources.setBufferSize(buffers[i], Integer.BYTES);
+        }
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    /**
+     * starts reading the ID at a pixel of the frame that was just drawn - call once per frame, after the pick buffer is resolved
+     * if every slot is still in flight the request is dropped, since the GPU is behind and a newer one comes next frame
+     * @param x - the x position of the pixel, from the left of the window
+     * @param y - the y position of the pixel, from the bottom of the window
+     */
+    public void request(int x, int y) {
+        if (pending == RING_SIZE) {
+            return;
+        }
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[next]);
+        // a pixel outside the window has no fence, and reads as the background
+        fences[next] = pickBuffer.copyID(x, y) ? GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0) : 0;
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+        next = (next + 1) % RING_SIZE;
+        pending++;
+    }
+
+    /**
+     * collects every read that has finished, oldest first, without waiting for the ones that have not
+     * @return - the ID from the newest finished read, or 0 if it was the background
+     */
+    public int poll() {
+        while (pending > 0) {
+            int oldest = (next - pending + RING_SIZE) % RING_SIZE;
+            long fence = fences[oldest];
+            if (fence == 0) {
+                pickedID = 0;
+            } else {
+                int status = GL32.glClientWaitSync(fence, 0, 0);
+                if (status == GL32.GL_TIMEOUT_EXPIRED) {
+                    break;
+                }
+                GL32.glDeleteSync(fence);
+                fences[oldest] = 0;
+                GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[oldest]);
+                GL15.glGetBufferSubData(GL21.GL_PIXEL_PACK_BUFFER, 0, result);
+                GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+                pickedID = result[0];
+            }
+            pending--;
+        }
+        return pickedID;
+    }
+
+    /**
+     * getter method
+     * @return - the ID from the newest finished read, or 0 if it was the background
+     */
+    public int getPickedID() {
+        return pickedID;
+    }
+
+    /**
+     * releases the pixel pack buffers and any fences still in flight
+     */
+    public void destroy() {
+        for (int i = 0; i < RING_SIZE; i++) {
+            if (fences[i] != 0) {
+                GL32.glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+            GLResources.release(GLResources.Type.BUFFER, buffers[i]);
+            buffers[i] = 0;
+        }
+        next = pending = 0;
+    }
+}
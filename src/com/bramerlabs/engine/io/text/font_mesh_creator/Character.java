@@ -57,7 +57,7 @@ public class Character {
      * getter method
      * @return - the x texture coord
      */
-    protected double getXTexCoord() {
+    public double getXTexCoord() {
         return this.xTexCoord;
     }
 
@@ -65,7 +65,7 @@ public class Character {
      * getter method
      * @return - the y texture coord
      */
-    protected double getYTexCoord() {
+    public double getYTexCoord() {
         return this.yTexCoord;
     }
 
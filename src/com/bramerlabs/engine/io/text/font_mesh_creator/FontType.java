@@ -29,6 +29,42 @@ public class FontType {
         return textureAtlas;
     }
 
+    /**
+     * Gets the data about a character in the texture atlas, for drawing text
+     * without a {@link GUIText}. Sizes and offsets are in screen-space, where
+     * a line of text at font size 1 is {@link #getLineHeight()} high and
+     * horizontal values are divided by {@link #getAspectRatio()}.
+     *
+     * @param ascii
+     *            - the ASCII value of the character.
+     * @return The data about the character, or {@code null} if the font
+     *         doesn't have it (the space character is never in the atlas).
+     */
+    public Character getCharacter(int ascii) {
+        return loader.getMetaData().getCharacter(ascii);
+    }
+
+    /**
+     * @return The width of the space character, in screen-space.
+     */
+    public double getSpaceWidth() {
+        return loader.getMetaData().getSpaceWidth();
+    }
+
+    /**
+     * @return The height of a line of text at font size 1, in screen-space.
+     */
+    public double getLineHeight() {
+        return TextMeshCreator.LINE_HEIGHT;
+    }
+
+    /**
+     * @return The aspect ratio that horizontal sizes were divided by.
+     */
+    public double getAspectRatio() {
+        return loader.getMetaData().getAspectRatio();
+    }
+
     /**
      * Takes in an unloaded text and calculate all of the vertices for the quads
      * on which this text will be rendered. The vertex positions and texture
@@ -9,8 +9,9 @@ public class GUIText {
     private String textString;
     private float fontSize;
 
-    private int textMeshVao;
-    private int vertexCount;
+    // the quads of the text, as two floats for every vertex
+    private float[] vertexPositions = new float[0];
+    private float[] textureCoords = new float[0];
     private Vector3f colour = new Vector3f(0f, 0f, 0f);
 
     private Vector2f position;
@@ -21,6 +22,9 @@ public class GUIText {
 
     private boolean centerText;
 
+    // if the string has changed since the text was last loaded
+    private boolean changed = true;
+
     /**
      * Creates a new text, loads the text's quads into a VAO, and adds the text
      * to the screen.
@@ -57,10 +61,13 @@ public class GUIText {
     }
 
     /**
-     * loads the text
+     * loads the text, if its string has changed since it was last loaded
      */
     public void loadText() {
-        TextMaster.loadText(this);
+        if (changed) {
+            TextMaster.loadText(this);
+            changed = false;
+        }
     }
 
     /**
@@ -68,7 +75,10 @@ public class GUIText {
      * @param text - the text
      */
     public void setTextString(String text) {
-        this.textString = text;
+        if (!text.equals(this.textString)) {
+            this.textString = text;
+            this.changed = true;
+        }
     }
 
     /**
@@ -76,6 +86,8 @@ public class GUIText {
      */
     public void remove() {
         TextMaster.removeText(this);
+        // the text is no longer loaded, so the next load must add it back even if the string is the same
+        changed = true;
     }
 
     /**
@@ -125,32 +137,50 @@ public class GUIText {
     }
 
     /**
-     * @return the ID of the text's VAO, which contains all the vertex data for
-     *         the quads on which the text will be rendered.
+     * Move the text. Its quads do not change, so nothing is uploaded again.
+     *
+     * @param x
+     *            - the x position of the top-left corner, between 0 and 1.
+     * @param y
+     *            - the y position of the top-left corner, between 0 and 1.
      */
-    public int getMesh() {
-        return textMeshVao;
+    public void setPosition(float x, float y) {
+        position.set(x, y);
     }
 
     /**
-     * Set the VAO and vertex count for this text.
+     * Set the quads on which the text will be rendered. They are copied into
+     * the vertex buffer of the text's font by the text master.
      *
-     * @param vao
-     *            - the VAO containing all the vertex data for the quads on
-     *            which the text will be rendered.
-     * @param verticesCount
-     *            - the total number of vertices in all of the quads.
+     * @param data
+     *            - the vertex positions and texture coords of all the quads.
+     */
+    public void setMeshData(TextMeshData data) {
+        this.vertexPositions = data.getVertexPositions();
+        this.textureCoords = data.getTextureCoords();
+    }
+
+    /**
+     * @return The positions of the vertices of all the text's quads, two floats
+     *         each.
+     */
+    public float[] getVertexPositions() {
+        return vertexPositions;
+    }
+
+    /**
+     * @return The texture coords of the vertices of all the text's quads, two
+     *         floats each.
      */
-    public void setMeshInfo(int vao, int verticesCount) {
-        this.textMeshVao = vao;
-        this.vertexCount = verticesCount;
+    public float[] getTextureCoords() {
+        return textureCoords;
     }
 
     /**
      * @return The total number of vertices of all the text's quads.
      */
     public int getVertexCount() {
-        return this.vertexCount;
+        return vertexPositions.length / 2;
     }
 
     /**
@@ -49,6 +49,10 @@ public class MetaFile {
         close();
     }
 
+    protected double getAspectRatio() {
+        return aspectRatio;
+    }
+
     protected double getSpaceWidth() {
         return spaceWidth;
     }
@@ -15,6 +15,10 @@ public class TextMeshCreator {
         metaData = new MetaFile(metaFile);
     }
 
+    protected MetaFile getMetaData() {
+        return metaData;
+    }
+
     protected TextMeshData createTextMesh(GUIText text) {
         List<Line> lines = createStructure(text);
         return createQuadVertices(text, lines);
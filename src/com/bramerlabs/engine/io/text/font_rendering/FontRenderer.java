@@ -1,13 +1,9 @@
 package com.bramerlabs.engine.io.text.font_rendering;
 
 import com.bramerlabs.engine.io.text.font_mesh_creator.FontType;
-import com.bramerlabs.engine.io.text.font_mesh_creator.GUIText;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL13;
-import org.lwjgl.opengl.GL20;
-import org.lwjgl.opengl.GL30;
 
-import java.util.List;
 import java.util.Map;
 
 public class FontRenderer {
@@ -18,14 +14,12 @@ public class FontRenderer {
         shader = new FontShader();
     }
 
-    public void render(Map<FontType, List<GUIText>> texts){
+    public void render(Map<FontType, TextBatch> texts){
         prepare();
         for(FontType font : texts.keySet()){
             GL13.glActiveTexture(GL13.GL_TEXTURE0);
             GL11.glBindTexture(GL11.GL_TEXTURE_2D, font.getTextureAtlas());
-            for(GUIText text : texts.get(font)){
-                renderText(text);
-            }
+            texts.get(font).render(shader);
         }
         endRendering();
     }
@@ -40,20 +34,8 @@ public class FontRenderer {
         shader.start();
     }
 
-    private void renderText(GUIText text){
-        GL30.glBindVertexArray(text.getMesh());
-        GL20.glEnableVertexAttribArray(0);
-        GL20.glEnableVertexAttribArray(1);
-        shader.loadColour(text.getColour());
-        shader.loadTranslation(text.getPosition());
-        GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, text.getVertexCount());
-        GL20.glDisableVertexAttribArray(0);
-        GL20.glDisableVertexAttribArray(1);
-        GL30.glBindVertexArray(0);
-    }
-
     private void endRendering(){
         shader.stop();
     }
 
-}
\ No newline at end of file
+}
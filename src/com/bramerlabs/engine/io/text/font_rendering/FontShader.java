@@ -1,7 +1,6 @@
 package com.bramerlabs.engine.io.text.font_rendering;
 
-import org.joml.Vector2f;
-import org.joml.Vector3f;
+import java.nio.FloatBuffer;
 
 public class FontShader extends ShaderProgram {
 
@@ -17,22 +16,23 @@ public class FontShader extends ShaderProgram {
 
     @Override
     protected void getAllUniformLocations() {
-        location_colour = super.getUniformLocation("colour");
-        location_translation = super.getUniformLocation("translation");
+        location_colour = super.getUniformLocation("colour[0]");
+        location_translation = super.getUniformLocation("translation[0]");
     }
 
     @Override
     protected void bindAttributes() {
         super.bindAttribute(0, "position");
         super.bindAttribute(1, "textureCoords");
+        super.bindAttribute(2, "textIndex");
     }
 
-    protected void loadColour(Vector3f colour){
-        super.loadVector(location_colour, colour);
+    protected void loadColours(FloatBuffer colours){
+        super.loadVectors(location_colour, colours);
     }
 
-    protected void loadTranslation(Vector2f translation){
-        super.load2DVector(location_translation, translation);
+    protected void loadTranslations(FloatBuffer translations){
+        super.load2DVectors(location_translation, translations);
     }
 
 
@@ -1,5 +1,6 @@
 package com.bramerlabs.engine.io.text.font_rendering;
 
+import com.bramerlabs.engine.graphics.GLResources;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.*;
 import org.newdawn.slick.opengl.Texture;
@@ -10,14 +11,19 @@ import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class Loader {
 
-    private List<Integer> vaos = new ArrayList<>();
-    private List<Integer> vbos = new ArrayList<>();
+    // the buffers stored in each vertex array, so that a vertex array can be deleted with its buffers
+    private Map<Integer, List<Integer>> vaos = new HashMap<>();
     private List<Integer> textures = new ArrayList<>();
 
+    // the vertex array that buffers are currently being stored in
+    private List<Integer> currentVBOs;
+
     public int loadToVAO(float[] positions, float[] textureCoords) {
         int vaoID = createVAO();
         storeDataInAttributeList(0, 2, positions);
@@ -71,23 +77,39 @@ public class Loader {
             System.exit(-1);
         }
         textures.add(texture.getTextureID());
+        GLResources.track(GLResources.Type.TEXTURE, texture.getTextureID(), "font " + fileName,
+                (long) texture.getTextureWidth() * texture.getTextureHeight() * 4);
         return texture.getTextureID();
     }
 
-    public void cleanUp() {
-        for (int vao : vaos) {
-            GL30.glDeleteVertexArrays(vao);
+    /**
+     * deletes a vertex array made by this loader, and the buffers stored in it
+     * @param vao - the vertex array object
+     */
+    public void deleteVAO(int vao) {
+        List<Integer> vbos = vaos.remove(vao);
+        if (vbos == null) {
+            return;
         }
         for (int vbo : vbos) {
-            GL15.glDeleteBuffers(vbo);
+            GLResources.release(GLResources.Type.BUFFER, vbo);
+        }
+        GLResources.release(GLResources.Type.VERTEX_ARRAY, vao);
+    }
+
+    public void cleanUp() {
+        for (int vao : new ArrayList<>(vaos.keySet())) {
+            deleteVAO(vao);
         }
         for (int texture : textures) {
-            GL11.glDeleteTextures(texture);
+            GLResources.release(GLResources.Type.TEXTURE, texture);
         }
+        textures.clear();
     }
 
     public int loadCubeMap(String[] textureFiles) {
         int texID = GL11.glGenTextures();
+        GLResources.track(GLResources.Type.TEXTURE, texID, "cube map", 0);
         GL13.glActiveTexture(GL13.GL_TEXTURE0);
         GL11.glBindTexture(GL13.GL_TEXTURE_CUBE_MAP, texID);
 
@@ -127,18 +149,20 @@ public class Loader {
     }
 
     private int createVAO() {
-        int vaoID = GL30.glGenVertexArrays();
-        vaos.add(vaoID);
+        int vaoID = GLResources.genVertexArray("text");
+        currentVBOs = new ArrayList<>();
+        vaos.put(vaoID, currentVBOs);
         GL30.glBindVertexArray(vaoID);
         return vaoID;
     }
 
     private void storeDataInAttributeList(int attributeNumber, int coordinateSize, float[] data) {
-        int vboID = GL15.glGenBuffers();
-        vbos.add(vboID);
+        int vboID = GLResources.genBuffer("text");
+        currentVBOs.add(vboID);
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vboID);
         FloatBuffer buffer = storeDataInFloatBuffer(data);
         GL15.glBufferData(GL15.GL_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+        GLResources.setBufferSize(vboID, (long) data.length * Float.BYTES);
         GL20.glVertexAttribPointer(attributeNumber, coordinateSize, GL11.GL_FLOAT, false, 0, 0);
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
     }
@@ -148,11 +172,12 @@ public class Loader {
     }
 
     private void bindIndicesBuffer(int[] indices) {
-        int vboID = GL15.glGenBuffers();
-        vbos.add(vboID);
+        int vboID = GLResources.genBuffer("text");
+        currentVBOs.add(vboID);
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, vboID);
         IntBuffer buffer = storeDataInIntBuffer(indices);
         GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, buffer, GL15.GL_STATIC_DRAW);
+        GLResources.setBufferSize(vboID, (long) indices.length * Integer.BYTES);
     }
 
     private IntBuffer storeDataInIntBuffer(int[] data) {
@@ -1,5 +1,6 @@
 package com.bramerlabs.engine.io.text.font_rendering;
 
+import com.bramerlabs.engine.graphics.GLResources;
 import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.joml.Vector4f;
@@ -25,6 +26,7 @@ public abstract class ShaderProgram {
         vertexShaderID = loadShader(vertexFile, GL20.GL_VERTEX_SHADER);
         fragmentShaderID = loadShader(fragmentFile,GL20.GL_FRAGMENT_SHADER);
         programID = GL20.glCreateProgram();
+        GLResources.track(GLResources.Type.PROGRAM, programID, "font shader program", 0);
         GL20.glAttachShader(programID, vertexShaderID);
         GL20.glAttachShader(programID, fragmentShaderID);
         bindAttributes();
@@ -51,9 +53,9 @@ public abstract class ShaderProgram {
         stop();
         GL20.glDetachShader(programID, vertexShaderID);
         GL20.glDetachShader(programID, fragmentShaderID);
-        GL20.glDeleteShader(vertexShaderID);
-        GL20.glDeleteShader(fragmentShaderID);
-        GL20.glDeleteProgram(programID);
+        GLResources.release(GLResources.Type.SHADER, vertexShaderID);
+        GLResources.release(GLResources.Type.SHADER, fragmentShaderID);
+        GLResources.release(GLResources.Type.PROGRAM, programID);
     }
 
     protected abstract void bindAttributes();
@@ -82,6 +84,14 @@ public abstract class ShaderProgram {
         GL20.glUniform2f(location,vector.x,vector.y);
     }
 
+    protected void loadVectors(int location, FloatBuffer vectors){
+        GL20.glUniform3fv(location, vectors);
+    }
+
+    protected void load2DVectors(int location, FloatBuffer vectors){
+        GL20.glUniform2fv(location, vectors);
+    }
+
     protected void loadBoolean(int location, boolean value){
         float toLoad = 0;
         if(value){
@@ -110,6 +120,7 @@ public abstract class ShaderProgram {
             System.exit(-1);
         }
         int shaderID = GL20.glCreateShader(type);
+        GLResources.track(GLResources.Type.SHADER, shaderID, "font shader", 0);
         GL20.glShaderSource(shaderID, shaderSource);
         GL20.glCompileShader(shaderID);
         if(GL20.glGetShaderi(shaderID, GL20.GL_COMPILE_STATUS )== GL11.GL_FALSE){
@@ -0,0 +1,232 @@
+package com.bramerlabs.engine.io.text.font_rendering;
+
+import com.bramerlabs.engine.graphics.GLResources;
+import com.bramerlabs.engine.io.text.font_mesh_creator.GUIText;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+public class TextBatch {
+
+    // the number of texts drawn by one draw call - must match the size of the uniform arrays in the font shader
+    public static final int TEXTS_PER_DRAW = 32;
+
+    // the position, texture coordinates, and index of the text of every vertex
+    private static final int FLOATS_PER_VERTEX = 5;
+
+    // the fewest vertices reserved for a text - enough for 16 characters
+    private static final int MIN_SLOT_SIZE = 96;
+
+    /**
+     * the part of the vertex buffer reserved for one text
+     */
+    private static class Slot {
+        private GUIText text;
+        private int offset;
+        private int capacity;
+    }
+
+    // the texts in this batch, in the order they are stored in the vertex buffer
+    private ArrayList<Slot> slots = new ArrayList<>();
+
+    // vertex array object
+    private int vao;
+
+    // vertex buffer object, shared by every text in this batch
+    private int vbo;
+
+    // the number of vertices the vertex buffer has room for, and the number of them reserved for texts
+    private int capacity = 0;
+    private int used = 0;
+
+    // if the texts have to be laid out in the vertex buffer again, because one was added, removed, or outgrew its slot
+    private boolean repack = true;
+
+    // the color and translation of every text in one draw call
+    private static FloatBuffer colours = BufferUtils.createFloatBuffer(TEXTS_PER_DRAW * 3);
+    private static FloatBuffer translations = BufferUtils.createFloatBuffer(TEXTS_PER_DRAW * 2);
+
+    /**
+     * creates the vertex array and the vertex buffer
+     */
+    public void create() {
+        vao = GLResources.genVertexArray("text batch");
+        vbo = GLResources.genBuffer("text batch vertices");
+        GL30.glBindVertexArray(vao);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        int stride = FLOATS_PER_VERTEX * Float.BYTES;
+        GL20.glVertexAttribPointer(0, 2, GL11.GL_FLOAT, false, stride, 0);
+        GL20.glVertexAttribPointer(1, 2, GL11.GL_FLOAT, false, stride, 8);
+        GL20.glVertexAttribPointer(2, 1, GL11.GL_FLOAT, false, stride, 16);
+        GL20.glEnableVertexAttribArray(0);
+        GL20.glEnableVertexAttribArray(1);
+        GL20.glEnableVertexAttribArray(2);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL30.glBindVertexArray(0);
+    }
+
+    /**
+     * adds a text to this batch, or updates the quads of a text that is already in it
+     * the quads are written over the text's old ones when they fit, so that nothing else is uploaded
+     * @param text - the text, which has already been given its quads
+     */
+    public void update(GUIText text) {
+        int index = indexOf(text);
+        if (index < 0) {
+            Slot slot = new Slot();
+            slot.text = text;
+            slots.add(slot);
+            repack = true;
+            return;
+        }
+        Slot slot = slots.get(index);
+        if (repack || text.getVertexCount() > slot.capacity) {
+            repack = true;
+            return;
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, (long) slot.offset * FLOATS_PER_VERTEX * Float.BYTES,
+                vertexData(slot, index));
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * removes a text from this batch
+     * @param text - the text
+     */
+    public void remove(GUIText text) {
+        int index = indexOf(text);
+        if (index >= 0) {
+            slots.remove(index);
+            repack = true;
+        }
+    }
+
+    /**
+     * helper method - finds the slot of a text
+     * @param text - the text
+     * @return - the index of its slot, or -1 if it is not in this batch
+     */
+    private int indexOf(GUIText text) {
+        for (int i = 0; i < slots.size(); i++) {
+            if (slots.get(i).text == text) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * helper method - lays out every text in the vertex buffer and uploads all of them
+     * a text that outgrew its slot gets twice the room it needs, so that it rarely outgrows it again
+     * the vertex buffer grows to twice the room the texts need when they no longer fit, and is never shrunk
+     */
+    private void pack() {
+        used = 0;
+        for (Slot slot : slots) {
+            int vertexCount = slot.text.getVertexCount();
+            if (vertexCount > slot.capacity) {
+                slot.capacity = Math.max(MIN_SLOT_SIZE, vertexCount * 2);
+            }
+            slot.offset = used;
+            used += slot.capacity;
+        }
+
+        float[] data = new float[used * FLOATS_PER_VERTEX];
+        for (int i = 0; i < slots.size(); i++) {
+            Slot slot = slots.get(i);
+            float[] slotData = vertexData(slot, i);
+            System.arraycopy(slotData, 0, data, slot.offset * FLOATS_PER_VERTEX, slotData.length);
+        }
+
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        if (used > capacity) {
+            capacity = used * 2;
+            GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) capacity * FLOATS_PER_VERTEX * Float.BYTES, GL15.GL_DYNAMIC_DRAW);
+            GLResources.setBufferSize(vbo, (long) capacity * FLOATS_PER_VERTEX * Float.BYTES);
+        }
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, data);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        repack = false;
+    }
+
+    /**
+     * helper method - interleaves the quads of a text to fill its slot
+     * the rest of the slot is left as zeros, which make empty triangles that draw nothing
+     * @param slot - the slot of the text
+     * @param index - the index of the slot in this batch
+     * @return - the vertex data of the whole slot
+     */
+    private static float[] vertexData(Slot slot, int index) {
+        float[] positions = slot.text.getVertexPositions();
+        float[] textureCoords = slot.text.getTextureCoords();
+        float[] data = new float[slot.capacity * FLOATS_PER_VERTEX];
+        float textIndex = index % TEXTS_PER_DRAW;
+        for (int v = 0; v < slot.text.getVertexCount(); v++) {
+            int i = v * FLOATS_PER_VERTEX;
+            data[i] = positions[v * 2];
+            data[i + 1] = positions[v * 2 + 1];
+            data[i + 2] = textureCoords[v * 2];
+            data[i + 3] = textureCoords[v * 2 + 1];
+            data[i + 4] = textIndex;
+        }
+        return data;
+    }
+
+    /**
+     * renders every text in this batch, with one draw call for every TEXTS_PER_DRAW texts
+     * the font shader must be in use, and the font atlas bound
+     * @param shader - the font shader
+     */
+    public void render(FontShader shader) {
+        if (repack) {
+            pack();
+        }
+        GL30.glBindVertexArray(vao);
+        for (int first = 0; first < slots.size(); first += TEXTS_PER_DRAW) {
+            int last = Math.min(first + TEXTS_PER_DRAW, slots.size()) - 1;
+            colours.clear();
+            translations.clear();
+            for (int i = first; i <= last; i++) {
+                GUIText text = slots.get(i).text;
+                colours.put(text.getColour().x).put(text.getColour().y).put(text.getColour().z);
+                translations.put(text.getPosition().x).put(text.getPosition().y);
+            }
+            colours.flip();
+            translations.flip();
+            shader.loadColours(colours);
+            shader.loadTranslations(translations);
+
+            int start = slots.get(first).offset;
+            GL11.glDrawArrays(GL11.GL_TRIANGLES, start, slots.get(last).offset + slots.get(last).capacity - start);
+        }
+        GL30.glBindVertexArray(0);
+    }
+
+    /**
+     * getter method
+     * @return - if there are no texts in this batch
+     */
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    /**
+     * releases the vertex array and the vertex buffer
+     */
+    public void destroy() {
+        GLResources.release(GLResources.Type.VERTEX_ARRAY, vao);
+        GLResources.release(GLResources.Type.BUFFER, vbo);
+        vao = vbo = 0;
+        capacity = used = 0;
+        for (Slot slot : slots) {
+            slot.capacity = 0;
+        }
+        repack = true;
+    }
+}
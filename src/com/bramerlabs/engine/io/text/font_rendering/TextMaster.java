@@ -4,14 +4,13 @@ import com.bramerlabs.engine.io.text.font_mesh_creator.FontType;
 import com.bramerlabs.engine.io.text.font_mesh_creator.GUIText;
 import com.bramerlabs.engine.io.text.font_mesh_creator.TextMeshData;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 public class TextMaster {
 
-    private static Map<FontType, List<GUIText>> texts = new HashMap<>();
+    // every text of a font shares one vertex buffer, and is drawn with it
+    private static Map<FontType, TextBatch> texts = new HashMap<>();
     private static FontRenderer renderer;
 
     private static Loader loader;
@@ -28,23 +27,37 @@ public class TextMaster {
     public static void loadText(GUIText text){
         FontType font = text.getFont();
         TextMeshData data = font.loadText(text);
-        int vao = loader.loadToVAO(data.getVertexPositions(), data.getTextureCoords());
-        text.setMeshInfo(vao, data.getVertexCount());
-        List<GUIText> textBatch = texts.computeIfAbsent(font, k -> new ArrayList<>());
-        textBatch.add(text);
+        text.setMeshData(data);
+
+        // the quads of the old string are written over in the font's vertex buffer
+        TextBatch batch = texts.get(font);
+        if (batch == null) {
+            batch = new TextBatch();
+            batch.create();
+            texts.put(font, batch);
+        }
+        batch.update(text);
     }
 
     public static void removeText(GUIText text){
-        List<GUIText> textBatch = texts.get(text.getFont());
-        textBatch.remove(text);
-        if(textBatch.isEmpty()){
-            FontType f = (FontType) texts.get(text.getFont());
-            texts.remove(f);
+        TextBatch batch = texts.get(text.getFont());
+        if (batch == null) {
+            return;
+        }
+        batch.remove(text);
+        if(batch.isEmpty()){
+            batch.destroy();
+            texts.remove(text.getFont());
         }
     }
 
     public static void cleanUp(){
+        for (TextBatch batch : texts.values()) {
+            batch.destroy();
+        }
+        texts.clear();
         renderer.cleanUp();
+        loader.cleanUp();
     }
 
-}
\ No newline at end of file
+}
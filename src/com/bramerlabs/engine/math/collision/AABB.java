@@ -1,9 +1,94 @@
 package com.bramerlabs.engine.math.collision;
 
-public class AABB {
+import com.bramerlabs.engine.collision_detection.RectangularHitbox;
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
 
+public class AABB extends RectangularHitbox {
+
+    /**
+     * default constructor - makes an empty box, which grows to fit the first point added to it
+     */
     public AABB() {
+        super(Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * constructor for specified maxima corners
+     * @param xMin - the minimum x value of this box
+     * @param xMax - the maximum x value of this box
+     * @param yMin - the minimum y value of this box
+     * @param yMax - the maximum y value of this box
+     * @param zMin - the minimum z value of this box
+     * @param zMax - the maximum z value of this box
+     */
+    public AABB(float xMin, float xMax, float yMin, float yMax, float zMin, float zMax) {
+        super(xMin, xMax, yMin, yMax, zMin, zMax);
+    }
+
+    /**
+     * grows this box to contain a point
+     * @param p - the point
+     */
+    public void include(Vector3f p) {
+        include(p.getX(), p.getY(), p.getZ());
+    }
 
+    /**
+     * grows this box to contain a point
+     * @param x - the x position of the point
+     * @param y - the y position of the point
+     * @param z - the z position of the point
+     */
+    public void include(float x, float y, float z) {
+        xMin = Math.min(xMin, x);
+        xMax = Math.max(xMax, x);
+        yMin = Math.min(yMin, y);
+        yMax = Math.max(yMax, y);
+        zMin = Math.min(zMin, z);
+        zMax = Math.max(zMax, z);
     }
 
+    /**
+     * sets this box to the box bounding another box after it has been transformed
+     * @param local - the box to transform
+     * @param m - the transformation
+     */
+    public void setTransformed(AABB local, Matrix4f m) {
+        float[] min = new float[] {local.xMin, local.yMin, local.zMin};
+        float[] max = new float[] {local.xMax, local.yMax, local.zMax};
+        float[] resultMin = new float[3];
+        float[] resultMax = new float[3];
+
+        // each axis of the result starts at the translation, and each column adds whichever end of its range is smaller or larger
+        for (int row = 0; row < 3; row++) {
+            resultMin[row] = resultMax[row] = m.get(3, row);
+            for (int col = 0; col < 3; col++) {
+                float a = m.get(col, row) * min[col];
+                float b = m.get(col, row) * max[col];
+                resultMin[row] += Math.min(a, b);
+                resultMax[row] += Math.max(a, b);
+            }
+        }
+        setValues(resultMin[0], resultMax[0], resultMin[1], resultMax[1], resultMin[2], resultMax[2]);
+    }
+
+    /**
+     * getter method
+     * @return - the center of this box
+     */
+    public Vector3f getCenter() {
+        return new Vector3f((xMin + xMax) / 2, (yMin + yMax) / 2, (zMin + zMax) / 2);
+    }
+
+    /**
+     * getter method
+     * @return - the radius of the sphere around the center of this box that contains it
+     */
+    public float getRadius() {
+        float dx = xMax - xMin, dy = yMax - yMin, dz = zMax - zMin;
+        return (float) Math.sqrt(dx * dx + dy * dy + dz * dz) / 2;
+    }
 }
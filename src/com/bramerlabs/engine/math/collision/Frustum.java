@@ -0,0 +1,144 @@
+package com.bramerlabs.engine.math.collision;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+
+public class Frustum {
+
+    // the six planes of the frustum - left, right, bottom, top, near, far
+    // each plane is (a, b, c, d) with a unit normal pointing inwards, so that ax + by + cz + d >= 0 inside
+    private float[] planes = new float[24];
+
+    // incremented whenever an update moves any of the planes, so that work done against the frustum can be kept while it stays still
+    private int version = 0;
+
+    /**
+     * extracts the planes of the frustum from the view and projection matrices
+     * @param view - the view matrix
+     * @param projection - the projection matrix
+     */
+    public void update(Matrix4f view, Matrix4f projection) {
+        update(view, projection, -1, -1, 1, 1);
+    }
+
+    /**
+     * extracts the planes of the part of the frustum behind a rectangle of the screen
+     * @param view - the view matrix
+     * @param projection - the projection matrix
+     * @param xMin - the left of the rectangle, in normalized device coordinates from -1 to 1
+     * @param yMin - the bottom of the rectangle, in normalized device coordinates
+     * @param xMax - the right of the rectangle, in normalized device coordinates
+     * @param yMax - the top of the rectangle, in normalized device coordinates
+     */
+    public void update(Matrix4f view, Matrix4f projection, float xMin, float yMin, float xMax, float yMax) {
+        // the product is projection * view
+        Matrix4f m = Matrix4f.multiply(view, projection);
+
+        // each side plane is a row of the matrix minus the last row scaled by where the side is - x >= xMin * w becomes x - xMin * w >= 0
+        // the near and far planes are the last row plus or minus the third row
+        float[] limits = {xMin, xMax, yMin, yMax, -1, 1};
+        boolean changed = false;
+        for (int i = 0; i < 6; i++) {
+            int row = i / 2;
+            float sign = (i % 2 == 0) ? 1 : -1;
+            float a = sign * (m.get(0, row) - limits[i] * m.get(0, 3));
+            float b = sign * (m.get(1, row) - limits[i] * m.get(1, 3));
+            float c = sign * (m.get(2, row) - limits[i] * m.get(2, 3));
+            float d = sign * (m.get(3, row) - limits[i] * m.get(3, 3));
+            float length = (float) Math.sqrt(a * a + b * b + c * c);
+            changed |= setPlane(i * 4, a / length);
+            changed |= setPlane(i * 4 + 1, b / length);
+            changed |= setPlane(i * 4 + 2, c / length);
+            changed |= setPlane(i * 4 + 3, d / length);
+        }
+        if (changed) {
+            version++;
+        }
+    }
+
+    /**
+     * helper method - sets one value of the planes
+     * @param index - the index of the value
+     * @param value - the new value
+     * @return - true if the value changed
+     */
+    private boolean setPlane(int index, float value) {
+        if (planes[index] == value) {
+            return false;
+        }
+        planes[index] = value;
+        return true;
+    }
+
+    /**
+     * getter method
+     * @return - the number of updates so far that moved the frustum
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * determines if a sphere is at least partially inside the frustum
+     * @param x - the x position of the center of the sphere
+     * @param y - the y position of the center of the sphere
+     * @param z - the z position of the center of the sphere
+     * @param radius - the radius of the sphere
+     * @return - true if the sphere may be visible
+     */
+    public boolean intersectsSphere(float x, float y, float z, float radius) {
+        for (int i = 0; i < 24; i += 4) {
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < -radius) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * determines if a sphere is at least partially inside the frustum
+     * @param center - the center of the sphere
+     * @param radius - the radius of the sphere
+     * @return - true if the sphere may be visible
+     */
+    public boolean intersectsSphere(Vector3f center, float radius) {
+        return intersectsSphere(center.getX(), center.getY(), center.getZ(), radius);
+    }
+
+    /**
+     * determines if a box is at least partially inside the frustum
+     * @param box - the box, as xMin, yMin, zMin, xMax, yMax, zMax
+     * @param offset - the index of xMin in the array
+     * @return - true if the box may be inside
+     */
+    public boolean intersectsBox(float[] box, int offset) {
+        for (int i = 0; i < 24; i += 4) {
+            // test the corner of the box furthest along the normal of the plane
+            float x = planes[i] >= 0 ? box[offset + 3] : box[offset];
+            float y = planes[i + 1] >= 0 ? box[offset + 4] : box[offset + 1];
+            float z = planes[i + 2] >= 0 ? box[offset + 5] : box[offset + 2];
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * determines if a box is at least partially inside the frustum
+     * @param box - the box
+     * @return - true if the box may be visible
+     */
+    public boolean intersects(AABB box) {
+        for (int i = 0; i < 24; i += 4) {
+            // test the corner of the box furthest along the normal of the plane
+            float x = planes[i] >= 0 ? box.xMax : box.xMin;
+            float y = planes[i + 1] >= 0 ? box.yMax : box.yMin;
+            float z = planes[i + 2] >= 0 ? box.zMax : box.zMin;
+            if (planes[i] * x + planes[i + 1] * y + planes[i + 2] * z + planes[i + 3] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
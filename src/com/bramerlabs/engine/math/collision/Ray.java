@@ -0,0 +1,181 @@
+package com.bramerlabs.engine.math.collision;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+
+public class Ray {
+
+    // the start of the ray
+    private float ox, oy, oz;
+
+    // the unit direction of the ray, and its reciprocal for the box test
+    private float dx, dy, dz;
+    private float invX, invY, invZ;
+
+    /**
+     * default constructor
+     * @param origin - the start of the ray
+     * @param direction - the direction of the ray, which does not have to be normalized
+     */
+    public Ray(Vector3f origin, Vector3f direction) {
+        this(origin.getX(), origin.getY(), origin.getZ(), direction.getX(), direction.getY(), direction.getZ());
+    }
+
+    /**
+     * constructor for specified components
+     * @param ox - the x position of the start of the ray
+     * @param oy - the y position of the start of the ray
+     * @param oz - the z position of the start of the ray
+     * @param dx - the x component of the direction of the ray
+     * @param dy - the y component of the direction of the ray
+     * @param dz - the z component of the direction of the ray
+     */
+    public Ray(float ox, float oy, float oz, float dx, float dy, float dz) {
+        float length = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        this.ox = ox;
+        this.oy = oy;
+        this.oz = oz;
+        this.dx = dx / length;
+        this.dy = dy / length;
+        this.dz = dz / length;
+        this.invX = 1 / this.dx;
+        this.invY = 1 / this.dy;
+        this.invZ = 1 / this.dz;
+    }
+
+    /**
+     * makes the ray through a pixel of the window, from the near plane into the scene
+     * @param mouseX - the x position of the pixel, from the left of the window
+     * @param mouseY - the y position of the pixel, from the top of the window
+     * @param width - the width of the window
+     * @param height - the height of the window
+     * @param view - the view matrix
+     * @param projection - the projection matrix
+     * @return - the ray
+     */
+    public static Ray fromScreen(float mouseX, float mouseY, int width, int height, Matrix4f view, Matrix4f projection) {
+        Matrix4f inverse = Matrix4f.invert(Matrix4f.multiply(view, projection));
+        float x = 2 * mouseX / width - 1;
+        float y = 1 - 2 * mouseY / height;
+        float[] near = unproject(inverse, x, y, -1);
+        float[] far = unproject(inverse, x, y, 1);
+        return new Ray(near[0], near[1], near[2], far[0] - near[0], far[1] - near[1], far[2] - near[2]);
+    }
+
+    /**
+     * helper method - moves a point from normalized device coordinates back into the world
+     * @param inverse - the inverse of the combined view and projection matrix
+     * @param x - the x position, from -1 to 1
+     * @param y - the y position, from -1 to 1
+     * @param z - the depth, -1 on the near plane and 1 on the far plane
+     * @return - the world position
+     */
+    private static float[] unproject(Matrix4f inverse, float x, float y, float z) {
+        float[] result = new float[3];
+        float w = inverse.get(0, 3) * x + inverse.get(1, 3) * y + inverse.get(2, 3) * z + inverse.get(3, 3);
+        for (int row = 0; row < 3; row++) {
+            result[row] = (inverse.get(0, row) * x + inverse.get(1, row) * y + inverse.get(2, row) * z + inverse.get(3, row)) / w;
+        }
+        return result;
+    }
+
+    /**
+     * finds where this ray first enters a box
+     * @param box - the box, as xMin, yMin, zMin, xMax, yMax, zMax
+     * @param offset - the index of xMin in the array
+     * @param maxDistance - hits farther than this are ignored
+     * @return - the distance along the ray, 0 if the ray starts inside the box, or infinity if it misses
+     */
+    public float intersectBox(float[] box, int offset, float maxDistance) {
+        float t1 = (box[offset] - ox) * invX, t2 = (box[offset + 3] - ox) * invX;
+        float near = Math.min(t1, t2), far = Math.max(t1, t2);
+        t1 = (box[offset + 1] - oy) * invY;
+        t2 = (box[offset + 4] - oy) * invY;
+        near = Math.max(near, Math.min(t1, t2));
+        far = Math.min(far, Math.max(t1, t2));
+        t1 = (box[offset + 2] - oz) * invZ;
+        t2 = (box[offset + 5] - oz) * invZ;
+        near = Math.max(near, Math.min(t1, t2));
+        far = Math.min(far, Math.max(t1, t2));
+        if (far < Math.max(near, 0) || near > maxDistance) {
+            return Float.POSITIVE_INFINITY;
+        }
+        return Math.max(near, 0);
+    }
+
+    /**
+     * finds where this ray first hits a sphere
+     * @param cx - the x position of the center
+     * @param cy - the y position of the center
+     * @param cz - the z position of the center
+     * @param radius - the radius
+     * @return - the distance along the ray, or infinity if it misses
+     */
+    public float intersectSphere(float cx, float cy, float cz, float radius) {
+        float px = ox - cx, py = oy - cy, pz = oz - cz;
+        float b = px * dx + py * dy + pz * dz;
+        float c = px * px + py * py + pz * pz - radius * radius;
+        float h = b * b - c;
+        if (h < 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        float t = -b - (float) Math.sqrt(h);
+        return t >= 0 ? t : Float.POSITIVE_INFINITY;
+    }
+
+    /**
+     * finds where this ray first hits a capsule - a cylinder with a hemisphere on each end
+     * @param ax - the x position of the start of the axis
+     * @param ay - the y position of the start of the axis
+     * @param az - the z position of the start of the axis
+     * @param bx - the x position of the end of the axis
+     * @param by - the y position of the end of the axis
+     * @param bz - the z position of the end of the axis
+     * @param radius - the radius
+     * @return - the distance along the ray, or infinity if it misses
+     */
+    public float intersectCapsule(float ax, float ay, float az, float bx, float by, float bz, float radius) {
+        float abx = bx - ax, aby = by - ay, abz = bz - az;
+        float aox = ox - ax, aoy = oy - ay, aoz = oz - az;
+        float baba = abx * abx + aby * aby + abz * abz;
+        float bard = abx * dx + aby * dy + abz * dz;
+        float baoa = abx * aox + aby * aoy + abz * aoz;
+        float rdoa = dx * aox + dy * aoy + dz * aoz;
+        float oaoa = aox * aox + aoy * aoy + aoz * aoz;
+
+        // the side of the cylinder
+        float a = baba - bard * bard;
+        float b = baba * rdoa - baoa * bard;
+        float c = baba * oaoa - baoa * baoa - radius * radius * baba;
+        float h = b * b - a * c;
+        if (h < 0) {
+            return Float.POSITIVE_INFINITY;
+        }
+        if (a > 0) {
+            float t = (-b - (float) Math.sqrt(h)) / a;
+            float y = baoa + t * bard;
+            if (y > 0 && y < baba && t >= 0) {
+                return t;
+            }
+        }
+
+        // the caps - also the only part a ray along the axis can hit
+        return Math.min(intersectSphere(ax, ay, az, radius), intersectSphere(bx, by, bz, radius));
+    }
+
+    /**
+     * getter method
+     * @return - the start of the ray
+     */
+    public Vector3f getOrigin() {
+        return new Vector3f(ox, oy, oz);
+    }
+
+    /**
+     * getter method
+     * @return - the unit direction of the ray
+     */
+    public Vector3f getDirection() {
+        return new Vector3f(dx, dy, dz);
+    }
+}
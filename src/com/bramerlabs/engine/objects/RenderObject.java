@@ -1,12 +1,16 @@
 package com.bramerlabs.engine.objects;
 
 import com.bramerlabs.engine.graphics.Mesh;
+import com.bramerlabs.engine.math.Matrix4f;
 import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.math.collision.AABB;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class RenderObject {
 
-    // the current global ID - used to make sure every ID is unique
-    public static int curID = 0;
+    // the current global ID - used to make sure every ID is unique, even for objects made on worker threads
+    private static final AtomicInteger curID = new AtomicInteger();
 
     // the ID of this object
     public int ID;
@@ -14,9 +18,15 @@ public class RenderObject {
     // object location data
     private Vector3f position, rotation, scale;
 
+    // the color multiplied with the vertex colors of the mesh - default white
+    private Vector3f color = new Vector3f(1);
+
     // the mesh that this object is made of
     private Mesh mesh;
 
+    // the box bounding this object in world coordinates, updated when it is requested
+    private AABB bounds = new AABB();
+
     /**
      * default constructor for specified values
      * @param mesh - the mesh that this object is made of
@@ -67,8 +77,7 @@ public class RenderObject {
      * sets the current ID
      */
     public void generateID() {
-        this.ID = curID;
-        curID += 1;
+        this.ID = curID.getAndIncrement();
     }
 
     /**
@@ -103,6 +112,55 @@ public class RenderObject {
         this.scale = scale;
     }
 
+    /**
+     * getter method
+     * @return - the transformation from the mesh's coordinates to world coordinates
+     */
+    public Matrix4f getModelMatrix() {
+        return Matrix4f.transform(position, rotation, scale);
+    }
+
+    /**
+     * getter method
+     * @return - the box bounding this object in world coordinates
+     */
+    public AABB getBounds() {
+        bounds.setTransformed(mesh.getBounds(), getModelMatrix());
+        return bounds;
+    }
+
+    /**
+     * getter method
+     * @return - the center of the sphere bounding this object
+     */
+    public Vector3f getBoundingCenter() {
+        return getBounds().getCenter();
+    }
+
+    /**
+     * getter method
+     * @return - the radius of the sphere bounding this object
+     */
+    public float getBoundingRadius() {
+        return getBounds().getRadius();
+    }
+
+    /**
+     * getter method
+     * @return - the color multiplied with the vertex colors of the mesh
+     */
+    public Vector3f getColor() {
+        return color;
+    }
+
+    /**
+     * sets the color multiplied with the vertex colors of the mesh
+     * @param color - the new color
+     */
+    public void setColor(Vector3f color) {
+        this.color = color;
+    }
+
     /**
      * getter method
      * @return - the mesh that this object is made of
@@ -1,5 +1,6 @@
 package com.bramerlabs.engine.objects.shapes;
 
+import com.bramerlabs.engine.graphics.MeshBuilder;
 import com.bramerlabs.engine.math.Vector3f;
 
 import java.util.ArrayList;
@@ -72,6 +73,37 @@ public class Circle {
         }
     }
 
+    /**
+     * adds the vertices of a circle to a mesh builder, without making a circle or any per-vertex objects
+     * the normal vector of every vertex points away from the focus, as on the side of a cylinder
+     * @param builder - the mesh builder
+     * @param position - the position of the focus of the circle
+     * @param radius - the radius of the circle
+     * @param normal - a vector normal to the circle
+     * @param numVertices - the amount of vertices making up the circle
+     * @return - the index of the first vertex added
+     */
+    public static int addVertices(MeshBuilder builder, Vector3f position, float radius, Vector3f normal, int numVertices) {
+        // the same orthogonal vectors as generateVertices, normalized to 1
+        Vector3f v0 = new Vector3f(1, 0, 1);
+        if (Vector3f.cross(normal, v0).equals(new Vector3f(0, 0, 0), 0.000001f)) {
+            v0 = new Vector3f(0, 1, 1);
+        }
+        Vector3f v1 = Vector3f.normalize(Vector3f.cross(normal, v0));
+        Vector3f v2 = Vector3f.normalize(Vector3f.cross(normal, v1));
+
+        float dt = ((float) Math.PI * 2) / numVertices;
+        int first = builder.getVertexCount();
+        for (int i = 0; i < numVertices; i++) {
+            float cos = (float) Math.cos(i * dt), sin = (float) Math.sin(i * dt);
+            float nx = v1.getX() * cos + v2.getX() * sin;
+            float ny = v1.getY() * cos + v2.getY() * sin;
+            float nz = v1.getZ() * cos + v2.getZ() * sin;
+            builder.vertex(position.getX() + nx * radius, position.getY() + ny * radius, position.getZ() + nz * radius, nx, ny, nz);
+        }
+        return first;
+    }
+
     /**
      * getter method
      * @return - a list of vertices in the radius of the circle
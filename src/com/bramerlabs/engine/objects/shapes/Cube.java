@@ -1,12 +1,84 @@
 package com.bramerlabs.engine.objects.shapes;
 
 import com.bramerlabs.engine.graphics.Mesh;
-import com.bramerlabs.engine.graphics.Vertex;
+import com.bramerlabs.engine.graphics.MeshBuilder;
+import com.bramerlabs.engine.graphics.VertexFormat;
 import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.RenderObject;
 
 public class Cube extends RenderObject {
 
+    // the position of every vertex, four per face, so that each face has its own normal vector
+    private static final float[] POSITIONS = new float[] {
+            // front face
+            -0.5f, -0.5f,  0.5f,
+             0.5f, -0.5f,  0.5f,
+             0.5f,  0.5f,  0.5f,
+            -0.5f,  0.5f,  0.5f,
+            // back face
+            -0.5f, -0.5f, -0.5f,
+             0.5f, -0.5f, -0.5f,
+             0.5f,  0.5f, -0.5f,
+            -0.5f,  0.5f, -0.5f,
+            // right face
+             0.5f, -0.5f,  0.5f,
+             0.5f,  0.5f,  0.5f,
+             0.5f, -0.5f, -0.5f,
+             0.5f,  0.5f, -0.5f,
+            // left face
+            -0.5f, -0.5f,  0.5f,
+            -0.5f,  0.5f,  0.5f,
+            -0.5f, -0.5f, -0.5f,
+            -0.5f,  0.5f, -0.5f,
+            // top face
+             0.5f,  0.5f,  0.5f,
+            -0.5f,  0.5f,  0.5f,
+             0.5f,  0.5f, -0.5f,
+            -0.5f,  0.5f, -0.5f,
+            // bottom face
+            -0.5f, -0.5f,  0.5f,
+             0.5f, -0.5f,  0.5f,
+            -0.5f, -0.5f, -0.5f,
+             0.5f, -0.5f, -0.5f,
+    };
+
+    // the normal vector of each face
+    private static final float[] FACE_NORMALS = new float[] {
+             0,  0,  1, // front face
+             0,  0, -1, // back face
+             1,  0,  0, // right face
+            -1,  0,  0, // left face
+             0,  1,  0, // top face
+             0, -1,  0, // bottom face
+    };
+
+    // the faces, as indices into the vertices
+    private static final int[] INDICES = new int[] {
+            // front face
+            0, 1, 2,
+            2, 3, 0,
+
+            // back face
+            5, 4, 7,
+            5, 7, 6,
+
+            // right face
+            8, 10, 11,
+            8, 11, 9,
+
+            // left face
+            14, 12, 13,
+            14, 13, 15,
+
+            // top face
+            17, 16, 18,
+            17, 18, 19,
+
+            // bottom face
+            20, 22, 23,
+            20, 23, 21,
+    };
+
     /**
      *
      * @param position - the position of this cube
@@ -15,67 +87,7 @@ public class Cube extends RenderObject {
      * @param color - the color of this cube
      */
     public Cube(Vector3f position, Vector3f rotation, Vector3f scale, Vector3f color) {
-        super(new Mesh(new Vertex[] {
-                // front face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 0, 1
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 1, 1
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 1, 0
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 0, 0
-
-                // back face
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-
-                // right face
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), color, new Vector3f(1, 0, 0)),
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), color, new Vector3f(1, 0, 0)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), color, new Vector3f(1, 0, 0)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), color, new Vector3f(1, 0, 0)),
-
-                // left face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), color, new Vector3f(-1, 0, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), color, new Vector3f(-1, 0, 0)),
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), color, new Vector3f(-1, 0, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), color, new Vector3f(-1, 0, 0)),
-
-                // top face
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), color, new Vector3f(0, 1, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), color, new Vector3f(0, 1, 0)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), color, new Vector3f(0, 1, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), color, new Vector3f(0, 1, 0)),
-
-                // bottom face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), color, new Vector3f(0, -1, 0)),
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), color, new Vector3f(0, -1, 0)),
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), color, new Vector3f(0, -1, 0)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), color, new Vector3f(0, -1, 0)),
-        }, new int[] {
-                // front face
-                0, 1, 2,
-                2, 3, 0,
-
-                // back face
-                5, 4, 7,
-                5, 7, 6,
-
-                // right face
-                8, 10, 11,
-                8, 11, 9,
-
-                // left face
-                14, 12, 13,
-                14, 13, 15,
-
-                // top face
-                17, 16, 18,
-                17, 18, 19,
-
-                // bottom face
-                20, 22, 23,
-                20, 23, 21,
-        }), position, rotation, scale);
+        super(generateMesh(color, VertexFormat.FLOAT), position, rotation, scale);
     }
 
 
@@ -86,66 +98,26 @@ public class Cube extends RenderObject {
      * @param color - the color of this cube
      */
     public Cube(Vector3f position, Vector3f color) {
-        super(new Mesh(new Vertex[] {
-                // front face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 0, 1
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 1, 1
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 1, 0
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), color, new Vector3f(0, 0, 1)), // 0, 0
-
-                // back face
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), color, new Vector3f(0, 0, -1)),
-
-                // right face
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), color, new Vector3f(1, 0, 0)),
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), color, new Vector3f(1, 0, 0)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), color, new Vector3f(1, 0, 0)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), color, new Vector3f(1, 0, 0)),
-
-                // left face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), color, new Vector3f(-1, 0, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), color, new Vector3f(-1, 0, 0)),
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), color, new Vector3f(-1, 0, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), color, new Vector3f(-1, 0, 0)),
-
-                // top face
-                new Vertex(new Vector3f( 0.5f,  0.5f,  0.5f), color, new Vector3f(0, 1, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f,  0.5f), color, new Vector3f(0, 1, 0)),
-                new Vertex(new Vector3f( 0.5f,  0.5f, -0.5f), color, new Vector3f(0, 1, 0)),
-                new Vertex(new Vector3f(-0.5f,  0.5f, -0.5f), color, new Vector3f(0, 1, 0)),
-
-                // bottom face
-                new Vertex(new Vector3f(-0.5f, -0.5f,  0.5f), color, new Vector3f(0, -1, 0)),
-                new Vertex(new Vector3f( 0.5f, -0.5f,  0.5f), color, new Vector3f(0, -1, 0)),
-                new Vertex(new Vector3f(-0.5f, -0.5f, -0.5f), color, new Vector3f(0, -1, 0)),
-                new Vertex(new Vector3f( 0.5f, -0.5f, -0.5f), color, new Vector3f(0, -1, 0)),
-        }, new int[] {
-                // front face
-                0, 1, 2,
-                2, 3, 0,
-
-                // back face
-                5, 4, 7,
-                5, 7, 6,
-
-                // right face
-                8, 10, 11,
-                8, 11, 9,
-
-                // left face
-                14, 12, 13,
-                14, 13, 15,
-
-                // top face
-                17, 16, 18,
-                17, 18, 19,
+        super(generateMesh(color, VertexFormat.FLOAT), position, new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+    }
 
-                // bottom face
-                20, 22, 23,
-                20, 23, 21,
-        }), position, new Vector3f(0, 0, 0), new Vector3f(1, 1, 1));
+    /**
+     * generates the mesh of a cube from (-0.5, -0.5, -0.5) to (0.5, 0.5, 0.5)
+     * @param color - the color of the cube
+     * @param format - the layout of the vertex buffer
+     * @return - the mesh of the cube
+     */
+    public static Mesh generateMesh(Vector3f color, VertexFormat format) {
+        MeshBuilder builder = new MeshBuilder(24, INDICES.length);
+        builder.color(color.getX(), color.getY(), color.getZ());
+        for (int i = 0; i < 24; i++) {
+            int face = i / 4;
+            builder.vertex(POSITIONS[i * 3], POSITIONS[i * 3 + 1], POSITIONS[i * 3 + 2],
+                    FACE_NORMALS[face * 3], FACE_NORMALS[face * 3 + 1], FACE_NORMALS[face * 3 + 2]);
+        }
+        for (int i = 0; i < INDICES.length; i += 3) {
+            builder.triangle(INDICES[i], INDICES[i + 1], INDICES[i + 2]);
+        }
+        return builder.build(format);
     }
 }
@@ -1,26 +1,24 @@
 package com.bramerlabs.engine.objects.shapes;
 
+import com.bramerlabs.engine.graphics.LevelOfDetail;
 import com.bramerlabs.engine.graphics.Mesh;
-import com.bramerlabs.engine.graphics.Vertex;
-import com.bramerlabs.engine.math.Triangle;
+import com.bramerlabs.engine.graphics.MeshBuilder;
+import com.bramerlabs.engine.graphics.VertexFormat;
+import com.bramerlabs.engine.math.Matrix4f;
 import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.RenderObject;
 
-import java.util.ArrayList;
-
 public class Cylinder extends RenderObject {
 
-    // the position of this cylinder
-    private Vector3f position;
-
-    // the rotation of this cylinder
-    private static Vector3f rotation = new Vector3f(0);
+    // the smoothness of the cylinder
+    public static final int SMOOTHNESS = 120;
 
-    // the scale of this cylinder
-    private static Vector3f scale = new Vector3f(1);
+    // the levels of detail of the shared cylinders, chosen by the radius on screen in pixels, and the smoothness of each level
+    public static final LevelOfDetail LOD = new LevelOfDetail(0.2f, 2, 6, 16, 48);
+    public static final int[] LOD_SMOOTHNESS = new int[] {6, 12, 24, 48, SMOOTHNESS};
 
-    // the smoothness of the cylinder
-    private static final int SMOOTHNESS = 120;
+    // the transformation from the unit cylinder to this cylinder
+    private Matrix4f transform;
 
     /**
      * default constructor for specified values
@@ -31,7 +29,7 @@ public class Cylinder extends RenderObject {
      * @param scale    - the scale of this object
      */
     public Cylinder(Mesh mesh, Vector3f position, Vector3f rotation, Vector3f scale) {
-        super(mesh, new Vector3f(0), rotation, scale);
+        super(mesh, position, rotation, scale);
     }
 
     /**
@@ -43,7 +41,7 @@ public class Cylinder extends RenderObject {
     }
 
     /**
-     * makes a cylinder
+     * makes a cylinder using the shared unit cylinder mesh - the end points and radius are applied through its transform
      *
      * @param p1     - the focus of the first circle
      * @param p2     - the focus of the second circle
@@ -52,121 +50,90 @@ public class Cylinder extends RenderObject {
      * @return - the new cylinder
      */
     public static Cylinder makeCylinder(Vector3f p1, Vector3f p2, Vector3f color, float radius) {
-        Vector3f position = Vector3f.midpoint(p1, p2);
-        ArrayList<Triangle> triangles = generateTriangles(p1, p2, radius, SMOOTHNESS);
-
-        // the triangles in the spheres at the ends of the cylinder
-        ArrayList<Triangle> sphere1 = Sphere.generateTriangles(radius);
-        ArrayList<Triangle> sphere2 = Sphere.generateTriangles(radius);
+        Cylinder cylinder = new Cylinder(MeshRegistry.getCylinder(SMOOTHNESS), Vector3f.midpoint(p1, p2), new Vector3f(0), new Vector3f(1));
+        cylinder.setColor(color);
+        cylinder.moveTo(p1, p2, radius);
+        return cylinder;
+    }
 
-        Mesh mesh = generateMesh(triangles, color, sphere1, sphere2, p1, p2); // rounded edges
-//        Mesh mesh = generateMesh(triangles, color); // flat, unrendered edges
-        return new Cylinder(mesh, position, rotation, scale);
+    /**
+     * moves the cylinder so that it spans two points
+     * @param p1 - the focus of the first circle
+     * @param p2 - the focus of the second circle
+     * @param radius - the radius of this cylinder
+     */
+    public void moveTo(Vector3f p1, Vector3f p2, float radius) {
+        this.setPosition(Vector3f.midpoint(p1, p2));
+        this.transform = computeTransform(p1, p2, radius);
     }
 
     /**
-     * generates a mesh for this cylinder
-     *
-     * @param triangles - the triangles used to make this mesh
-     * @param color     - the color of this mesh
-     * @return - the new mesh
+     * computes the transformation that maps the unit cylinder onto a cylinder between two points
+     * the unit cylinder has a radius of 1 and runs from y = 0 to y = 1
+     * @param p1 - the focus of the first circle
+     * @param p2 - the focus of the second circle
+     * @param radius - the radius of the cylinder
+     * @return - the transformation matrix
      */
-    private static Mesh generateMesh(ArrayList<Triangle> triangles, Vector3f color) {
-        // create the vertex array
-        Vertex[] vertices = new Vertex[triangles.size() * 3];
-        for (int i = 0; i < triangles.size(); i++) {
-            Triangle t = triangles.get(i);
-            vertices[3 * i] = new Vertex(t.getV1(), color, t.getNormal());
-            vertices[3 * i + 1] = new Vertex(t.getV2(), color, t.getNormal());
-            vertices[3 * i + 2] = new Vertex(t.getV3(), color, t.getNormal());
+    public static Matrix4f computeTransform(Vector3f p1, Vector3f p2, float radius) {
+        // the axis of the cylinder
+        Vector3f axis = Vector3f.subtract(p2, p1);
+
+        // generate two vectors normal to the axis and to each other, keeping the basis right handed
+        Vector3f v0 = new Vector3f(0, 1, 0);
+        if (Vector3f.cross(axis, v0).equals(new Vector3f(0), 0.00001f)) {
+            v0 = new Vector3f(0, 0, 1);
         }
-        int[] indices = new int[triangles.size() * 3];
-        for (int i = 0; i < triangles.size() * 3; i++) {
-            indices[i] = i;
+        Vector3f e1 = Vector3f.normalize(Vector3f.cross(axis, v0));
+        Vector3f e2 = Vector3f.normalize(Vector3f.cross(e1, axis));
+
+        // the columns of the matrix are the images of the x, y, z axes and the origin
+        Matrix4f result = Matrix4f.identity();
+        for (int row = 0; row < 3; row++) {
+            result.set(0, row, e1.get(row) * radius);
+            result.set(1, row, axis.get(row));
+            result.set(2, row, e2.get(row) * radius);
+            result.set(3, row, p1.get(row));
         }
-        return new Mesh(vertices, indices);
+        return result;
     }
 
     /**
-     * generates a rounded mesh
-     * @param triangles - the triangles used in the cylindrical part of this mesh
+     * generates the mesh of a unit cylinder - radius 1, running from y = 0 to y = 1, without end caps
      * @param color - the color of this mesh
-     * @param sphere1 - the triangles in the spheres at the ends of the cylinder
-     * @param sphere2 - the triangles in the spheres at the ends of the cylinder
-     * @param p1 - the position of the first sphere
-     * @param p2 - the position of the second sphere
+     * @param smoothness - the number of vertices around each circle
+     * @param format - the layout of the vertex buffer
      * @return - the new mesh
      */
-    private static Mesh generateMesh(ArrayList<Triangle> triangles, Vector3f color, ArrayList<Triangle> sphere1, ArrayList<Triangle> sphere2, Vector3f p1, Vector3f p2) {
-
-        ArrayList<Vertex> vertices = new ArrayList<>();
-        // the triangles on the cylindrical face
-        for (Triangle t : triangles) {
-            vertices.add(new Vertex(t.getV1(), color, t.getNormal()));
-            vertices.add(new Vertex(t.getV2(), color, t.getNormal()));
-            vertices.add(new Vertex(t.getV3(), color, t.getNormal()));
-        }
-
-        // the triangles on sphere at point p1
-        for (Triangle t : sphere1) {
-            t.move(p1);
-            vertices.add(new Vertex(t.getV1(), color, Vector3f.subtract(t.getV1(), p1)));
-            vertices.add(new Vertex(t.getV2(), color, Vector3f.subtract(t.getV2(), p1)));
-            vertices.add(new Vertex(t.getV3(), color, Vector3f.subtract(t.getV3(), p1)));
+    public static Mesh generateUnitMesh(Vector3f color, int smoothness, VertexFormat format) {
+        // every vertex is shared by the faces on either side of it, and its normal points away from the axis
+        MeshBuilder builder = new MeshBuilder(smoothness * 2, smoothness * 6);
+        builder.color(color.getX(), color.getY(), color.getZ());
+        int bottom = Circle.addVertices(builder, new Vector3f(0), 1.0f, new Vector3f(0, 1, 0), smoothness);
+        int top = Circle.addVertices(builder, new Vector3f(0, 1, 0), 1.0f, new Vector3f(0, 1, 0), smoothness);
+
+        // the circle vertices wind counter clockwise around the y axis
+        for (int i = 0; i < smoothness; i++) {
+            int next = (i + 1) % smoothness;
+            builder.triangle(bottom + i, bottom + next, top + next);
+            builder.triangle(bottom + i, top + next, top + i);
         }
 
-        // the triangles on the sphere at point p2
-        for (Triangle t : sphere2) {
-            t.move(p2);
-            vertices.add(new Vertex(t.getV1(), color, Vector3f.subtract(t.getV1(), p2)));
-            vertices.add(new Vertex(t.getV2(), color, Vector3f.subtract(t.getV2(), p2)));
-            vertices.add(new Vertex(t.getV3(), color, Vector3f.subtract(t.getV3(), p2)));
-        }
-
-        return new Mesh(vertices);
+        return builder.build(format);
     }
 
     /**
-     * generates the triangles making up this cylinder
+     * getter method
+     * @return - the transformation from the unit cylinder to this cylinder
      */
-    private static ArrayList<Triangle> generateTriangles(Vector3f p1, Vector3f p2, float radius, int smoothness) {
-        Circle[] circles = generateCircles(p1, p2, radius, smoothness);
-        ArrayList<Triangle> faces = new ArrayList<>();
-
-
-        ArrayList<Vector3f> v1 = circles[0].getVertices();
-        ArrayList<Vector3f> v2 = circles[1].getVertices();
-
-        for (int i = 0; i < v1.size() - 1; i++) {
-
-            // make normal vectors
-            Vector3f n1 = Vector3f.cross(Vector3f.subtract(v1.get(i), v1.get(i + 1)), Vector3f.subtract(v2.get(i), v1.get(i + 1)));
-            Vector3f n2 = Vector3f.cross(Vector3f.subtract(v1.get(i + 1), v2.get(i + 1)), Vector3f.subtract(v2.get(i), v2.get(i + 1)));
-
-            // make the triangles
-            faces.add(new Triangle(v2.get(i), v1.get(i + 1), v1.get(i), n1));
-            faces.add(new Triangle(v2.get(i + 1), v1.get(i + 1), v2.get(i), n2));
-        }
-
-        // make normal vectors
-        Vector3f n1 = Vector3f.cross(Vector3f.subtract(v1.get(v1.size() - 1), v1.get(0)), Vector3f.subtract(v2.get(v2.size() - 1), v1.get(v1.size() - 1)));
-        Vector3f n2 = Vector3f.cross(Vector3f.subtract(v1.get(0), v2.get(v2.size() - 1)), Vector3f.subtract(v2.get(v2.size() - 1), v2.get(0)));
-
-        // make the triangles
-        faces.add(new Triangle(v2.get(v1.size() - 1), v1.get(0), v1.get(v1.size() - 1), n1));
-        faces.add(new Triangle(v2.get(0), v1.get(0), v2.get(v2.size() - 1), n2));
-
-        return faces;
+    @Override
+    public Matrix4f getModelMatrix() {
+        return this.transform;
     }
 
     /**
-     * generates the circles making up this cylinder
+     * releases the cylinder - the mesh is shared and owned by the mesh registry, so it is not destroyed here
      */
-    private static Circle[] generateCircles(Vector3f p1, Vector3f p2, float radius, int smoothness) {
-        Vector3f normal = Vector3f.subtract(p1, p2);
-        Circle c1 = new Circle(p1, radius, normal, smoothness);
-        Circle c2 = new Circle(p2, radius, normal, smoothness);
-
-        return new Circle[]{c1, c2};
-    }
-}
\ No newline at end of file
+    @Override
+    public void destroy() {}
+}
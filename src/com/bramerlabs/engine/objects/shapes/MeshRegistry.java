@@ -0,0 +1,122 @@
+package com.bramerlabs.engine.objects.shapes;
+
+import com.bramerlabs.engine.graphics.Mesh;
+import com.bramerlabs.engine.graphics.MeshLoader;
+import com.bramerlabs.engine.graphics.Vertex;
+import com.bramerlabs.engine.graphics.VertexFormat;
+import com.bramerlabs.engine.math.Vector3f;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MeshRegistry {
+
+    // every shared mesh fits in the unit box and is colored per object or per instance, so they all use the compact unit vertex format
+    // meshes are generated on whichever thread first asks for them, and created later on the thread that owns the OpenGL context
+
+    // the unit sphere meshes, keyed by level of detail (subdivision depth)
+    private static ConcurrentHashMap<Integer, Mesh> spheres = new ConcurrentHashMap<>();
+
+    // the unit cylinder meshes, keyed by level of detail (vertices around each circle)
+    private static ConcurrentHashMap<Integer, Mesh> cylinders = new ConcurrentHashMap<>();
+
+    // the quad and cube that impostors are drawn on
+    private static Mesh quad, cube;
+
+    /**
+     * generates every level of detail of the shared meshes on the worker threads, so that they are ready before they are drawn
+     */
+    public static void preload() {
+        for (int level = 0; level < Sphere.LOD.getLevelCount(); level++) {
+            int depth = level;
+            MeshLoader.submit(() -> getSphere(depth));
+        }
+        for (int smoothness : Cylinder.LOD_SMOOTHNESS) {
+            MeshLoader.submit(() -> getCylinder(smoothness));
+        }
+        MeshLoader.submit(MeshRegistry::getQuad);
+        MeshLoader.submit(MeshRegistry::getCube);
+    }
+
+    /**
+     * gets the shared unit sphere mesh for a level of detail, generating it the first time it is requested
+     * the mesh is white with a radius of 1 - color, radius, and position are applied per object
+     * can be called from any thread - the mesh is not drawn until the mesh loader has created it
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the shared unit sphere mesh
+     */
+    public static Mesh getSphere(int depth) {
+        return spheres.computeIfAbsent(depth, d ->
+                MeshLoader.queueUpload(Sphere.generateIndexedMesh(new Vector3f(1), 1.0f, d, VertexFormat.UNIT)));
+    }
+
+    /**
+     * gets the shared unit cylinder mesh for a level of detail, generating it the first time it is requested
+     * the mesh is white with a radius of 1, running from y = 0 to y = 1 - end points and radius are applied per object
+     * can be called from any thread - the mesh is not drawn until the mesh loader has created it
+     * @param smoothness - the number of vertices around each circle
+     * @return - the shared unit cylinder mesh
+     */
+    public static Mesh getCylinder(int smoothness) {
+        return cylinders.computeIfAbsent(smoothness, n ->
+                MeshLoader.queueUpload(Cylinder.generateUnitMesh(new Vector3f(1), n, VertexFormat.UNIT)));
+    }
+
+    /**
+     * gets the shared quad mesh, from (-1, -1) to (1, 1) on the xy plane, generating it the first time it is requested
+     * can be called from any thread - the mesh is not drawn until the mesh loader has created it
+     * @return - the shared quad mesh
+     */
+    public static synchronized Mesh getQuad() {
+        if (quad == null) {
+            Vector3f color = new Vector3f(1);
+            Vector3f normal = new Vector3f(0, 0, 1);
+            quad = new Mesh(new Vertex[] {
+                    new Vertex(new Vector3f(-1, -1, 0), color, normal),
+                    new Vertex(new Vector3f( 1, -1, 0), color, normal),
+                    new Vertex(new Vector3f( 1,  1, 0), color, normal),
+                    new Vertex(new Vector3f(-1,  1, 0), color, normal),
+            }, new int[] {
+                    0, 1, 2,
+                    2, 3, 0
+            }, VertexFormat.UNIT);
+            MeshLoader.queueUpload(quad);
+        }
+        return quad;
+    }
+
+    /**
+     * gets the shared unit cube mesh, from (-0.5, -0.5, -0.5) to (0.5, 0.5, 0.5), generating it the first time it is requested
+     * can be called from any thread - the mesh is not drawn until the mesh loader has created it
+     * @return - the shared unit cube mesh
+     */
+    public static synchronized Mesh getCube() {
+        if (cube == null) {
+            cube = Cube.generateMesh(new Vector3f(1), VertexFormat.UNIT);
+            MeshLoader.queueUpload(cube);
+        }
+        return cube;
+    }
+
+    /**
+     * releases every mesh in the registry
+     * must be called on the thread that owns the OpenGL context
+     */
+    public static synchronized void destroy() {
+        for (Mesh mesh : spheres.values()) {
+            mesh.destroy();
+        }
+        for (Mesh mesh : cylinders.values()) {
+            mesh.destroy();
+        }
+        if (quad != null) {
+            quad.destroy();
+            quad = null;
+        }
+        if (cube != null) {
+            cube.destroy();
+            cube = null;
+        }
+        spheres.clear();
+        cylinders.clear();
+    }
+}
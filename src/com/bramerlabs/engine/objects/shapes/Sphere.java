@@ -1,21 +1,53 @@
 package com.bramerlabs.engine.objects.shapes;
 
+import com.bramerlabs.engine.graphics.LevelOfDetail;
 import com.bramerlabs.engine.graphics.Mesh;
-import com.bramerlabs.engine.graphics.Vertex;
-import com.bramerlabs.engine.math.Triangle;
+import com.bramerlabs.engine.graphics.MeshBuilder;
+import com.bramerlabs.engine.graphics.VertexFormat;
 import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.math.collision.AABB;
 import com.bramerlabs.engine.objects.RenderObject;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 
 public class Sphere extends RenderObject {
 
     // the amount of times to recursively subdivide faces
-    private static final int depth = 4;
+    public static final int DEFAULT_DEPTH = 4;
+
+    // the levels of detail of the shared spheres, chosen by the radius on screen in pixels - level i is subdivided i times
+    public static final LevelOfDetail LOD = new LevelOfDetail(0.2f, 4, 12, 32, 96);
 
     // the golden ratio
     private static final float phi = 1.16180339f;
 
+    // the 12 vertices of a regular icosahedron, before they are moved onto the sphere
+    private static final float[] ICOSAHEDRON_VERTICES = new float[] {
+             0.5f, 0,  phi/2,
+             0.5f, 0, -phi/2,
+            -0.5f, 0,  phi/2,
+            -0.5f, 0, -phi/2,
+             phi/2,  0.5f, 0,
+             phi/2, -0.5f, 0,
+            -phi/2,  0.5f, 0,
+            -phi/2, -0.5f, 0,
+            0,  phi/2,  0.5f,
+            0,  phi/2, -0.5f,
+            0, -phi/2,  0.5f,
+            0, -phi/2, -0.5f,
+    };
+
+    // the faces of a regular icosahedron, as indices into its 12 vertices
+    private static final int[] ICOSAHEDRON_FACES = new int[] {
+            0, 2, 10,   0, 10, 5,   0, 5, 4,    0, 4, 8,    0, 8, 2,
+            3, 1, 11,   3, 11, 7,   3, 7, 6,    3, 6, 9,    3, 9, 1,
+            2, 6, 7,    2, 7, 10,   10, 7, 11,  10, 11, 5,  5, 11, 1,
+            5, 1, 4,    4, 1, 9,    4, 9, 8,    8, 9, 6,    8, 6, 2,
+    };
+
+    // the box bounding this sphere in world coordinates, updated when it is requested
+    private AABB bounds = new AABB();
+
     /**
      * default constructor for specified values
      *
@@ -29,11 +61,16 @@ public class Sphere extends RenderObject {
     }
 
     /**
-     * create a sphere
+     * create a sphere using the shared unit sphere mesh - the radius is applied through the scale
+     * @param position - the position of the sphere
+     * @param color - the color of the sphere
+     * @param radius - the radius of the sphere
      * @return - a new sphere
      */
     public static Sphere makeSphere(Vector3f position, Vector3f color, float radius) {
-        return new Sphere(generateMesh(color, radius), position, new Vector3f(0), new Vector3f(1));
+        Sphere sphere = new Sphere(MeshRegistry.getSphere(DEFAULT_DEPTH), position, new Vector3f(0), new Vector3f(radius));
+        sphere.setColor(color);
+        return sphere;
     }
 
     /**
@@ -43,135 +80,172 @@ public class Sphere extends RenderObject {
      * @return - the mesh of the sphere
      */
     public static Mesh generateMesh(Vector3f color, float radius) {
+        return generateMesh(color, radius, DEFAULT_DEPTH);
+    }
 
-        // generate the triangles
-        ArrayList<Triangle> triangles = generateTriangles(radius);
+    /**
+     * generates a mesh - every face has its own three vertices
+     * @param color - the color of the sphere
+     * @param radius - the radius of the sphere
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the mesh of the sphere
+     */
+    public static Mesh generateMesh(Vector3f color, float radius, int depth) {
+        // find the shared vertices first, then copy them out once per face
+        MeshBuilder shared = new MeshBuilder(vertexCount(depth), 0);
+        int[] faces = generateFaces(shared, radius, depth);
 
-        // create the vertex array
-        Vertex[] vertices = new Vertex[triangles.size() * 3];
-        for (int i = 0; i < triangles.size(); i++) {
-            Triangle t = triangles.get(i);
-            vertices[3 * i] = new Vertex(t.getV1(), color, Vector3f.subtract(t.getV1(), new Vector3f(0)));
-            vertices[3 * i + 1] = new Vertex(t.getV2(), color, Vector3f.subtract(t.getV2(), new Vector3f(0)));
-            vertices[3 * i + 2] = new Vertex(t.getV3(), color, Vector3f.subtract(t.getV3(), new Vector3f(0)));
+        MeshBuilder builder = new MeshBuilder(faces.length, faces.length);
+        builder.color(color.getX(), color.getY(), color.getZ());
+        for (int i = 0; i < faces.length; i += 3) {
+            int v1 = addCopy(builder, shared, faces[i]);
+            int v2 = addCopy(builder, shared, faces[i + 1]);
+            int v3 = addCopy(builder, shared, faces[i + 2]);
+            builder.triangle(v1, v2, v3);
         }
 
-        int[] indices = new int[triangles.size() * 3];
-        for (int i = 0; i < triangles.size() * 3; i++) {
-            indices[i] = i;
-        }
+        return builder.build(VertexFormat.FLOAT);
+    }
 
-        // make a new mesh
-        return new Mesh(vertices, indices);
+    /**
+     * helper method - adds a copy of a vertex of another builder, with its position as its normal vector
+     * @param builder - the builder to add to
+     * @param source - the builder holding the vertex
+     * @param vertex - the index of the vertex in the source builder
+     * @return - the index of the copy
+     */
+    private static int addCopy(MeshBuilder builder, MeshBuilder source, int vertex) {
+        float x = source.getPosition(vertex, 0), y = source.getPosition(vertex, 1), z = source.getPosition(vertex, 2);
+        return builder.vertex(x, y, z, x, y, z);
     }
 
     /**
-     * generates a list of vertices;
-     * @param position - the position of the sphere
+     * generates an indexed mesh - every vertex is stored once and shared by all the faces that touch it
      * @param color - the color of the sphere
      * @param radius - the radius of the sphere
-     * @return - a vertex array
-     */
-    public static Vertex[] generateVertices(Vector3f position, Vector3f color, float radius) {
-        // generate the triangles
-        ArrayList<Triangle> triangles = generateTriangles(radius);
-
-        // create the vertex array
-        Vertex[] vertices = new Vertex[triangles.size() * 3];
-        for (int i = 0; i < triangles.size(); i++) {
-            Triangle t = triangles.get(i);
-            vertices[3 * i] = new Vertex(t.getV1(), color, Vector3f.subtract(t.getV1(), position));
-            vertices[3 * i + 1] = new Vertex(t.getV2(), color, Vector3f.subtract(t.getV2(), position));
-            vertices[3 * i + 2] = new Vertex(t.getV3(), color, Vector3f.subtract(t.getV3(), position));
-        }
-
-        return vertices;
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the mesh of the sphere
+     */
+    public static Mesh generateIndexedMesh(Vector3f color, float radius, int depth) {
+        return generateIndexedMesh(color, radius, depth, VertexFormat.FLOAT);
     }
 
     /**
-     * generates vertices of this sphere
+     * generates an indexed mesh - every vertex is stored once and shared by all the faces that touch it
+     * @param color - the color of the sphere
      * @param radius - the radius of the sphere
+     * @param depth - the amount of times to recursively subdivide faces
+     * @param format - the layout of the vertex buffer
+     * @return - the mesh of the sphere
      */
-    public static ArrayList<Triangle> generateTriangles(float radius) {
-
-        ArrayList<Triangle> faces = new ArrayList<>();
-
-        // define a regular icosahedron using 12 vertices
-        Vector3f[] vertices = new Vector3f[12];
-        vertices[0]  = new Vector3f( 0.5f * radius, 0,  phi/2 * radius);
-        vertices[1]  = new Vector3f( 0.5f * radius, 0, -phi/2 * radius);
-        vertices[2]  = new Vector3f(-0.5f * radius, 0,  phi/2 * radius);
-        vertices[3]  = new Vector3f(-0.5f * radius, 0, -phi/2 * radius);
-        vertices[4]  = new Vector3f( phi/2 * radius,  0.5f * radius, 0);
-        vertices[5]  = new Vector3f( phi/2 * radius, -0.5f * radius, 0);
-        vertices[6]  = new Vector3f(-phi/2 * radius,  0.5f * radius, 0);
-        vertices[7]  = new Vector3f(-phi/2 * radius, -0.5f * radius, 0);
-        vertices[8]  = new Vector3f(0,  phi/2 * radius, 0.5f * radius);
-        vertices[9]  = new Vector3f(0,  phi/2 * radius,-0.5f * radius);
-        vertices[10] = new Vector3f(0, -phi/2 * radius, 0.5f * radius);
-        vertices[11] = new Vector3f(0, -phi/2 * radius,-0.5f * radius);
-
-        // subdivide each triangular face (20 total) recursively
-        faces.addAll(subdivide(vertices[0],  vertices[2],  vertices[10], depth, radius));
-        faces.addAll(subdivide(vertices[0],  vertices[10], vertices[5],  depth, radius));
-        faces.addAll(subdivide(vertices[0],  vertices[5],  vertices[4],  depth, radius));
-        faces.addAll(subdivide(vertices[0],  vertices[4],  vertices[8],  depth, radius));
-        faces.addAll(subdivide(vertices[0],  vertices[8],  vertices[2],  depth, radius));
-        faces.addAll(subdivide(vertices[3],  vertices[1],  vertices[11], depth, radius));
-        faces.addAll(subdivide(vertices[3],  vertices[11], vertices[7],  depth, radius));
-        faces.addAll(subdivide(vertices[3],  vertices[7],  vertices[6],  depth, radius));
-        faces.addAll(subdivide(vertices[3],  vertices[6],  vertices[9],  depth, radius));
-        faces.addAll(subdivide(vertices[3],  vertices[9],  vertices[1],  depth, radius));
-        faces.addAll(subdivide(vertices[2],  vertices[6],  vertices[7],  depth, radius));
-        faces.addAll(subdivide(vertices[2],  vertices[7],  vertices[10], depth, radius));
-        faces.addAll(subdivide(vertices[10], vertices[7],  vertices[11], depth, radius));
-        faces.addAll(subdivide(vertices[10], vertices[11], vertices[5],  depth, radius));
-        faces.addAll(subdivide(vertices[5],  vertices[11], vertices[1],  depth, radius));
-        faces.addAll(subdivide(vertices[5],  vertices[1],  vertices[4],  depth, radius));
-        faces.addAll(subdivide(vertices[4],  vertices[1],  vertices[9],  depth, radius));
-        faces.addAll(subdivide(vertices[4],  vertices[9],  vertices[8],  depth, radius));
-        faces.addAll(subdivide(vertices[8],  vertices[9],  vertices[6],  depth, radius));
-        faces.addAll(subdivide(vertices[8],  vertices[6],  vertices[2],  depth, radius));
-
-        return faces;
+    public static Mesh generateIndexedMesh(Vector3f color, float radius, int depth, VertexFormat format) {
+        MeshBuilder builder = new MeshBuilder(vertexCount(depth), 20 * 3 << (2 * depth));
+        builder.color(color.getX(), color.getY(), color.getZ());
+        int[] faces = generateFaces(builder, radius, depth);
+        for (int i = 0; i < faces.length; i += 3) {
+            builder.triangle(faces[i], faces[i + 1], faces[i + 2]);
+        }
+        return builder.build(format);
     }
 
     /**
-     * recursively subdivides a triangle into 4 triangles, and then normalizes each new vertex to a radius of 1
-     * @param v1 - the first vertex of the triangle
-     * @param v2 - the second vertex of the triangle
-     * @param v3 - the third vertex of the triangle
-     * @param depth - the current depth of recursion
+     * helper method - the number of unique vertices of a sphere
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the number of vertices
      */
-    private static ArrayList<Triangle> subdivide(Vector3f v1, Vector3f v2, Vector3f v3, long depth, float radius) {
-
-        ArrayList<Triangle> faces = new ArrayList<>();
-
-        // default condition
-        if (depth == 0) {
-
-            // create new vectors to modify
-            Vector3f v1p = Vector3f.normalize(v1, radius);
-            Vector3f v2p = Vector3f.normalize(v2, radius);
-            Vector3f v3p = Vector3f.normalize(v3, radius);
+    private static int vertexCount(int depth) {
+        return 10 * (1 << (2 * depth)) + 2;
+    }
 
-            faces.add(new Triangle(v1p, v2p, v3p));
-            return faces;
+    /**
+     * subdivides a regular icosahedron, adding its unique vertices to a builder
+     * the normal of a vertex on a sphere centered at the origin is its position
+     * @param builder - the builder to add the vertices to
+     * @param radius - the radius of the sphere
+     * @param depth - the amount of times to recursively subdivide faces
+     * @return - the faces, as indices into the vertices added to the builder
+     */
+    private static int[] generateFaces(MeshBuilder builder, float radius, int depth) {
+        // the 12 vertices of the icosahedron
+        int first = builder.getVertexCount();
+        for (int i = 0; i < ICOSAHEDRON_VERTICES.length; i += 3) {
+            addOnSphere(builder, ICOSAHEDRON_VERTICES[i], ICOSAHEDRON_VERTICES[i + 1], ICOSAHEDRON_VERTICES[i + 2], radius);
+        }
+        int[] faces = new int[ICOSAHEDRON_FACES.length];
+        for (int i = 0; i < faces.length; i++) {
+            faces[i] = first + ICOSAHEDRON_FACES[i];
         }
 
+        // subdivide every face, sharing the midpoint of each edge between the two faces on either side of it
+        // the midpoints are found with an open addressing table of edges, big enough for the edges of the last level
+        int capacity = Integer.highestOneBit(Math.max(30 << (2 * depth), 1)) * 4;
+        long[] edges = new long[capacity];
+        int[] midpoints = new int[capacity];
+        for (int d = 0; d < depth; d++) {
+            Arrays.fill(edges, -1L);
+            int[] subdivided = new int[faces.length * 4];
+            for (int i = 0; i < faces.length; i += 3) {
+                int v1 = faces[i], v2 = faces[i + 1], v3 = faces[i + 2];
+                int v12 = midpoint(builder, v1, v2, edges, midpoints, radius);
+                int v23 = midpoint(builder, v2, v3, edges, midpoints, radius);
+                int v31 = midpoint(builder, v3, v1, edges, midpoints, radius);
 
-        // create new vertices for each face
-        Vector3f v12 = Vector3f.normalize(new Vector3f(v1.getX() + v2.getX(), v1.getY() + v2.getY(), v1.getZ() + v2.getZ()), radius);
-        Vector3f v23 = Vector3f.normalize(new Vector3f(v2.getX() + v3.getX(), v2.getY() + v3.getY(), v2.getZ() + v3.getZ()), radius);
-        Vector3f v31 = Vector3f.normalize(new Vector3f(v3.getX() + v1.getX(), v3.getY() + v1.getY(), v3.getZ() + v1.getZ()), radius);
+                // same winding as the original face
+                int j = i * 4;
+                subdivided[j     ] = v1;  subdivided[j + 1 ] = v12; subdivided[j + 2 ] = v31;
+                subdivided[j + 3 ] = v2;  subdivided[j + 4 ] = v23; subdivided[j + 5 ] = v12;
+                subdivided[j + 6 ] = v3;  subdivided[j + 7 ] = v31; subdivided[j + 8 ] = v23;
+                subdivided[j + 9 ] = v12; subdivided[j + 10] = v23; subdivided[j + 11] = v31;
+            }
+            faces = subdivided;
+        }
+        return faces;
+    }
 
-        // recursive part
-        faces.addAll(subdivide(v1, v12, v31, depth-1, radius));
-        faces.addAll(subdivide(v2, v23, v12, depth-1, radius));
-        faces.addAll(subdivide(v3, v31, v23, depth-1, radius));
-        faces.addAll(subdivide(v12, v23, v31,depth-1, radius));
+    /**
+     * gets the index of the vertex halfway between two vertices, creating it if no other face has yet
+     * @param builder - the builder holding the vertices
+     * @param v1 - the index of the first vertex
+     * @param v2 - the index of the second vertex
+     * @param edges - the table of edges that already have a midpoint, -1 where empty
+     * @param midpoints - the index of the midpoint of each edge in the table
+     * @param radius - the radius of the sphere
+     * @return - the index of the midpoint vertex
+     */
+    private static int midpoint(MeshBuilder builder, int v1, int v2, long[] edges, int[] midpoints, float radius) {
+        long edge = ((long) Math.min(v1, v2) << 32) | Math.max(v1, v2);
+        int mask = edges.length - 1;
+        int slot = (int) (edge ^ (edge >>> 29)) * 0x9E3779B9 & mask;
+        while (edges[slot] != -1L) {
+            if (edges[slot] == edge) {
+                return midpoints[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        int index = addOnSphere(builder,
+                builder.getPosition(v1, 0) + builder.getPosition(v2, 0),
+                builder.getPosition(v1, 1) + builder.getPosition(v2, 1),
+                builder.getPosition(v1, 2) + builder.getPosition(v2, 2), radius);
+        edges[slot] = edge;
+        midpoints[slot] = index;
+        return index;
+    }
 
-        return faces;
+    /**
+     * helper method - adds a vertex in the direction of a point, on the surface of the sphere
+     * @param builder - the builder to add the vertex to
+     * @param x - the x position of the point
+     * @param y - the y position of the point
+     * @param z - the z position of the point
+     * @param radius - the radius of the sphere
+     * @return - the index of the new vertex
+     */
+    private static int addOnSphere(MeshBuilder builder, float x, float y, float z, float radius) {
+        float length = (float) Math.sqrt(x * x + y * y + z * z);
+        x /= length;
+        y /= length;
+        z /= length;
+        return builder.vertex(x * radius, y * radius, z * radius, x, y, z);
     }
 
     /**
@@ -181,4 +255,40 @@ public class Sphere extends RenderObject {
     public void moveTo(Vector3f position) {
         this.setPosition(position);
     }
+
+    /**
+     * getter method - the box is built straight from the center and radius, without transforming the mesh's box
+     * @return - the box bounding this sphere in world coordinates
+     */
+    @Override
+    public AABB getBounds() {
+        Vector3f c = getPosition();
+        float r = getBoundingRadius();
+        bounds.setValues(c.getX() - r, c.getX() + r, c.getY() - r, c.getY() + r, c.getZ() - r, c.getZ() + r);
+        return bounds;
+    }
+
+    /**
+     * getter method - a sphere is its own bounding sphere
+     * @return - the center of the sphere
+     */
+    @Override
+    public Vector3f getBoundingCenter() {
+        return getPosition();
+    }
+
+    /**
+     * getter method - a sphere is its own bounding sphere
+     * @return - the radius of the sphere
+     */
+    @Override
+    public float getBoundingRadius() {
+        return getMesh().getBounds().getXMax() * getScale().getX();
+    }
+
+    /**
+     * releases the sphere - the mesh is shared and owned by the mesh registry, so it is not destroyed here
+     */
+    @Override
+    public void destroy() {}
 }
\ No newline at end of file
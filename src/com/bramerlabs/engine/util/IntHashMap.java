@@ -0,0 +1,208 @@
+package com.bramerlabs.engine.util;
+
+import java.util.Arrays;
+
+public class IntHashMap<V> {
+
+    // the table is grown once it is more than this full
+    private static final float MAX_LOAD = 0.5f;
+
+    // the keys and values, side by side - a slot is empty when its value is null
+    // colliding keys go in the next empty slot along, wrapping around at the end
+    private int[] keys;
+    private Object[] values;
+
+    // the number of keys in the table, and the number of slots minus one
+    private int size = 0;
+    private int mask;
+
+    /**
+     * default constructor
+     */
+    public IntHashMap() {
+        this(16);
+    }
+
+    /**
+     * constructor for a specified starting capacity
+     * @param capacity - the number of keys there is room for before the table grows
+     */
+    public IntHashMap(int capacity) {
+        int slots = Integer.highestOneBit(Math.max((int) (capacity / MAX_LOAD), 2) - 1) << 1;
+        keys = new int[slots];
+        values = new Object[slots];
+        mask = slots - 1;
+    }
+
+    /**
+     * helper method - spreads the bits of a key, since IDs are usually consecutive
+     * @param key - the key
+     * @return - the first slot to look in
+     */
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * maps a key to a value
+     * @param key - the key
+     * @param value - the value, which cannot be null
+     * @return - the value the key was mapped to before, or null if it was not in the table
+     */
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntHashMap cannot hold a null value");
+        }
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                V old = valueAt(i);
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > values.length * MAX_LOAD) {
+            grow();
+        }
+        return null;
+    }
+
+    /**
+     * helper method - doubles the number of slots and puts every key back in
+     */
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = slot(oldKeys[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * gets the value of a key
+     * @param key - the key
+     * @return - the value, or null if the key is not in the table
+     */
+    public V get(int key) {
+        int i = find(key);
+        return i < 0 ? null : valueAt(i);
+    }
+
+    /**
+     * determines if a key is in the table
+     * @param key - the key
+     * @return - true if the key is mapped to a value
+     */
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * removes a key
+     * @param key - the key
+     * @return - the value the key was mapped to, or null if it was not in the table
+     */
+    public V remove(int key) {
+        int i = find(key);
+        if (i < 0) {
+            return null;
+        }
+        V old = valueAt(i);
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * removes a key only if it is mapped to a certain value
+     * @param key - the key
+     * @param value - the value
+     * @return - true if the key was removed
+     */
+    public boolean remove(int key, V value) {
+        int i = find(key);
+        if (i < 0 || values[i] != value) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    /**
+     * empties the table, keeping its slots
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * helper method - finds the slot holding a key
+     * @param key - the key
+     * @return - the slot, or -1 if the key is not in the table
+     */
+    private int find(int key) {
+        int i = slot(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * helper method - empties a slot, moving back any keys after it that could no longer be found past the gap
+     * @param gap - the slot
+     */
+    private void removeAt(int gap) {
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            // the key can fill the gap if the gap is between its first slot and where it is now
+            int home = slot(keys[i]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+        size--;
+    }
+
+    /**
+     * helper method - gets the value in a slot
+     * @param i - the slot
+     * @return - the value
+     */
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) values[i];
+    }
+
+    /**
+     * getter method
+     * @return - the number of keys in the table
+     */
+    public int size() {
+        return this.size;
+    }
+}
@@ -3,6 +3,7 @@ package com.bramerlabs.molecular.file_io;
 import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.molecular.molecule.Molecule;
 import com.bramerlabs.molecular.molecule.atom.Atom;
+import com.bramerlabs.molecular.molecule.atom.AtomStore;
 import com.bramerlabs.molecular.molecule.bond.Bond;
 import org.jetbrains.annotations.NotNull;
 
@@ -74,9 +75,23 @@ public class MoleculeIO {
             float moleculeZ = molecule.getPosition().getZ();
             writer.write("pos " + moleculeX + " " + moleculeY + " " + moleculeZ + "\n");
 
-            // write the atoms
-            for (Atom a : molecule.getAtoms()) {
-                writer.write(a.toString() + "\n");
+            // write the atoms, streamed from the packed store in the same format as Atom.toString
+            AtomStore store = molecule.getAtomStore();
+            float[] x = store.getX(), y = store.getY(), z = store.getZ();
+            byte[] atomicNumbers = store.getAtomicNumbers(), charges = store.getCharges();
+            short[] numNeutrons = store.getNumNeutrons();
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < store.getSize(); i++) {
+                line.setLength(0);
+                line.append("atom ").append(store.getAtom(i).getID())
+                        .append(' ').append(atomicNumbers[i])
+                        .append(' ').append(charges[i])
+                        .append(' ').append(numNeutrons[i])
+                        .append(' ').append(x[i])
+                        .append(' ').append(y[i])
+                        .append(' ').append(z[i])
+                        .append('\n');
+                writer.write(line.toString());
             }
 
             // write the bonds
@@ -1,13 +1,21 @@
 package com.bramerlabs.molecular.main;
 
 import com.bramerlabs.engine.graphics.Camera;
-import com.bramerlabs.engine.graphics.Renderer;
+import com.bramerlabs.engine.graphics.FrameUniforms;
+import com.bramerlabs.engine.graphics.GLResources;
+import com.bramerlabs.engine.graphics.ImpostorRenderer;
+import com.bramerlabs.engine.graphics.InstancedRenderer;
+import com.bramerlabs.engine.graphics.LabelRenderer;
+import com.bramerlabs.engine.graphics.LevelOfDetail;
+import com.bramerlabs.engine.graphics.MeshLoader;
+import com.bramerlabs.engine.graphics.RenderStats;
 import com.bramerlabs.engine.graphics.Shader;
 import com.bramerlabs.engine.io.gui.Gui;
 import com.bramerlabs.engine.io.gui.gui_object.buttons.Button;
 import com.bramerlabs.engine.io.gui.gui_object.buttons.*;
 import com.bramerlabs.engine.io.gui.gui_render.GuiRenderer;
-import com.bramerlabs.engine.io.picking.CPRenderer;
+import com.bramerlabs.engine.io.picking.PickBuffer;
+import com.bramerlabs.engine.io.picking.PickService;
 import com.bramerlabs.engine.io.screenshots.ScreenshotTaker;
 import com.bramerlabs.engine.io.text.font_mesh_creator.FontType;
 import com.bramerlabs.engine.io.text.font_mesh_creator.GUIText;
@@ -17,24 +25,28 @@ import com.bramerlabs.engine.io.window.Input;
 import com.bramerlabs.engine.io.window.Window;
 import com.bramerlabs.engine.math.Vector2f;
 import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.math.collision.Frustum;
+import com.bramerlabs.engine.math.collision.Ray;
 import com.bramerlabs.engine.objects.shapes.Cylinder;
+import com.bramerlabs.engine.objects.shapes.MeshRegistry;
+import com.bramerlabs.engine.objects.shapes.Sphere;
 import com.bramerlabs.molecular.data_compilers.AtomicDataCompiler;
 import com.bramerlabs.molecular.file_io.MoleculeIO;
+import com.bramerlabs.molecular.molecule.AtomLabels;
 import com.bramerlabs.molecular.molecule.Molecule;
+import com.bramerlabs.molecular.molecule.RegionSelector;
 import com.bramerlabs.molecular.molecule.atom.Atom;
 import com.bramerlabs.molecular.molecule.bond.Bond;
 import com.bramerlabs.molecular.molecule.default_molecules.Benzaldehyde;
 import org.lwjgl.glfw.GLFW;
-import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL46;
-import org.lwjglx.BufferUtils;
 
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.io.File;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class Main implements Runnable {
 
@@ -51,7 +63,17 @@ public class Main implements Runnable {
     // main rendering variables
     private Window window; // the main window of the game
     private Shader shader; // the shaders used to paint textures
-    private Renderer renderer; // used to render objects
+    private Frustum frustum = new Frustum(); // the view frustum of the camera, used to skip objects that are off screen
+    private FrameUniforms frameUniforms = new FrameUniforms(); // the camera and lighting state shared by every shader
+    private Shader atomShader; // the shaders used to paint instanced atoms
+    private InstancedRenderer atomRenderer; // used to render every atom of a molecule in one draw call
+    private Shader bondShader; // the shaders used to paint instanced bonds
+    private InstancedRenderer bondRenderer; // used to render every bond of a molecule in one draw call
+    private Shader sphereImpostorShader, cylinderImpostorShader; // the shaders used to ray cast atoms and bonds
+    private ImpostorRenderer impostorRenderer; // used to render atoms and bonds as ray cast impostors
+    private Shader labelShader; // the shaders used to paint atom labels
+    private LabelRenderer labelRenderer; // used to render every atom label in one draw call
+    private RenderStats renderStats = new RenderStats(); // the draw calls and state changes of the current frame
     private static int time = 0; // the time of the window
     private boolean shouldRenderGUI = true;
 
@@ -64,9 +86,14 @@ public class Main implements Runnable {
     private Input input = new Input(); // used to handle inputs
     private boolean lastFrameRightButtonDown = false; // if the right button was down in the previous frame
     private boolean lastFrameLeftButtonDown = false; // if the left button was down in the previous frame
-    private boolean displayUsingCPRenderer = true; // how the molecule should be displayed - used for testing
-    private CPRenderer cpRenderer; // used for color picking
-    private Shader cpShader;
+    private boolean displayUsingImpostors = false; // if atoms and bonds should be ray cast instead of drawn as meshes
+    private boolean lastFrameImpostorKeyDown = false; // if the impostor toggle key was down in the previous frame
+    private boolean lastFrameReportKeyDown = false; // if the resource report key was down in the previous frame
+    private boolean lastFrameLabelKeyDown = false; // if the label mode key was down in the previous frame
+    private PickBuffer pickBuffer; // the scene is drawn into it, along with the ID of what is drawn at every pixel
+    private PickService pickService; // reads the ID under the mouse a frame or two later, without stalling
+    private Atom hoveredAtom; // the atom under the mouse
+    private Bond hoveredBond; // the bond under the mouse
     private int pressedButtonID = 0;
     private boolean buttonTemp = false;
     private boolean buttonStaysPressed = false;
@@ -74,7 +101,8 @@ public class Main implements Runnable {
     // selected atoms
     private int numMaxSelectedItems = 1;
     boolean canSelectAtoms = true;
-    private ArrayList<Atom> selectedAtoms = new ArrayList<>();
+    private ArrayList<Atom> selectedAtoms = new ArrayList<>(); // the atoms selected by clicking, newest first
+    private RegionSelector regionSelector = new RegionSelector(); // the rectangle or lasso being dragged
     private ArrayList<Bond> selectedBonds = new ArrayList<>();
 
     // camera variables
@@ -84,6 +112,9 @@ public class Main implements Runnable {
 
     // the molecules
     private ArrayList<Molecule> molecules;
+    private ConcurrentLinkedQueue<Molecule> loadedMolecules = new ConcurrentLinkedQueue<>(); // molecules loaded on a worker thread, waiting to replace the current ones
+    private ConcurrentLinkedQueue<String> loadErrors = new ConcurrentLinkedQueue<>(); // why a file failed to load on a worker thread, waiting to be shown
+    private static final long MESH_UPLOAD_BUDGET = 2_000_000; // the time each frame may spend creating meshes, in nanoseconds
 
     // the file used for loading the molecule
     private static String pathToLoadFile;
@@ -93,6 +124,9 @@ public class Main implements Runnable {
     FontType font;
     String renderText = "";
     GUIText displayGUIText;
+    GUIText hoverGUIText; // the tooltip next to the mouse
+    AtomLabels atomLabels; // the labels drawn over the atoms
+    private static final float LABEL_HEIGHT = 18; // the height of the atom labels on screen, in pixels
 
     /**
      * main method
@@ -125,6 +159,9 @@ public class Main implements Runnable {
         window = new Window(input);
         window.create();
 
+        // start generating the shared meshes in the background
+        MeshRegistry.preload();
+
         // set the camera's arcball orbit focus
         camera.setLookingAt(LOOKING_AT);
 //        camera.setIdealPosition();
@@ -138,40 +175,75 @@ public class Main implements Runnable {
 
         // create the renderer
         shader = new Shader("/shaders/mainVertex.glsl", "/shaders/mainFragment.glsl");
-        renderer = new Renderer(window, shader);
-
-        // create the color picker renderer
-        cpShader = new Shader("/shaders/colorPickerVertex.glsl", "/shaders/colorPickerFragment.glsl");
-        cpRenderer = new CPRenderer(window, cpShader);
+        atomShader = new Shader("/shaders/instancedVertex.glsl", "/shaders/mainFragment.glsl");
+        atomRenderer = new InstancedRenderer(atomShader, renderStats);
+        bondShader = new Shader("/shaders/bondVertex.glsl", "/shaders/mainFragment.glsl");
+        bondRenderer = new InstancedRenderer(bondShader, renderStats);
+        sphereImpostorShader = new Shader("/shaders/sphereImpostorVertex.glsl", "/shaders/sphereImpostorFragment.glsl");
+        cylinderImpostorShader = new Shader("/shaders/cylinderImpostorVertex.glsl", "/shaders/cylinderImpostorFragment.glsl");
+        impostorRenderer = new ImpostorRenderer(sphereImpostorShader, cylinderImpostorShader, renderStats);
+        labelShader = new Shader("/shaders/labelVertex.glsl", "/shaders/labelFragment.glsl");
+        labelRenderer = new LabelRenderer(labelShader);
+
+        // the scene is multisampled in the pick buffer rather than in the window
+        pickBuffer = new PickBuffer(4);
+        pickService = new PickService(pickBuffer);
 
         // initialize the text
         Loader loader = new Loader();
         TextMaster.init(loader);
         font = new FontType(loader.loadTexture("arial"), new File("resources/fonts/arial.fnt"));
         displayGUIText = new GUIText(renderText, 1f, font, new Vector2f(0, 0.02f), 1f, true);
+        atomLabels = new AtomLabels(font, LABEL_HEIGHT);
+        hoverGUIText = new GUIText("", 0.8f, font, new Vector2f(0, 0), 0.3f, false);
 
         // initialize the shader
+        frameUniforms.create();
         shader.create();
-        cpShader.create();
+        atomShader.create();
+        bondShader.create();
+        sphereImpostorShader.create();
+        cylinderImpostorShader.create();
+        labelShader.create();
+        pickService.create();
     }
 
     /**
      * releases the objects
      */
     private void close() {
-        // release the window
-        window.destroy();
-
         // release the game objects
         for (Molecule molecule : molecules) {
             molecule.destroy();
         }
+        atomLabels.destroy();
+        MeshLoader.shutdown();
+        MeshRegistry.destroy();
+
+        // release the GUI
+        for (Button button : gui.getButtons()) {
+            button.destroy();
+        }
+        guiShader.destroy();
 
         // release the shaders
         shader.destroy();
-        cpShader.destroy();
+        atomShader.destroy();
+        bondShader.destroy();
+        sphereImpostorShader.destroy();
+        cylinderImpostorShader.destroy();
+        labelShader.destroy();
+        pickService.destroy();
+        pickBuffer.destroy();
+        frameUniforms.destroy();
 
         TextMaster.cleanUp();
+
+        // anything still live was leaked - it is reported and deleted while the OpenGL context still exists
+        GLResources.releaseAll();
+
+        // release the window
+        window.destroy();
     }
 
     /**
@@ -221,15 +293,35 @@ public class Main implements Runnable {
         // update the window
         window.update();
 
+        // create the meshes that finished generating, and show the molecule that finished loading
+        MeshLoader.upload(MESH_UPLOAD_BUDGET);
+        Molecule loaded = loadedMolecules.poll();
+        if (loaded != null) {
+            clearSelection();
+            for (Molecule molecule : molecules) {
+                molecule.destroy();
+            }
+            molecules.clear();
+            molecules.add(loaded);
+        }
+        String loadError = loadErrors.poll();
+        if (loadError != null) {
+            renderText = loadError;
+        }
+
         // update the molecule occasionally
         for (Molecule m : molecules) {
             m.update(time);
+            m.getInstances().update();
         }
 
         // clear the screen
         GL46.glClearColor(Window.bgc.getX(), Window.bgc.getY(), Window.bgc.getZ(), 1);
         GL46.glClear(GL46.GL_COLOR_BUFFER_BIT | GL46.GL_DEPTH_BUFFER_BIT);
 
+        // highlight what is under the mouse, from a pick requested a frame or two ago
+        updateHover();
+
         // handle inputs and button presses
         boolean shouldSwapBuffers = handleInputs();
         if (!getPressedButtons()) {
@@ -255,16 +347,44 @@ public class Main implements Runnable {
     private boolean handleInputs() {
 
         // update the mouse picker
+        // a right click selects one atom, a right drag selects a rectangle, and a right drag with control held selects a lasso
         boolean shouldSwapBuffers = true;
         boolean currentFrameRightButtonDown = input.isMouseButtonDown(GLFW.GLFW_MOUSE_BUTTON_RIGHT);
-        if (lastFrameRightButtonDown && !currentFrameRightButtonDown) {
-            getSelectedAtom();
-            shouldSwapBuffers = false;
+        float mouseX = (float) input.getMouseX(), mouseY = window.getHeight() - (float) input.getMouseY();
+        if (currentFrameRightButtonDown && !lastFrameRightButtonDown) {
+            regionSelector.begin(mouseX, mouseY, input.isKeyDown(GLFW.GLFW_KEY_LEFT_CONTROL));
+        } else if (currentFrameRightButtonDown) {
+            regionSelector.drag(mouseX, mouseY);
+        } else if (lastFrameRightButtonDown) {
+            if (regionSelector.isDragged()) {
+                selectRegion();
+            } else {
+                regionSelector.cancel();
+                getSelectedAtom();
+            }
         }
         lastFrameRightButtonDown = currentFrameRightButtonDown;
 
-        // check to see how the molecule should be rendered
-        displayUsingCPRenderer = input.isKeyDown(GLFW.GLFW_KEY_C);
+        // toggle between mesh and impostor rendering
+        boolean currentFrameImpostorKeyDown = input.isKeyDown(GLFW.GLFW_KEY_I);
+        if (currentFrameImpostorKeyDown && !lastFrameImpostorKeyDown) {
+            displayUsingImpostors = !displayUsingImpostors;
+        }
+        lastFrameImpostorKeyDown = currentFrameImpostorKeyDown;
+
+        // cycle what the atom labels show - nothing, the element, the element and ID, or the element and charge
+        boolean currentFrameLabelKeyDown = input.isKeyDown(GLFW.GLFW_KEY_L);
+        if (currentFrameLabelKeyDown && !lastFrameLabelKeyDown) {
+            atomLabels.setMode(atomLabels.getMode().next());
+        }
+        lastFrameLabelKeyDown = currentFrameLabelKeyDown;
+
+        // print the live OpenGL resources and native memory
+        boolean currentFrameReportKeyDown = input.isKeyDown(GLFW.GLFW_KEY_F3);
+        if (currentFrameReportKeyDown && !lastFrameReportKeyDown) {
+            System.out.print(GLResources.getReport(input.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT)));
+        }
+        lastFrameReportKeyDown = currentFrameReportKeyDown;
 
         // camera motion
         // translation of the camera
@@ -277,57 +397,114 @@ public class Main implements Runnable {
     }
 
     /**
-     * retrieves a selected atom on the molecule via raycasting
+     * highlights the atom or bond under the mouse and shows a tooltip next to it, from the newest finished pick
      */
-    private void getSelectedAtom() {
-        // render the game objects
+    private void updateHover() {
+        int pickID = pickService.poll();
+        Atom atom = null;
+        Bond bond = null;
         for (Molecule molecule : molecules) {
-            for (Bond bond : molecule.getBonds()) {
-                for (Cylinder cylinder : bond.getCylinders()) {
-                    cpRenderer.renderMesh(cylinder, camera);
-                }
-            }
-            for (Atom atom : molecule.getAtoms()) {
-                cpRenderer.renderMesh(atom.getSphere(), camera);
-            }
+            if (atom == null) atom = molecule.getPickedAtom(pickID);
+            if (bond == null) bond = molecule.getPickedBond(pickID);
         }
 
-        GL11.glFlush();
-        GL11.glFinish();
-        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
-        float x = (float) input.getMouseX();
+        if (atom != hoveredAtom) {
+            if (hoveredAtom != null) hoveredAtom.setHovered(false);
+            if (atom != null) atom.setHovered(true);
+            hoveredAtom = atom;
+        }
+        if (bond != hoveredBond) {
+            if (hoveredBond != null) hoveredBond.setHovered(false);
+            if (bond != null) bond.setHovered(true);
+            hoveredBond = bond;
+        }
+
+        // the text only changes when what is under the mouse does, but it follows the mouse every frame
+        String tooltip = "";
+        if (atom != null) {
+            tooltip = atom.getAtomicAbbrName() + " " + atom.getID() + ", charge: " + atom.getCharge();
+        } else if (bond != null) {
+            tooltip = "Bond " + bond.getID() + ", order: " + bond.getBondOrder();
+        }
+        hoverGUIText.setTextString(tooltip);
+        hoverGUIText.loadText();
+        hoverGUIText.setPosition((float) input.getMouseX() / window.getWidth() + 0.01f,
+                (float) input.getMouseY() / window.getHeight() + 0.02f);
+    }
+
+    /**
+     * selects the atom under the mouse, by casting a ray through the bounding volume hierarchy of every molecule
+     */
+    private void getSelectedAtom() {
+        Ray ray = Ray.fromScreen((float) input.getMouseX(), (float) input.getMouseY(), window.getWidth(), window.getHeight(),
+                frameUniforms.getView(), window.getProjectionMatrix());
 
-        float height = window.getHeight();
-        float y = (float) input.getMouseY();
-        y = height - y;
-        ByteBuffer data = BufferUtils.createByteBuffer(3);
-        GL11.glReadPixels((int)x, (int)y, 1, 1, GL11.GL_RGB, GL11.GL_UNSIGNED_BYTE, data);
+        // the nearest hit over every molecule
+        int pickID = 0;
+        Molecule pickedMolecule = null;
+        float distance = Float.POSITIVE_INFINITY;
+        for (Molecule molecule : molecules) {
+            int hit = molecule.getBVH().raycast(ray, distance);
+            if (hit != 0) {
+                pickID = hit;
+                pickedMolecule = molecule;
+                distance = molecule.getBVH().getHitDistance();
+            }
+        }
 
         // select an atom or bond
         boolean selectedMolecule = false;
-        for (Molecule molecule : molecules) {
-            for (Atom a : molecule.getAtoms()) {
-                if (a.getSphere().getID() == data.get(0)) {
-                    if (!selectedAtoms.contains(a)) {
-                        selectedAtoms.add(0, a);
-                        renderText = "Atom: " + a.getAtomicAbbrName() + ", charge: " + a.getCharge();
-                    }
-                    while (selectedAtoms.size() > numMaxSelectedItems) {
-                        selectedAtoms.remove(selectedAtoms.size() - 1);
-                    }
-                    selectedMolecule = true;
-                    break;
+        if (pickedMolecule != null) {
+            Atom a = pickedMolecule.getPickedAtom(pickID);
+            if (a != null) {
+                if (!a.isSelected()) {
+                    selectedAtoms.add(0, a);
+                    pickedMolecule.getSelection().set(a, true);
+                    renderText = "Atom: " + a.getAtomicAbbrName() + ", charge: " + a.getCharge();
+                }
+                while (selectedAtoms.size() > numMaxSelectedItems) {
+                    setAtomSelected(selectedAtoms.remove(selectedAtoms.size() - 1), false);
                 }
+                selectedMolecule = true;
             }
         }
 
         if (!selectedMolecule) {
             setDefaults();
-            selectedAtoms.clear(); // empty the array list
+            clearSelection();
             renderText = "";
         }
     }
 
+    /**
+     * selects the atoms inside the dragged rectangle or lasso, adding to the selection if shift is held
+     */
+    private void selectRegion() {
+        if (!input.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT)) {
+            setDefaults();
+            clearSelection();
+        }
+        regionSelector.select(molecules, frameUniforms.getView(), window.getProjectionMatrix(), window.getWidth(), window.getHeight());
+        int count = 0;
+        for (Molecule molecule : molecules) {
+            count += molecule.getSelection().getCount();
+        }
+        renderText = count == 0 ? "" : "Selected atoms: " + count;
+    }
+
+    /**
+     * selects or deselects an atom in whichever molecule it belongs to
+     * @param atom - the atom
+     * @param selected - true to select the atom
+     */
+    private void setAtomSelected(Atom atom, boolean selected) {
+        for (Molecule molecule : molecules) {
+            if (molecule.getSelection().set(atom, selected)) {
+                return;
+            }
+        }
+    }
+
     /**
      * retrieves a selected button
      */
@@ -390,7 +567,7 @@ public class Main implements Runnable {
         if (pressedButtonID == Button.BUTTON_PROTRACTOR) {
             if (!buttonTemp) {
                 buttonTemp = true;
-                selectedAtoms.clear();
+                clearSelection();
                 numMaxSelectedItems = 3; // set the max number of selected atoms
             }
             if (selectedAtoms.size() == 3) {
@@ -428,34 +605,43 @@ public class Main implements Runnable {
      * renders the molecule
      */
     private void renderMolecule() {
+        // the scale used to find the size of objects on screen, which picks their level of detail
+        float pixelScale = LevelOfDetail.getPixelScale(window.getProjectionMatrix(), window.getHeight());
+
         // render the molecules
         for (Molecule molecule : molecules) {
-            for (Bond bond : molecule.getBonds()) {
-                for (Cylinder cylinder : bond.getCylinders()) {
-                    if (displayUsingCPRenderer) {
-                        cpRenderer.renderMesh(cylinder, camera);
-                    } else {
-                        renderer.renderMesh(cylinder, camera, lightPosition, false);
-                    }
+            molecule.getInstances().cull(frustum, camera.getPosition(), pixelScale);
+            if (displayUsingImpostors) {
+                // impostors are exact at any size, so every level of detail is drawn the same way
+                for (int level = 0; level < Cylinder.LOD.getLevelCount(); level++) {
+                    impostorRenderer.renderCylinders(molecule.getInstances().getVisibleBonds(level));
                 }
-            }
-            for (Atom atom : molecule.getAtoms()) {
-                if (displayUsingCPRenderer) {
-                    cpRenderer.renderMesh(atom.getSphere(), camera);
-                } else {
-                    renderer.renderMesh(atom.getSphere(), camera, lightPosition, false);
+                for (int level = 0; level < Sphere.LOD.getLevelCount(); level++) {
+                    impostorRenderer.renderSpheres(molecule.getInstances().getVisibleAtoms(level));
+                }
+            } else {
+                for (int level = 0; level < Cylinder.LOD.getLevelCount(); level++) {
+                    bondRenderer.renderInstances(MeshRegistry.getCylinder(Cylinder.LOD_SMOOTHNESS[level]), molecule.getInstances().getVisibleBonds(level));
+                }
+                for (int level = 0; level < Sphere.LOD.getLevelCount(); level++) {
+                    atomRenderer.renderInstances(MeshRegistry.getSphere(level), molecule.getInstances().getVisibleAtoms(level));
                 }
             }
         }
 
-        for (Atom atom : selectedAtoms) {
-            renderer.renderMesh(atom.getSelectionSphere(), camera, lightPosition, true);
-        }
-        for (Bond bond : selectedBonds) {
-            for (Cylinder cylinder : bond.getSelectionCylinders()) {
-                renderer.renderMesh(cylinder, camera, lightPosition, true);
-            }
+    }
+
+    /**
+     * renders the atom labels over the molecules
+     */
+    private void renderLabels() {
+        if (atomLabels.getMode() == AtomLabels.Mode.NONE) {
+            return;
         }
+        atomLabels.update(molecules, frameUniforms.getView(), window.getProjectionMatrix(), camera.getPosition(),
+                window.getWidth(), window.getHeight());
+        labelRenderer.renderLabels(atomLabels.getGlyphs(), atomLabels.getFont().getTextureAtlas(),
+                window.getWidth(), window.getHeight());
     }
 
     /**
@@ -480,8 +666,18 @@ public class Main implements Runnable {
         chooser.requestFocus();
         int returnVal = chooser.showOpenDialog(null);
         if (returnVal == JFileChooser.APPROVE_OPTION) {
-            molecules.clear();
-            molecules.add(MoleculeIO.loadMolecule(chooser.getSelectedFile()));
+            // the file is read on a worker thread, so the window keeps drawing while it loads
+            File file = chooser.getSelectedFile();
+            // a file that cannot be read is reported on the screen rather than lost in the future of the task
+            MeshLoader.submit(() -> {
+                try {
+                    loadedMolecules.add(MoleculeIO.loadMolecule(file));
+                } catch (RuntimeException e) {
+                    e.printStackTrace();
+                    loadErrors.add("Could not load " + file.getName() + ": " + e);
+                }
+                return null;
+            });
         }
     }
 
@@ -489,7 +685,25 @@ public class Main implements Runnable {
      * render the game objects
      */
     private void render(boolean shouldSwapBuffers) {
-        renderMolecule();
+        // the draw and state change counters are per frame
+        renderStats.reset();
+
+        // write the camera and lighting state once for the whole frame
+        frameUniforms.update(camera, window, lightPosition);
+        frustum.update(frameUniforms.getView(), window.getProjectionMatrix());
+
+        // a minimized window has no pixels, so the scene is skipped and the pick buffer keeps its attachments
+        if (window.getWidth() > 0 && window.getHeight() > 0) {
+            // the scene writes its color and the ID of what is drawn, which is read back when picking
+            pickBuffer.begin(window.getWidth(), window.getHeight(), Window.bgc.getX(), Window.bgc.getY(), Window.bgc.getZ());
+            renderMolecule();
+            renderLabels();
+            pickBuffer.end();
+
+            // the ID under the mouse is read back a frame or two later, once the GPU has drawn this frame
+            // the mouse is measured down from the top edge and rows are counted up from the bottom, so the top row is height - 1
+            pickService.request((int) input.getMouseX(), window.getHeight() - 1 - (int) input.getMouseY());
+        }
 
         if (shouldRenderGUI) {
 
@@ -524,8 +738,22 @@ public class Main implements Runnable {
         numMaxSelectedItems = 1;
     }
 
+    /**
+     * deselects every selected atom and bond
+     */
+    private void clearSelection() {
+        for (Molecule molecule : molecules) {
+            molecule.getSelection().clear();
+        }
+        for (Bond bond : selectedBonds) {
+            bond.setSelected(false);
+        }
+        selectedAtoms.clear();
+        selectedBonds.clear();
+    }
+
     private void pinkMode() {
-        renderer.setLightColor(Vector3f.divide(new Vector3f(Color.PINK), new Vector3f(255)));
+        frameUniforms.setLightColor(Vector3f.divide(new Vector3f(Color.PINK), new Vector3f(255)));
     }
 
     /**
@@ -568,6 +796,14 @@ public class Main implements Runnable {
             green = 0.0f;
             blue = rgbLights[360-alpha]/255.f;
         }
-        renderer.setLightColor(new Vector3f(red, green, blue));
+        frameUniforms.setLightColor(new Vector3f(red, green, blue));
+    }
+
+    /**
+     * getter method
+     * @return - the draw calls and state changes of the frame being rendered, or of the last frame once it is done
+     */
+    public RenderStats getRenderStats() {
+        return this.renderStats;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,396 @@
+package com.bramerlabs.molecular.molecule;
+
+import com.bramerlabs.engine.graphics.InstanceBuffer;
+import com.bramerlabs.engine.io.text.font_mesh_creator.Character;
+import com.bramerlabs.engine.io.text.font_mesh_creator.FontType;
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.molecular.molecule.atom.Atom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+public class AtomLabels {
+
+    /**
+     * what the label of each atom shows
+     */
+    public enum Mode {
+        NONE, ELEMENT, ID, CHARGE;
+
+        /**
+         * getter method
+         * @return - the mode after this one, wrapping around to NONE
+         */
+        public Mode next() {
+            return values()[(ordinal() + 1) % values().length];
+        }
+    }
+
+    // the number of floats in the layout of one glyph - rectangle in pixels (x, y, width, height), texture rectangle (u0, v0, u1, v1)
+    private static final int GLYPH_SIZE = 8;
+
+    // the font the labels are written in, and the height of a line of it on screen, in pixels
+    private FontType font;
+    private float pixelHeight;
+
+    // what the labels show
+    private Mode mode = Mode.NONE;
+
+    // one instance per glyph - anchor (vec3), rectangle in pixels around the anchor (vec4), texture rectangle (vec4), color (vec3), pick ID of the atom (uint)
+    private InstanceBuffer glyphs = new InstanceBuffer(3, 4, 4, 3, 1);
+
+    // scratch storage for the values of one glyph instance
+    private float[] glyphValues = new float[glyphs.getStride()];
+
+    // the glyph layout of every label text, centered on the anchor, shared by every atom with the same text
+    private HashMap<String, float[]> layouts = new HashMap<>();
+
+    // every labelled atom, the glyph layout of its label, and the width of its label in pixels
+    private ArrayList<Atom> atoms = new ArrayList<>();
+    private float[][] atomLayouts = new float[0][];
+    private float[] atomWidths = new float[0];
+
+    // the molecules, their structure versions, and the mode when the labels of the atoms were last laid out
+    private ArrayList<Molecule> layoutMolecules = new ArrayList<>();
+    private int[] layoutVersions = new int[0];
+    private Mode layoutMode = null;
+
+    // the atoms that are on screen this frame, as the bits of their distance from the camera followed by their index, so that sorting puts the nearest first
+    private long[] candidates = new long[0];
+
+    // the screen is split into cells the height of a label, and a cell holds at most one label, so that labels never overlap
+    private boolean[] occupied = new boolean[0];
+
+    /**
+     * default constructor
+     * @param font - the font to write the labels in
+     * @param pixelHeight - the height of a line of the labels on screen, in pixels
+     */
+    public AtomLabels(FontType font, float pixelHeight) {
+        this.font = font;
+        this.pixelHeight = pixelHeight;
+        glyphs.setIntegerAttribute(4);
+    }
+
+    /**
+     * lays out the labels of the atoms of the molecules that are on screen, nearest first, skipping every label that would overlap one nearer the camera
+     * must be called on the thread that owns the OpenGL context, once per frame
+     * @param molecules - the molecules
+     * @param view - the view matrix
+     * @param projection - the projection matrix
+     * @param cameraPosition - the position of the camera
+     * @param width - the width of the viewport, in pixels
+     * @param height - the height of the viewport, in pixels
+     */
+    public void update(ArrayList<Molecule> molecules, Matrix4f view, Matrix4f projection, Vector3f cameraPosition, int width, int height) {
+        if (mode == Mode.NONE) {
+            glyphs.setCount(0);
+            return;
+        }
+        if (needsLayout(molecules)) {
+            layoutAtoms(molecules);
+        }
+
+        // find the atoms in front of the camera whose label is at least partly on screen
+        // the product is projection * view
+        Matrix4f m = Matrix4f.multiply(view, projection);
+        float cx = cameraPosition.getX(), cy = cameraPosition.getY(), cz = cameraPosition.getZ();
+        if (candidates.length < atoms.size()) {
+            candidates = new long[atoms.size()];
+        }
+        int numCandidates = 0;
+        for (int i = 0; i < atoms.size(); i++) {
+            Atom atom = atoms.get(i);
+            float px = atom.getX(), py = atom.getY(), pz = atom.getZ();
+            float w = m.get(0, 3) * px + m.get(1, 3) * py + m.get(2, 3) * pz + m.get(3, 3);
+            if (w <= 0) {
+                continue;
+            }
+            float sx = screenX(m, px, py, pz, w, width), sy = screenY(m, px, py, pz, w, height);
+            float halfWidth = atomWidths[i] / 2, halfHeight = pixelHeight / 2;
+            if (sx + halfWidth < 0 || sx - halfWidth > width || sy + halfHeight < 0 || sy - halfHeight > height) {
+                continue;
+            }
+            float dx = px - cx, dy = py - cy, dz = pz - cz;
+            float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+            candidates[numCandidates++] = ((long) Float.floatToIntBits(distance) << 32) | i;
+        }
+        Arrays.sort(candidates, 0, numCandidates);
+
+        // place the labels nearest first, in the cells of the screen that are still free
+        int columns = (int) Math.ceil(width / pixelHeight) + 1, rows = (int) Math.ceil(height / pixelHeight) + 1;
+        if (occupied.length < columns * rows) {
+            occupied = new boolean[columns * rows];
+        }
+        Arrays.fill(occupied, 0, columns * rows, false);
+        int count = 0;
+        glyphs.setCount(0);
+        for (int c = 0; c < numCandidates; c++) {
+            int index = (int) candidates[c];
+            Atom atom = atoms.get(index);
+            float px = atom.getX(), py = atom.getY(), pz = atom.getZ();
+            float w = m.get(0, 3) * px + m.get(1, 3) * py + m.get(2, 3) * pz + m.get(3, 3);
+            float sx = screenX(m, px, py, pz, w, width), sy = screenY(m, px, py, pz, w, height);
+            if (!reserve(sx - atomWidths[index] / 2, sy - pixelHeight / 2, sx + atomWidths[index] / 2, sy + pixelHeight / 2, columns, rows)) {
+                continue;
+            }
+            count = putLabel(count, atom, atomLayouts[index], cx, cy, cz);
+        }
+        glyphs.upload();
+    }
+
+    /**
+     * helper method - finds the x position of a point on screen
+     * @param m - the product of the projection and view matrices
+     * @param px - the x position of the point
+     * @param py - the y position of the point
+     * @param pz - the z position of the point
+     * @param w - the w component of the point in clip space
+     * @param width - the width of the viewport, in pixels
+     * @return - the x position, in pixels from the left of the viewport
+     */
+    private static float screenX(Matrix4f m, float px, float py, float pz, float w, int width) {
+        float x = m.get(0, 0) * px + m.get(1, 0) * py + m.get(2, 0) * pz + m.get(3, 0);
+        return (x / w * 0.5f + 0.5f) * width;
+    }
+
+    /**
+     * helper method - finds the y position of a point on screen
+     * @param m - the product of the projection and view matrices
+     * @param px - the x position of the point
+     * @param py - the y position of the point
+     * @param pz - the z position of the point
+     * @param w - the w component of the point in clip space
+     * @param height - the height of the viewport, in pixels
+     * @return - the y position, in pixels from the bottom of the viewport
+     */
+    private static float screenY(Matrix4f m, float px, float py, float pz, float w, int height) {
+        float y = m.get(0, 1) * px + m.get(1, 1) * py + m.get(2, 1) * pz + m.get(3, 1);
+        return (y / w * 0.5f + 0.5f) * height;
+    }
+
+    /**
+     * helper method - marks the cells covered by a label as occupied, unless one of them already is
+     * @param x0 - the left of the label, in pixels
+     * @param y0 - the bottom of the label, in pixels
+     * @param x1 - the right of the label, in pixels
+     * @param y1 - the top of the label, in pixels
+     * @param columns - the number of columns of cells
+     * @param rows - the number of rows of cells
+     * @return - true if the label was placed
+     */
+    private boolean reserve(float x0, float y0, float x1, float y1, int columns, int rows) {
+        int c0 = Math.max(0, (int) (x0 / pixelHeight)), c1 = Math.min(columns - 1, (int) (x1 / pixelHeight));
+        int r0 = Math.max(0, (int) (y0 / pixelHeight)), r1 = Math.min(rows - 1, (int) (y1 / pixelHeight));
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (occupied[r * columns + c]) {
+                    return false;
+                }
+            }
+        }
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                occupied[r * columns + c] = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * helper method - writes the glyph instances of the label of an atom
+     * the label is anchored on the front of the atom, so that it is hidden by the atoms in front of it but not by its own
+     * @param count - the number of glyph instances written so far
+     * @param atom - the atom
+     * @param layout - the glyph layout of the label
+     * @param cx - the x position of the camera
+     * @param cy - the y position of the camera
+     * @param cz - the z position of the camera
+     * @return - the number of glyph instances written after this label
+     */
+    private int putLabel(int count, Atom atom, float[] layout, float cx, float cy, float cz) {
+        float px = atom.getX(), py = atom.getY(), pz = atom.getZ();
+        float dx = cx - px, dy = cy - py, dz = cz - pz;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy + dz * dz);
+        float pull = Math.min(atom.getRadius() * 1.05f, distance * 0.5f) / Math.max(distance, 0.0001f);
+
+        // dark text on light atoms and light text on dark atoms
+        Vector3f color = atom.getColor();
+        float luminance = 0.299f * color.getX() + 0.587f * color.getY() + 0.114f * color.getZ();
+        float shade = luminance > 0.5f ? 0.0f : 1.0f;
+
+        int numGlyphs = layout.length / GLYPH_SIZE;
+        glyphs.setCount(count + numGlyphs);
+        for (int g = 0; g < numGlyphs; g++) {
+            glyphValues[0] = px + dx * pull;
+            glyphValues[1] = py + dy * pull;
+            glyphValues[2] = pz + dz * pull;
+            System.arraycopy(layout, g * GLYPH_SIZE, glyphValues, 3, GLYPH_SIZE);
+            glyphValues[11] = shade;
+            glyphValues[12] = shade;
+            glyphValues[13] = shade;
+            glyphValues[14] = InstanceBuffer.packInt(Molecule.getPickID(atom));
+            glyphs.put(count + g, glyphValues);
+        }
+        return count + numGlyphs;
+    }
+
+    /**
+     * helper method - checks if atoms were added or removed, or the molecules or the mode changed, since the labels were last laid out
+     * @param molecules - the molecules
+     * @return - true if the labels have to be laid out again
+     */
+    private boolean needsLayout(ArrayList<Molecule> molecules) {
+        if (layoutMode != mode || layoutMolecules.size() != molecules.size()) {
+            return true;
+        }
+        for (int i = 0; i < molecules.size(); i++) {
+            if (layoutMolecules.get(i) != molecules.get(i) || layoutVersions[i] != molecules.get(i).getStructureVersion()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * helper method - finds the glyph layout of the label of every atom
+     * @param molecules - the molecules
+     */
+    private void layoutAtoms(ArrayList<Molecule> molecules) {
+        atoms.clear();
+        layoutMolecules.clear();
+        layoutVersions = new int[molecules.size()];
+        for (int i = 0; i < molecules.size(); i++) {
+            atoms.addAll(molecules.get(i).getAtoms());
+            layoutMolecules.add(molecules.get(i));
+            layoutVersions[i] = molecules.get(i).getStructureVersion();
+        }
+        layoutMode = mode;
+
+        atomLayouts = new float[atoms.size()][];
+        atomWidths = new float[atoms.size()];
+        for (int i = 0; i < atoms.size(); i++) {
+            String text = getText(atoms.get(i));
+            float[] layout = layouts.computeIfAbsent(text, this::layoutText);
+            atomLayouts[i] = layout;
+            atomWidths[i] = labelWidth(layout);
+        }
+    }
+
+    /**
+     * helper method - makes the text of the label of an atom
+     * @param atom - the atom
+     * @return - the text
+     */
+    private String getText(Atom atom) {
+        switch (mode) {
+            case ID:
+                return atom.getAtomicAbbrName() + atom.getID();
+            case CHARGE:
+                int charge = atom.getCharge();
+                if (charge == 0) {
+                    return atom.getAtomicAbbrName();
+                }
+                return atom.getAtomicAbbrName() + (Math.abs(charge) == 1 ? "" : Math.abs(charge)) + (charge > 0 ? "+" : "-");
+            default:
+                return atom.getAtomicAbbrName();
+        }
+    }
+
+    /**
+     * helper method - lays out the glyphs of a text in one line, centered on the origin
+     * characters missing from the font are skipped
+     * @param text - the text
+     * @return - the rectangle in pixels and the texture rectangle of every glyph, with y pointing up
+     */
+    private float[] layoutText(String text) {
+        // screen-space sizes of the font are converted to pixels, with horizontal sizes scaled back by the aspect ratio they were divided by
+        float scaleY = (float) (pixelHeight / font.getLineHeight());
+        float scaleX = (float) (scaleY * font.getAspectRatio());
+
+        float[] layout = new float[text.length() * GLYPH_SIZE];
+        int numGlyphs = 0;
+        float cursor = 0;
+        for (int i = 0; i < text.length(); i++) {
+            Character character = font.getCharacter(text.charAt(i));
+            if (character == null) {
+                cursor += (float) font.getSpaceWidth() * scaleX;
+                continue;
+            }
+            int g = numGlyphs * GLYPH_SIZE;
+            float glyphHeight = (float) character.getSizeY() * scaleY;
+            layout[g] = cursor + (float) character.getXOffset() * scaleX;
+            layout[g + 1] = -(float) character.getYOffset() * scaleY - glyphHeight;
+            layout[g + 2] = (float) character.getSizeX() * scaleX;
+            layout[g + 3] = glyphHeight;
+            layout[g + 4] = (float) character.getXTexCoord();
+            layout[g + 5] = (float) character.getYTexCoord();
+            layout[g + 6] = (float) character.getXMaxTexCoord();
+            layout[g + 7] = (float) character.getYMaxTexCoord();
+            cursor += (float) character.getXAdvance() * scaleX;
+            numGlyphs++;
+        }
+
+        // center the line on the origin, the top of the line being at y = 0 so far
+        for (int g = 0; g < numGlyphs * GLYPH_SIZE; g += GLYPH_SIZE) {
+            layout[g] -= cursor / 2;
+            layout[g + 1] += pixelHeight / 2;
+        }
+        return Arrays.copyOf(layout, numGlyphs * GLYPH_SIZE);
+    }
+
+    /**
+     * helper method - finds the width of a label
+     * @param layout - the glyph layout of the label
+     * @return - the width, in pixels
+     */
+    private static float labelWidth(float[] layout) {
+        float left = 0, right = 0;
+        for (int g = 0; g < layout.length; g += GLYPH_SIZE) {
+            left = Math.min(left, layout[g]);
+            right = Math.max(right, layout[g] + layout[g + 2]);
+        }
+        return right - left;
+    }
+
+    /**
+     * sets what the labels show
+     * @param mode - the mode
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * getter method
+     * @return - what the labels show
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * getter method
+     * @return - the glyph instances laid out by the last call to update
+     */
+    public InstanceBuffer getGlyphs() {
+        return this.glyphs;
+    }
+
+    /**
+     * getter method
+     * @return - the font the labels are written in
+     */
+    public FontType getFont() {
+        return this.font;
+    }
+
+    /**
+     * releases the glyph instance buffer
+     */
+    public void destroy() {
+        glyphs.destroy();
+    }
+}
@@ -0,0 +1,345 @@
+package com.bramerlabs.molecular.molecule;
+
+import com.bramerlabs.molecular.molecule.atom.Atom;
+import com.bramerlabs.molecular.molecule.atom.AtomStore;
+import com.bramerlabs.molecular.molecule.bond.Bond;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class BondGraph {
+
+    // how many bonds the overlay holds, as a fraction of the bonds in the packed rows, before the rows are packed again
+    private static final int MAX_EXTRA_FRACTION = 4;
+
+    // the overlay is never packed while it holds fewer bonds than this
+    private static final int MIN_EXTRA = 64;
+
+    // the molecule whose bonds are kept
+    private Molecule molecule;
+
+    // the number of atoms, which are indexed the same as the packed store of the molecule
+    private int numAtoms = 0;
+
+    // the packed rows - the bonds of atom i start at rowStart[i], and the first rowSize[i] slots of its row are in use
+    // a row has room to spare once bonds are removed from it, and the row of an atom added since the last packing has no room at all
+    private int[] rowStart = new int[1];
+    private int[] rowSize = new int[0];
+    private int[] neighbors = new int[0];
+    private Bond[] rowBonds = new Bond[0];
+
+    // the bonds that did not fit in the row of their atom since the rows were last packed
+    private int[][] extraNeighbors = new int[0][];
+    private Bond[][] extraBonds = new Bond[0][];
+    private int[] extraSize = new int[0];
+    private int numExtra = 0;
+
+    // the bonds that were left out because one of their atoms is not in the molecule, added once both of their atoms are
+    private ArrayList<Bond> pendingBonds = new ArrayList<>();
+
+    /**
+     * default constructor
+     * @param molecule - the molecule whose bonds are kept
+     */
+    public BondGraph(Molecule molecule) {
+        this.molecule = molecule;
+    }
+
+    /**
+     * packs the rows again from the atoms and bonds of the molecule, emptying the overlay
+     * bonds whose atoms are not in the molecule are left out
+     */
+    void build() {
+        AtomStore store = molecule.getAtomStore();
+        numAtoms = store.getSize();
+        int capacity = Math.max(numAtoms, 16);
+        rowStart = new int[capacity + 1];
+        rowSize = new int[capacity];
+        extraNeighbors = new int[capacity][];
+        extraBonds = new Bond[capacity][];
+        extraSize = new int[capacity];
+        numExtra = 0;
+        pendingBonds.clear();
+
+        // count the bonds of every atom
+        for (Bond b : molecule.getBonds()) {
+            if (!contains(b)) {
+                leaveOut(b);
+                continue;
+            }
+            rowSize[b.getA1().getIndex()]++;
+            rowSize[b.getA2().getIndex()]++;
+        }
+
+        // lay the rows out one after another, then fill them
+        for (int i = 0; i < numAtoms; i++) {
+            rowStart[i + 1] = rowStart[i] + rowSize[i];
+            rowSize[i] = 0;
+        }
+        neighbors = new int[rowStart[numAtoms]];
+        rowBonds = new Bond[rowStart[numAtoms]];
+        for (Bond b : molecule.getBonds()) {
+            if (contains(b)) {
+                int a1 = b.getA1().getIndex(), a2 = b.getA2().getIndex();
+                put(a1, a2, b);
+                put(a2, a1, b);
+            }
+        }
+    }
+
+    /**
+     * helper method - determines if both atoms of a bond are in the molecule
+     * @param b - the bond
+     * @return - true if the bond can be kept
+     */
+    private boolean contains(Bond b) {
+        AtomStore store = molecule.getAtomStore();
+        return b.getA1() != b.getA2() && b.getA1().getStore() == store && b.getA2().getStore() == store;
+    }
+
+    /**
+     * helper method - keeps a bond that cannot be added yet, unless it bonds an atom to itself and so can never be added
+     * @param b - the bond
+     */
+    private void leaveOut(Bond b) {
+        if (b.getA1() != b.getA2()) {
+            pendingBonds.add(b);
+        }
+    }
+
+    /**
+     * adds an empty row for the atom that was just added to the end of the packed store of the molecule
+     * then adds every bond that was left out earlier and that the new atom completes
+     */
+    void addAtom() {
+        if (numAtoms == rowSize.length) {
+            int capacity = rowSize.length * 2;
+            rowStart = Arrays.copyOf(rowStart, capacity + 1);
+            rowSize = Arrays.copyOf(rowSize, capacity);
+            extraNeighbors = Arrays.copyOf(extraNeighbors, capacity);
+            extraBonds = Arrays.copyOf(extraBonds, capacity);
+            extraSize = Arrays.copyOf(extraSize, capacity);
+        }
+        rowStart[numAtoms + 1] = rowStart[numAtoms];
+        rowSize[numAtoms] = 0;
+        extraSize[numAtoms] = 0;
+        numAtoms++;
+
+        // the bonds left out are checked from the last one back, so that each completed one can be replaced by the last
+        boolean completed = false;
+        for (int i = pendingBonds.size() - 1; i >= 0; i--) {
+            Bond b = pendingBonds.get(i);
+            if (contains(b)) {
+                pendingBonds.set(i, pendingBonds.get(pendingBonds.size() - 1));
+                pendingBonds.remove(pendingBonds.size() - 1);
+                int a1 = b.getA1().getIndex(), a2 = b.getA2().getIndex();
+                put(a1, a2, b);
+                put(a2, a1, b);
+                completed = true;
+            }
+        }
+        if (completed) {
+            packIfFull();
+        }
+    }
+
+    /**
+     * removes the row of an atom that has no bonds left, moving every atom after it down by one like the packed store does
+     * the slots of the row are given to the row before it
+     * @param index - the index the atom had
+     */
+    void removeAtom(int index) {
+        int tail = numAtoms - index - 1;
+        System.arraycopy(rowStart, index + 1, rowStart, index, tail + 1);
+        System.arraycopy(rowSize, index + 1, rowSize, index, tail);
+        System.arraycopy(extraNeighbors, index + 1, extraNeighbors, index, tail);
+        System.arraycopy(extraBonds, index + 1, extraBonds, index, tail);
+        System.arraycopy(extraSize, index + 1, extraSize, index, tail);
+        numAtoms--;
+        extraNeighbors[numAtoms] = null;
+        extraBonds[numAtoms] = null;
+        extraSize[numAtoms] = 0;
+
+        // the atoms after it moved down by one
+        for (int i = 0; i < numAtoms; i++) {
+            for (int k = rowStart[i], end = rowStart[i] + rowSize[i]; k < end; k++) {
+                if (neighbors[k] > index) {
+                    neighbors[k]--;
+                }
+            }
+            for (int k = 0; k < extraSize[i]; k++) {
+                if (extraNeighbors[i][k] > index) {
+                    extraNeighbors[i][k]--;
+                }
+            }
+        }
+    }
+
+    /**
+     * adds a bond that was just added to the molecule, to its own row if there is room and to the overlay otherwise
+     * @param b - the bond
+     */
+    void addBond(Bond b) {
+        if (!contains(b)) {
+            leaveOut(b);
+            return;
+        }
+        int a1 = b.getA1().getIndex(), a2 = b.getA2().getIndex();
+        put(a1, a2, b);
+        put(a2, a1, b);
+        packIfFull();
+    }
+
+    /**
+     * helper method - packs the rows again once the overlay holds too many bonds
+     */
+    private void packIfFull() {
+        if (numExtra > Math.max(MIN_EXTRA, rowStart[numAtoms] / MAX_EXTRA_FRACTION)) {
+            build();
+        }
+    }
+
+    /**
+     * helper method - adds one end of a bond to the row of an atom
+     * @param atom - the index of the atom
+     * @param neighbor - the index of the atom at the other end
+     * @param b - the bond
+     */
+    private void put(int atom, int neighbor, Bond b) {
+        int slot = rowStart[atom] + rowSize[atom];
+        if (slot < rowStart[atom + 1]) {
+            neighbors[slot] = neighbor;
+            rowBonds[slot] = b;
+            rowSize[atom]++;
+            return;
+        }
+
+        // the row is full
+        int n = extraSize[atom];
+        if (extraNeighbors[atom] == null) {
+            extraNeighbors[atom] = new int[4];
+            extraBonds[atom] = new Bond[4];
+        } else if (n == extraNeighbors[atom].length) {
+            extraNeighbors[atom] = Arrays.copyOf(extraNeighbors[atom], n * 2);
+            extraBonds[atom] = Arrays.copyOf(extraBonds[atom], n * 2);
+        }
+        extraNeighbors[atom][n] = neighbor;
+        extraBonds[atom][n] = b;
+        extraSize[atom]++;
+        numExtra++;
+    }
+
+    /**
+     * removes a bond that was just removed from the molecule
+     * @param b - the bond
+     */
+    void removeBond(Bond b) {
+        if (!contains(b)) {
+            pendingBonds.remove(b);
+            return;
+        }
+        take(b.getA1().getIndex(), b);
+        take(b.getA2().getIndex(), b);
+    }
+
+    /**
+     * helper method - removes one end of a bond from the row of an atom, moving the last bond of the row into its place
+     * @param atom - the index of the atom
+     * @param b - the bond
+     */
+    private void take(int atom, Bond b) {
+        int start = rowStart[atom];
+        for (int k = start, last = start + rowSize[atom] - 1; k <= last; k++) {
+            if (rowBonds[k] == b) {
+                neighbors[k] = neighbors[last];
+                rowBonds[k] = rowBonds[last];
+                rowBonds[last] = null;
+                rowSize[atom]--;
+                return;
+            }
+        }
+        for (int k = 0, last = extraSize[atom] - 1; k <= last; k++) {
+            if (extraBonds[atom][k] == b) {
+                extraNeighbors[atom][k] = extraNeighbors[atom][last];
+                extraBonds[atom][k] = extraBonds[atom][last];
+                extraBonds[atom][last] = null;
+                extraSize[atom]--;
+                numExtra--;
+                return;
+            }
+        }
+    }
+
+    /**
+     * gets the number of bonds to an atom
+     * @param atom - the index of the atom in the molecule
+     * @return - the number of bonds
+     */
+    public int getDegree(int atom) {
+        return rowSize[atom] + extraSize[atom];
+    }
+
+    /**
+     * gets an atom bonded to another - together with getDegree, this walks the neighbors of an atom without making any objects
+     * @param atom - the index of the atom in the molecule
+     * @param k - which of its bonds to follow, from 0 up to its degree
+     * @return - the index of the atom at the other end of the bond
+     */
+    public int getNeighbor(int atom, int k) {
+        int size = rowSize[atom];
+        return k < size ? neighbors[rowStart[atom] + k] : extraNeighbors[atom][k - size];
+    }
+
+    /**
+     * gets a bond to an atom
+     * @param atom - the index of the atom in the molecule
+     * @param k - which of its bonds, from 0 up to its degree, in the same order as getNeighbor
+     * @return - the bond
+     */
+    public Bond getBond(int atom, int k) {
+        int size = rowSize[atom];
+        return k < size ? rowBonds[rowStart[atom] + k] : extraBonds[atom][k - size];
+    }
+
+    /**
+     * finds the bond between two atoms, searching the atom with fewer bonds
+     * @param atom1 - the index of one atom in the molecule
+     * @param atom2 - the index of the other atom in the molecule
+     * @return - the bond, or null if the atoms are not bonded
+     */
+    public Bond getBondBetween(int atom1, int atom2) {
+        if (getDegree(atom2) < getDegree(atom1)) {
+            int swap = atom1;
+            atom1 = atom2;
+            atom2 = swap;
+        }
+        for (int k = 0, degree = getDegree(atom1); k < degree; k++) {
+            if (getNeighbor(atom1, k) == atom2) {
+                return getBond(atom1, k);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * finds the bond between two atoms
+     * @param a1 - one atom
+     * @param a2 - the other atom
+     * @return - the bond, or null if the atoms are not bonded or are not both in the molecule
+     */
+    public Bond getBondBetween(Atom a1, Atom a2) {
+        AtomStore store = molecule.getAtomStore();
+        if (a1.getStore() != store || a2.getStore() != store) {
+            return null;
+        }
+        return getBondBetween(a1.getIndex(), a2.getIndex());
+    }
+
+    /**
+     * getter method
+     * @return - the number of atoms
+     */
+    public int getNumAtoms() {
+        return this.numAtoms;
+    }
+}
@@ -2,7 +2,9 @@ package com.bramerlabs.molecular.molecule;
 
 import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.shapes.Cylinder;
+import com.bramerlabs.engine.util.IntHashMap;
 import com.bramerlabs.molecular.molecule.atom.Atom;
+import com.bramerlabs.molecular.molecule.atom.AtomStore;
 import com.bramerlabs.molecular.molecule.bond.Bond;
 
 import java.util.ArrayList;
@@ -12,12 +14,37 @@ public class Molecule {
     // a list of atoms in this molecule
     private ArrayList<Atom> atoms;
 
+    // the positions and identities of the atoms, packed in the same order as the list of atoms
+    private AtomStore store = new AtomStore();
+
     // a list of bonds in this molecule
     private ArrayList<Bond> bonds;
 
     // the position of the central atom in this molecule
     private Vector3f position;
 
+    // incremented whenever atoms or bonds are added or removed
+    private int structureVersion = 0;
+
+    // the per-instance data used to draw this molecule - created when first requested
+    private MoleculeInstances instances;
+
+    // the bounding volume hierarchy used to pick atoms and bonds with a ray - created when first requested
+    private MoleculeBVH bvh;
+
+    // the selected atoms, by their index - created when first requested
+    private MoleculeSelection selection;
+
+    // the bonds of every atom, by its index - kept up to date by the methods that add and remove atoms and bonds
+    private BondGraph graph = new BondGraph(this);
+
+    // the atoms and bonds by their own ID, and by the ID of the render objects that draw them
+    // kept up to date by the methods that add and remove atoms and bonds
+    private IntHashMap<Atom> atomsByID = new IntHashMap<>();
+    private IntHashMap<Bond> bondsByID = new IntHashMap<>();
+    private IntHashMap<Atom> atomsByObjectID = new IntHashMap<>();
+    private IntHashMap<Bond> bondsByObjectID = new IntHashMap<>();
+
     /**
      * constructor for specified atoms and bonds
      * @param position - the position of the central atom
@@ -28,6 +55,12 @@ public class Molecule {
         this.position = position;
         this.atoms = atoms;
         this.bonds = bonds;
+        for (Atom a : atoms) {
+            a.attach(store);
+        }
+        indexAtoms();
+        indexBonds();
+        graph.build();
     }
 
     /**
@@ -56,7 +89,12 @@ public class Molecule {
      * @param a - the atom to be added
      */
     public void addAtom(Atom a) {
+        // attached first, so that an atom that is already in a molecule is not added to the list
+        a.attach(store);
         this.atoms.add(a);
+        graph.addAtom();
+        index(a);
+        structureVersion++;
     }
 
     /**
@@ -64,7 +102,11 @@ public class Molecule {
      * @param b - the bond to be added
      */
     public void addBond(Bond b) {
+        b.setIndex(this.bonds.size());
         this.bonds.add(b);
+        graph.addBond(b);
+        index(b);
+        structureVersion++;
     }
 
     /**
@@ -72,16 +114,26 @@ public class Molecule {
      * @param a - the atom to be removed
      */
     public void removeAtom(Atom a) {
-        ArrayList<Bond> bondsToRemove = new ArrayList<>();
-        this.atoms.remove(a);
-        for (Bond b : bonds) {
-            if (b.getAtoms().contains(a)) {
-                bondsToRemove.add(b);
+        if (a.getStore() == store) {
+            // the bonds of the atom are found through the graph, from the last one back so that none of the others move
+            int index = a.getIndex();
+            for (int k = graph.getDegree(index) - 1; k >= 0; k--) {
+                this.removeBond(graph.getBond(index, k));
+            }
+            this.atoms.remove(index);
+            graph.removeAtom(index);
+            a.detach();
+        } else {
+            // the atom is not in this molecule, but bonds to it may still have been added
+            this.atoms.remove(a);
+            for (int i = bonds.size() - 1; i >= 0; i--) {
+                if (bonds.get(i).getOther(a) != null) {
+                    this.removeBond(bonds.get(i));
+                }
             }
         }
-        for (Bond b : bondsToRemove) {
-            this.removeBond(b);
-        }
+        unindex(a);
+        structureVersion++;
     }
 
     /**
@@ -89,7 +141,21 @@ public class Molecule {
      * @param b - the bond to be removed
      */
     public void removeBond(Bond b) {
-        this.bonds.remove(b);
+        int index = b.getIndex();
+        if (index >= 0 && index < bonds.size() && bonds.get(index) == b) {
+            // the last bond takes the place of the removed one, so the list is not searched and nothing moves down
+            Bond last = bonds.remove(bonds.size() - 1);
+            if (last != b) {
+                bonds.set(index, last);
+                last.setIndex(index);
+            }
+            b.setIndex(-1);
+        } else {
+            this.bonds.remove(b);
+        }
+        graph.removeBond(b);
+        unindex(b);
+        structureVersion++;
     }
 
     /**
@@ -97,7 +163,19 @@ public class Molecule {
      * @param atoms - the list of atoms
      */
     public void setAtoms(ArrayList<Atom> atoms) {
+        // the old atoms are detached from the last one back, so that none of the others have to move down
+        for (int i = this.atoms.size() - 1; i >= 0; i--) {
+            if (this.atoms.get(i).getStore() == store) {
+                this.atoms.get(i).detach();
+            }
+        }
         this.atoms = atoms;
+        for (Atom a : atoms) {
+            a.attach(store);
+        }
+        indexAtoms();
+        graph.build();
+        structureVersion++;
     }
 
     /**
@@ -106,6 +184,9 @@ public class Molecule {
      */
     public void setBonds(ArrayList<Bond> bonds) {
         this.bonds = bonds;
+        indexBonds();
+        graph.build();
+        structureVersion++;
     }
 
     /**
@@ -129,7 +210,13 @@ public class Molecule {
      * @param atoms - the list of atoms
      */
     public void addAtoms(ArrayList<Atom> atoms) {
-        this.atoms.addAll(atoms);
+        for (Atom a : atoms) {
+            a.attach(store);
+            this.atoms.add(a);
+            graph.addAtom();
+            index(a);
+        }
+        structureVersion++;
     }
 
     /**
@@ -137,7 +224,76 @@ public class Molecule {
      * @param bonds - the list of bonds
      */
     public void addBonds(ArrayList<Bond> bonds) {
-        this.bonds.addAll(bonds);
+        for (Bond b : bonds) {
+            b.setIndex(this.bonds.size());
+            this.bonds.add(b);
+            graph.addBond(b);
+            index(b);
+        }
+        structureVersion++;
+    }
+
+    /**
+     * helper method - rebuilds the tables of atoms from the list of atoms
+     */
+    private void indexAtoms() {
+        atomsByID.clear();
+        atomsByObjectID.clear();
+        for (Atom a : atoms) {
+            index(a);
+        }
+    }
+
+    /**
+     * helper method - rebuilds the tables of bonds, and the index of every bond, from the list of bonds
+     */
+    private void indexBonds() {
+        bondsByID.clear();
+        bondsByObjectID.clear();
+        for (int i = 0; i < bonds.size(); i++) {
+            bonds.get(i).setIndex(i);
+            index(bonds.get(i));
+        }
+    }
+
+    /**
+     * helper method - adds an atom to the tables of atoms
+     * @param a - the atom
+     */
+    private void index(Atom a) {
+        atomsByID.put(a.getID(), a);
+        atomsByObjectID.put(a.getSphere().getID(), a);
+    }
+
+    /**
+     * helper method - adds a bond to the tables of bonds
+     * @param b - the bond
+     */
+    private void index(Bond b) {
+        bondsByID.put(b.getID(), b);
+        for (Cylinder c : b.getCylinders()) {
+            bondsByObjectID.put(c.getID(), b);
+        }
+    }
+
+    /**
+     * helper method - removes an atom from the tables of atoms
+     * @param a - the atom
+     */
+    private void unindex(Atom a) {
+        atomsByID.remove(a.getID(), a);
+        atomsByObjectID.remove(a.getSphere().getID(), a);
+    }
+
+    /**
+     * helper method - removes a bond from the tables of bonds
+     * @param b - the bond
+     */
+    private void unindex(Bond b) {
+        bondsByID.remove(b.getID(), b);
+        for (Cylinder c : b.getCylinders()) {
+            bondsByObjectID.remove(c.getID(), b);
+        }
     }
 
     /**
@@ -146,12 +302,7 @@ public class Molecule {
      * @return - true if the molecule contains an atom with the ID provided
      */
     public boolean hasAtomWithID(int ID) {
-        for (Atom atom : this.atoms) {
-            if (atom.getID() == ID) {
-                return true;
-            }
-        }
-        return false;
+        return atomsByID.containsKey(ID);
     }
 
     /**
@@ -164,6 +315,9 @@ public class Molecule {
         for (Bond b : bonds) {
             b.destroy();
         }
+        if (instances != null) {
+            instances.destroy();
+        }
     }
 
     /**
@@ -172,12 +326,7 @@ public class Molecule {
      * @return - the atom corresponding to this ID
      */
     public Atom getAtom(int ID) {
-        for (Atom a : this.atoms) {
-            if (a.getSphere().getID() == ID) {
-                return a;
-            }
-        }
-        return null;
+        return atomsByObjectID.get(ID);
     }
 
     /**
@@ -186,14 +335,7 @@ public class Molecule {
      * @return - the bond corresponding to this ID
      */
     public Bond getBond(int ID) {
-        for (Bond b : this.bonds) {
-            for (Cylinder c : b.getCylinders()) {
-                if (c.getID() == ID) {
-                    return b;
-                }
-            }
-        }
-        return null;
+        return bondsByObjectID.get(ID);
     }
 
     /**
@@ -202,12 +344,7 @@ public class Molecule {
      * @return - the atom
      */
     public Atom getAtomFromAtomID(int ID) {
-        for (Atom a : this.atoms) {
-            if (a.getID() == ID) {
-                return a;
-            }
-        }
-        return null;
+        return atomsByID.get(ID);
     }
 
     /**
@@ -216,12 +353,101 @@ public class Molecule {
      * @return - the bond
      */
     public Bond getBondFromBondID(int ID) {
-        for (Bond b : this.bonds) {
-            if (b.getID() == ID) {
-                return b;
-            }
+        return bondsByID.get(ID);
+    }
+
+    /**
+     * gets the value an atom writes to the ID buffer - 0 is nothing, atoms are odd, and bonds are even
+     * the value is passed to the shaders as an unsigned integer attribute, so it is exact for every ID
+     * @param a - the atom
+     * @return - the pick ID of the atom
+     */
+    public static int getPickID(Atom a) {
+        return a.getID() * 2 + 1;
+    }
+
+    /**
+     * gets the value a bond writes to the ID buffer - 0 is nothing, atoms are odd, and bonds are even
+     * @param b - the bond
+     * @return - the pick ID of the bond
+     */
+    public static int getPickID(Bond b) {
+        return b.getID() * 2 + 2;
+    }
+
+    /**
+     * gets the atom that wrote a value to the ID buffer
+     * @param pickID - the value read from the ID buffer
+     * @return - the atom, or null if the value belongs to a bond, to nothing, or to another molecule
+     */
+    public Atom getPickedAtom(int pickID) {
+        return pickID % 2 == 1 ? atomsByID.get((pickID - 1) / 2) : null;
+    }
+
+    /**
+     * gets the bond that wrote a value to the ID buffer
+     * @param pickID - the value read from the ID buffer
+     * @return - the bond, or null if the value belongs to an atom, to nothing, or to another molecule
+     */
+    public Bond getPickedBond(int pickID) {
+        return pickID > 0 && pickID % 2 == 0 ? bondsByID.get((pickID - 2) / 2) : null;
+    }
+
+    /**
+     * getter method
+     * @return - the structure version, incremented whenever atoms or bonds are added or removed
+     */
+    public int getStructureVersion() {
+        return this.structureVersion;
+    }
+
+    /**
+     * getter method
+     * @return - the positions and identities of the atoms, indexed the same as the list of atoms
+     */
+    public AtomStore getAtomStore() {
+        return this.store;
+    }
+
+    /**
+     * getter method
+     * @return - the bonds of every atom, by its index in the list of atoms
+     */
+    public BondGraph getBondGraph() {
+        return this.graph;
+    }
+
+    /**
+     * getter method
+     * @return - the per-instance data used to draw this molecule
+     */
+    public MoleculeInstances getInstances() {
+        if (instances == null) {
+            instances = new MoleculeInstances(this);
+        }
+        return this.instances;
+    }
+
+    /**
+     * getter method
+     * @return - the bounding volume hierarchy over the atoms and bonds of this molecule
+     */
+    public MoleculeBVH getBVH() {
+        if (bvh == null) {
+            bvh = new MoleculeBVH(this);
+        }
+        return this.bvh;
+    }
+
+    /**
+     * getter method
+     * @return - the selected atoms of this molecule
+     */
+    public MoleculeSelection getSelection() {
+        if (selection == null) {
+            selection = new MoleculeSelection(this);
         }
-        return null;
+        return this.selection;
     }
 
     /**
@@ -0,0 +1,399 @@
+package com.bramerlabs.molecular.molecule;
+
+import com.bramerlabs.engine.math.collision.Frustum;
+import com.bramerlabs.engine.math.collision.Ray;
+import com.bramerlabs.molecular.molecule.atom.Atom;
+import com.bramerlabs.molecular.molecule.atom.AtomStore;
+import com.bramerlabs.molecular.molecule.bond.Bond;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class MoleculeBVH {
+
+    // the most primitives kept in one leaf
+    private static final int LEAF_SIZE = 4;
+
+    // the molecule this tree is built over
+    private Molecule molecule;
+
+    // the structure version of the molecule when the tree was last built
+    private int structureVersion = -1;
+
+    // the primitives - atoms are spheres, bonds are capsules around the axis between their atoms
+    // primitive i is atom i, and primitive atoms.length + j is bond j
+    private Atom[] atoms = new Atom[0];
+    private Bond[] bonds = new Bond[0];
+
+    // the index of the two atoms of every bond
+    private int[] bondAtoms = new int[0];
+
+    // the positions of the atoms, from the packed store of the molecule - fetched again on every update, since the store may have grown
+    private float[] x = new float[0], y = new float[0], z = new float[0];
+
+    // the move count of every atom when its bounds were last found, and if it moved since then
+    private int[] atomMoves = new int[0];
+    private boolean[] atomMoved = new boolean[0];
+
+    // the bounds of every primitive - xMin, yMin, zMin, xMax, yMax, zMax
+    private float[] primitiveBounds = new float[0];
+
+    // the primitives in tree order, so that every leaf covers a range of them
+    private int[] order = new int[0];
+
+    // the bounds of every node, and either the second child of an internal node or the first primitive of a leaf
+    // the first child of an internal node is the node after it, so children always come after their parent
+    private float[] nodeBounds = new float[0];
+    private int[] nodeIndex = new int[0];
+    private int[] nodeCount = new int[0]; // the number of primitives in a leaf, 0 for an internal node
+    private int numNodes = 0;
+
+    // the nodes left to visit during a ray cast or a frustum query
+    private int[] stack = new int[64];
+
+    // the distance along the ray of the last hit
+    private float hitDistance = Float.POSITIVE_INFINITY;
+
+    /**
+     * default constructor
+     * @param molecule - the molecule to build the tree over
+     */
+    public MoleculeBVH(Molecule molecule) {
+        this.molecule = molecule;
+    }
+
+    /**
+     * brings the tree up to date with the molecule
+     * rebuilds it if atoms or bonds were added or removed, otherwise refits the bounds of the atoms that moved and their bonds
+     */
+    public void update() {
+        AtomStore store = molecule.getAtomStore();
+        x = store.getX();
+        y = store.getY();
+        z = store.getZ();
+        if (structureVersion != molecule.getStructureVersion()) {
+            build();
+        } else {
+            refit();
+        }
+    }
+
+    /**
+     * finds the first atom or bond along a ray
+     * @param ray - the ray
+     * @param maxDistance - hits farther than this are ignored
+     * @return - the pick ID of the atom or bond that was hit, or 0 if nothing was hit
+     */
+    public int raycast(Ray ray, float maxDistance) {
+        update();
+        hitDistance = Float.POSITIVE_INFINITY;
+        if (numNodes == 0) {
+            return 0;
+        }
+
+        float best = maxDistance;
+        int hit = -1;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (ray.intersectBox(nodeBounds, node * 6, best) == Float.POSITIVE_INFINITY) {
+                continue;
+            }
+            if (nodeCount[node] > 0) {
+                for (int i = nodeIndex[node]; i < nodeIndex[node] + nodeCount[node]; i++) {
+                    float t = intersect(ray, order[i]);
+                    if (t < best) {
+                        best = t;
+                        hit = order[i];
+                    }
+                }
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = nodeIndex[node];
+                stack[top++] = node + 1;
+            }
+        }
+
+        if (hit < 0) {
+            return 0;
+        }
+        hitDistance = best;
+        return hit < atoms.length ? Molecule.getPickID(atoms[hit]) : Molecule.getPickID(bonds[hit - atoms.length]);
+    }
+
+    /**
+     * finds the atoms that may be inside a frustum, skipping every subtree whose bounds are outside it
+     * @param frustum - the frustum
+     * @param result - the index of every atom whose sphere intersects the frustum is set, and no others are touched
+     */
+    public void findAtoms(Frustum frustum, BitSet result) {
+        update();
+        if (numNodes == 0) {
+            return;
+        }
+
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!frustum.intersectsBox(nodeBounds, node * 6)) {
+                continue;
+            }
+            if (nodeCount[node] > 0) {
+                for (int i = nodeIndex[node]; i < nodeIndex[node] + nodeCount[node]; i++) {
+                    if (order[i] < atoms.length && frustum.intersectsBox(primitiveBounds, order[i] * 6)) {
+                        result.set(order[i]);
+                    }
+                }
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = nodeIndex[node];
+                stack[top++] = node + 1;
+            }
+        }
+    }
+
+    /**
+     * helper method - intersects a ray with one primitive
+     * @param ray - the ray
+     * @param primitive - the index of the primitive
+     * @return - the distance along the ray, or infinity if it misses
+     */
+    private float intersect(Ray ray, int primitive) {
+        if (primitive < atoms.length) {
+            return ray.intersectSphere(x[primitive], y[primitive], z[primitive], atoms[primitive].getRadius());
+        }
+        int b = primitive - atoms.length;
+        int a1 = bondAtoms[b * 2], a2 = bondAtoms[b * 2 + 1];
+        return ray.intersectCapsule(x[a1], y[a1], z[a1], x[a2], y[a2], z[a2], bonds[b].getBoundingRadius());
+    }
+
+    /**
+     * helper method - builds the tree from scratch
+     */
+    private void build() {
+        ArrayList<Atom> moleculeAtoms = molecule.getAtoms();
+        ArrayList<Bond> moleculeBonds = molecule.getBonds();
+        atoms = moleculeAtoms.toArray(new Atom[0]);
+        atomMoves = new int[atoms.length];
+        atomMoved = new boolean[atoms.length];
+
+        // bonds whose atoms are not in the molecule cannot be placed, so they are left out
+        AtomStore store = molecule.getAtomStore();
+        ArrayList<Bond> placed = new ArrayList<>();
+        int[] ends = new int[moleculeBonds.size() * 2];
+        for (Bond bond : moleculeBonds) {
+            Atom a1 = bond.getA1(), a2 = bond.getA2();
+            if (a1.getStore() == store && a2.getStore() == store) {
+                ends[placed.size() * 2] = a1.getIndex();
+                ends[placed.size() * 2 + 1] = a2.getIndex();
+                placed.add(bond);
+            }
+        }
+        bonds = placed.toArray(new Bond[0]);
+        bondAtoms = Arrays.copyOf(ends, bonds.length * 2);
+
+        int numPrimitives = atoms.length + bonds.length;
+        primitiveBounds = new float[numPrimitives * 6];
+        order = new int[numPrimitives];
+        for (int i = 0; i < numPrimitives; i++) {
+            order[i] = i;
+        }
+        for (int i = 0; i < atoms.length; i++) {
+            atomMoves[i] = atoms[i].getMoveCount();
+            atomBounds(i);
+        }
+        for (int b = 0; b < bonds.length; b++) {
+            bondBounds(b);
+        }
+
+        // a binary tree over n primitives has at most 2n - 1 nodes
+        int maxNodes = Math.max(numPrimitives * 2 - 1, 0);
+        nodeBounds = new float[maxNodes * 6];
+        nodeIndex = new int[maxNodes];
+        nodeCount = new int[maxNodes];
+        numNodes = 0;
+        if (numPrimitives > 0) {
+            build(0, numPrimitives);
+        }
+        structureVersion = molecule.getStructureVersion();
+    }
+
+    /**
+     * helper method - builds the subtree over a range of primitives
+     * the range is split at the middle of the longest axis of the centers of its primitives
+     * @param start - the first primitive in tree order
+     * @param end - one past the last primitive in tree order
+     * @return - the index of the root node of the subtree
+     */
+    private int build(int start, int end) {
+        int node = numNodes++;
+        nodeBounds(node, start, end);
+        if (end - start <= LEAF_SIZE) {
+            nodeIndex[node] = start;
+            nodeCount[node] = end - start;
+            return node;
+        }
+
+        // find the longest axis of the centers
+        float[] min = {Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY};
+        float[] max = {Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+        for (int i = start; i < end; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                float center = center(order[i], axis);
+                min[axis] = Math.min(min[axis], center);
+                max[axis] = Math.max(max[axis], center);
+            }
+        }
+        int axis = 0;
+        for (int a = 1; a < 3; a++) {
+            if (max[a] - min[a] > max[axis] - min[axis]) {
+                axis = a;
+            }
+        }
+
+        // move the primitives below the middle to the front of the range
+        float split = (min[axis] + max[axis]) / 2;
+        int mid = start;
+        for (int i = start; i < end; i++) {
+            if (center(order[i], axis) < split) {
+                int swap = order[i];
+                order[i] = order[mid];
+                order[mid++] = swap;
+            }
+        }
+
+        // primitives that are all in one place are split in half instead
+        if (mid == start || mid == end) {
+            mid = (start + end) / 2;
+        }
+
+        build(start, mid);
+        nodeIndex[node] = build(mid, end);
+        nodeCount[node] = 0;
+        return node;
+    }
+
+    /**
+     * helper method - refits the bounds of the atoms that moved, the bonds attached to them, and every node above them
+     */
+    private void refit() {
+        boolean moved = false;
+        for (int i = 0; i < atoms.length; i++) {
+            int moveCount = atoms[i].getMoveCount();
+            atomMoved[i] = moveCount != atomMoves[i];
+            if (atomMoved[i]) {
+                atomMoves[i] = moveCount;
+                atomBounds(i);
+                moved = true;
+            }
+        }
+        if (!moved) {
+            return;
+        }
+        for (int b = 0; b < bonds.length; b++) {
+            if (atomMoved[bondAtoms[b * 2]] || atomMoved[bondAtoms[b * 2 + 1]]) {
+                bondBounds(b);
+            }
+        }
+
+        // children come after their parent, so walking backwards refits every child before its parent
+        for (int node = numNodes - 1; node >= 0; node--) {
+            if (nodeCount[node] > 0) {
+                nodeBounds(node, nodeIndex[node], nodeIndex[node] + nodeCount[node]);
+            } else {
+                int first = (node + 1) * 6, second = nodeIndex[node] * 6;
+                for (int k = 0; k < 3; k++) {
+                    nodeBounds[node * 6 + k] = Math.min(nodeBounds[first + k], nodeBounds[second + k]);
+                    nodeBounds[node * 6 + k + 3] = Math.max(nodeBounds[first + k + 3], nodeBounds[second + k + 3]);
+                }
+            }
+        }
+    }
+
+    /**
+     * helper method - finds the bounds of an atom
+     * @param i - the index of the atom
+     */
+    private void atomBounds(int i) {
+        float r = atoms[i].getRadius();
+        setBounds(i, x[i] - r, y[i] - r, z[i] - r, x[i] + r, y[i] + r, z[i] + r);
+    }
+
+    /**
+     * helper method - finds the bounds of the capsule of a bond
+     * @param b - the index of the bond
+     */
+    private void bondBounds(int b) {
+        int a1 = bondAtoms[b * 2], a2 = bondAtoms[b * 2 + 1];
+        float r = bonds[b].getBoundingRadius();
+        setBounds(atoms.length + b,
+                Math.min(x[a1], x[a2]) - r, Math.min(y[a1], y[a2]) - r, Math.min(z[a1], z[a2]) - r,
+                Math.max(x[a1], x[a2]) + r, Math.max(y[a1], y[a2]) + r, Math.max(z[a1], z[a2]) + r);
+    }
+
+    /**
+     * helper method - sets the bounds of a primitive
+     * @param primitive - the index of the primitive
+     * @param xMin - the minimum x value
+     * @param yMin - the minimum y value
+     * @param zMin - the minimum z value
+     * @param xMax - the maximum x value
+     * @param yMax - the maximum y value
+     * @param zMax - the maximum z value
+     */
+    private void setBounds(int primitive, float xMin, float yMin, float zMin, float xMax, float yMax, float zMax) {
+        int o = primitive * 6;
+        primitiveBounds[o] = xMin;
+        primitiveBounds[o + 1] = yMin;
+        primitiveBounds[o + 2] = zMin;
+        primitiveBounds[o + 3] = xMax;
+        primitiveBounds[o + 4] = yMax;
+        primitiveBounds[o + 5] = zMax;
+    }
+
+    /**
+     * helper method - sets the bounds of a node to the bounds of a range of primitives
+     * @param node - the node
+     * @param start - the first primitive in tree order
+     * @param end - one past the last primitive in tree order
+     */
+    private void nodeBounds(int node, int start, int end) {
+        int o = node * 6;
+        for (int k = 0; k < 3; k++) {
+            nodeBounds[o + k] = Float.POSITIVE_INFINITY;
+            nodeBounds[o + k + 3] = Float.NEGATIVE_INFINITY;
+        }
+        for (int i = start; i < end; i++) {
+            int p = order[i] * 6;
+            for (int k = 0; k < 3; k++) {
+                nodeBounds[o + k] = Math.min(nodeBounds[o + k], primitiveBounds[p + k]);
+                nodeBounds[o + k + 3] = Math.max(nodeBounds[o + k + 3], primitiveBounds[p + k + 3]);
+            }
+        }
+    }
+
+    /**
+     * helper method - the center of the bounds of a primitive along one axis
+     * @param primitive - the index of the primitive
+     * @param axis - 0 for x, 1 for y, 2 for z
+     * @return - the center
+     */
+    private float center(int primitive, int axis) {
+        return (primitiveBounds[primitive * 6 + axis] + primitiveBounds[primitive * 6 + axis + 3]) / 2;
+    }
+
+    /**
+     * getter method
+     * @return - the distance along the ray of the last hit, or infinity if the last ray cast hit nothing
+     */
+    public float getHitDistance() {
+        return this.hitDistance;
+    }
+}
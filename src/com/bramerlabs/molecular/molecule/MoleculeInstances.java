@@ -0,0 +1,353 @@
+package com.bramerlabs.molecular.molecule;
+
+import com.bramerlabs.engine.graphics.InstanceBuffer;
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.Vector3f;
+import com.bramerlabs.engine.math.collision.Frustum;
+import com.bramerlabs.engine.objects.shapes.Cylinder;
+import com.bramerlabs.engine.objects.shapes.Sphere;
+import com.bramerlabs.molecular.molecule.atom.Atom;
+import com.bramerlabs.molecular.molecule.atom.AtomStore;
+import com.bramerlabs.molecular.molecule.bond.Bond;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MoleculeInstances {
+
+    // the molecule these instances are drawn from
+    private Molecule molecule;
+
+    // one instance per atom - center (vec3), radius (float), color (vec3), selected (float - half when only hovered), pick ID (uint)
+    private InstanceBuffer atoms = makeAtomBuffer();
+
+    // one instance per bond cylinder - model matrix (4 vec4 columns), color (vec3), selected (float - half when only hovered), pick ID (uint)
+    private InstanceBuffer bonds = makeBondBuffer();
+
+    // the atoms and bond cylinders inside the view frustum, compacted from the full buffers whenever the view or the instances change
+    // one buffer per level of detail, so each level is drawn with its own mesh
+    private InstanceBuffer[] visibleAtoms = new InstanceBuffer[Sphere.LOD.getLevelCount()];
+    private InstanceBuffer[] visibleBonds = new InstanceBuffer[Cylinder.LOD.getLevelCount()];
+
+    // the level of detail each atom and bond cylinder was drawn at last frame, or -1 if it was not drawn
+    private int[] atomLevels = new int[0];
+    private int[] bondLevels = new int[0];
+
+    // scratch storage for the values of one atom instance and one bond instance
+    private float[] atomValues = new float[atoms.getStride()];
+    private float[] bondValues = new float[bonds.getStride()];
+
+    // the structure version of the molecule when the buffers were last rebuilt
+    private int structureVersion = -1;
+
+    // incremented whenever update writes any instance
+    private int dataVersion = 0;
+
+    // what the visible buffers were last culled with - they are kept while none of it changes
+    private Frustum culledFrustum;
+    private int culledFrustumVersion = -1, culledDataVersion = -1;
+    private float culledX, culledY, culledZ, culledPixelScale;
+
+    // the number of instances in each level of detail while culling
+    private int[] atomCounts = new int[visibleAtoms.length];
+    private int[] bondCounts = new int[visibleBonds.length];
+
+    /**
+     * default constructor
+     * @param molecule - the molecule to draw
+     */
+    public MoleculeInstances(Molecule molecule) {
+        this.molecule = molecule;
+        for (int i = 0; i < visibleAtoms.length; i++) {
+            visibleAtoms[i] = makeAtomBuffer();
+        }
+        for (int i = 0; i < visibleBonds.length; i++) {
+            visibleBonds[i] = makeBondBuffer();
+        }
+    }
+
+    /**
+     * helper method - makes a buffer with the layout of the atom instances
+     * @return - the buffer
+     */
+    private static InstanceBuffer makeAtomBuffer() {
+        InstanceBuffer buffer = new InstanceBuffer(3, 1, 3, 1, 1);
+        buffer.setIntegerAttribute(4);
+        return buffer;
+    }
+
+    /**
+     * helper method - makes a buffer with the layout of the bond cylinder instances
+     * @return - the buffer
+     */
+    private static InstanceBuffer makeBondBuffer() {
+        InstanceBuffer buffer = new InstanceBuffer(4, 4, 4, 4, 3, 1, 1);
+        buffer.setIntegerAttribute(6);
+        return buffer;
+    }
+
+    /**
+     * brings the instance buffers up to date with the molecule
+     * rebuilds everything if atoms or bonds were added or removed, otherwise only rewrites the atoms that moved or changed selection, and the bonds attached to them
+     * must be called on the thread that owns the OpenGL context
+     */
+    public void update() {
+        ArrayList<Atom> moleculeAtoms = molecule.getAtoms();
+        ArrayList<Bond> moleculeBonds = molecule.getBonds();
+        boolean rebuild = structureVersion != molecule.getStructureVersion();
+        boolean written = rebuild;
+
+        // the bonds go first, since they read the changed flags of their atoms before the atoms clear them
+        if (rebuild) {
+            int count = 0;
+            for (Bond bond : moleculeBonds) {
+                count += bond.getCylinders().size();
+            }
+            bonds.setCount(count);
+        }
+        int index = 0;
+        for (Bond bond : moleculeBonds) {
+            boolean changed = bond.pollChanged();
+            if (changed) {
+                bond.update();
+            }
+            for (Cylinder cylinder : bond.getCylinders()) {
+                if (rebuild || changed) {
+                    putBond(index, cylinder, bond);
+                    written = true;
+                }
+                index++;
+            }
+        }
+
+        // the atoms
+        if (rebuild) {
+            atoms.setCount(moleculeAtoms.size());
+        }
+        for (int i = 0; i < moleculeAtoms.size(); i++) {
+            Atom atom = moleculeAtoms.get(i);
+            if (atom.pollChanged() || rebuild) {
+                putAtom(i, atom);
+                written = true;
+            }
+        }
+
+        if (written) {
+            dataVersion++;
+        }
+        structureVersion = molecule.getStructureVersion();
+        atoms.upload();
+        bonds.upload();
+    }
+
+    /**
+     * copies the atoms and bond cylinders that are inside a frustum into the visible instance buffers of their level of detail
+     * nothing is done if the frustum, the camera, and the instances are the same as the last time
+     * must be called on the thread that owns the OpenGL context, after update
+     * @param frustum - the view frustum
+     * @param cameraPosition - the position of the camera
+     * @param pixelScale - the number of pixels one unit covers at a distance of one unit, from LevelOfDetail.getPixelScale
+     */
+    public void cull(Frustum frustum, Vector3f cameraPosition, float pixelScale) {
+        float cx = cameraPosition.getX(), cy = cameraPosition.getY(), cz = cameraPosition.getZ();
+        if (frustum == culledFrustum && frustum.getVersion() == culledFrustumVersion && dataVersion == culledDataVersion
+                && cx == culledX && cy == culledY && cz == culledZ && pixelScale == culledPixelScale) {
+            return;
+        }
+        culledFrustum = frustum;
+        culledFrustumVersion = frustum.getVersion();
+        culledDataVersion = dataVersion;
+        culledX = cx;
+        culledY = cy;
+        culledZ = cz;
+        culledPixelScale = pixelScale;
+
+        // atoms are tested with their own sphere - center (0, 1, 2), radius (3)
+        // the level of every atom is found first, so that each bucket is sized to exactly the atoms in it
+        int numAtoms = atoms.getCount();
+        atomLevels = resetLevels(atomLevels, numAtoms);
+        Arrays.fill(atomCounts, 0);
+        for (int i = 0; i < numAtoms; i++) {
+            float x = atoms.get(i, 0), y = atoms.get(i, 1), z = atoms.get(i, 2), radius = atoms.get(i, 3);
+            if (!frustum.intersectsSphere(x, y, z, radius)) {
+                atomLevels[i] = -1;
+                continue;
+            }
+            int level = Sphere.LOD.select(screenRadius(x - cx, y - cy, z - cz, radius, pixelScale), atomLevels[i]);
+            atomLevels[i] = level;
+            atomCounts[level]++;
+        }
+        fillBuckets(visibleAtoms, atoms, atomLevels, atomCounts);
+
+        // bonds are tested with the sphere around the cylinder - first radial column (0, 1, 2), axis (4, 5, 6), base (12, 13, 14)
+        int numBonds = bonds.getCount();
+        bondLevels = resetLevels(bondLevels, numBonds);
+        Arrays.fill(bondCounts, 0);
+        for (int i = 0; i < numBonds; i++) {
+            float rx = bonds.get(i, 0), ry = bonds.get(i, 1), rz = bonds.get(i, 2);
+            float ax = bonds.get(i, 4) / 2, ay = bonds.get(i, 5) / 2, az = bonds.get(i, 6) / 2;
+            float x = bonds.get(i, 12) + ax, y = bonds.get(i, 13) + ay, z = bonds.get(i, 14) + az;
+            float radius = (float) Math.sqrt(rx * rx + ry * ry + rz * rz);
+            float boundingRadius = (float) Math.sqrt(radius * radius + ax * ax + ay * ay + az * az);
+            if (!frustum.intersectsSphere(x, y, z, boundingRadius)) {
+                bondLevels[i] = -1;
+                continue;
+            }
+            int level = Cylinder.LOD.select(screenRadius(x - cx, y - cy, z - cz, radius, pixelScale), bondLevels[i]);
+            bondLevels[i] = level;
+            bondCounts[level]++;
+        }
+        fillBuckets(visibleBonds, bonds, bondLevels, bondCounts);
+    }
+
+    /**
+     * helper method - finds the radius of an object on screen
+     * @param dx - the x distance from the camera to the object
+     * @param dy - the y distance from the camera to the object
+     * @param dz - the z distance from the camera to the object
+     * @param radius - the radius of the object
+     * @param pixelScale - the number of pixels one unit covers at a distance of one unit
+     * @return - the radius of the object on screen, in pixels
+     */
+    private static float screenRadius(float dx, float dy, float dz, float radius, float pixelScale) {
+        float distance = Math.max((float) Math.sqrt(dx * dx + dy * dy + dz * dz), 0.0001f);
+        return radius * pixelScale / distance;
+    }
+
+    /**
+     * helper method - makes sure there is a level for every instance, forgetting the old levels if the instances were rebuilt
+     * @param levels - the levels of the last frame
+     * @param count - the number of instances
+     * @return - the levels to use this frame
+     */
+    private int[] resetLevels(int[] levels, int count) {
+        if (levels.length != count) {
+            levels = new int[count];
+            Arrays.fill(levels, -1);
+        }
+        return levels;
+    }
+
+    /**
+     * helper method - copies every visible instance into the bucket of its level of detail, and uploads the buckets
+     * @param buckets - the visible instance buffers, one per level of detail
+     * @param source - the full instance buffer
+     * @param levels - the level of every instance, or -1 if it is not visible
+     * @param counts - the number of instances at each level
+     */
+    private void fillBuckets(InstanceBuffer[] buckets, InstanceBuffer source, int[] levels, int[] counts) {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i].setCount(counts[i]);
+            counts[i] = 0;
+        }
+        for (int i = 0; i < levels.length; i++) {
+            if (levels[i] >= 0) {
+                buckets[levels[i]].copy(source, i, counts[levels[i]]++);
+            }
+        }
+        for (InstanceBuffer bucket : buckets) {
+            bucket.upload();
+        }
+    }
+
+    /**
+     * helper method - the strength of the highlight of an atom or bond
+     * @param selected - if it is selected
+     * @param hovered - if it is under the mouse
+     * @return - 1 if it is selected, half that if it is only under the mouse, 0 otherwise
+     */
+    private static float highlight(boolean selected, boolean hovered) {
+        return selected ? 1 : hovered ? 0.5f : 0;
+    }
+
+    /**
+     * writes the instance data of an atom
+     * @param index - the instance index
+     * @param atom - the atom
+     */
+    private void putAtom(int index, Atom atom) {
+        // the position is read straight from the packed store, where the atom has the same index
+        AtomStore store = molecule.getAtomStore();
+        Vector3f c = atom.getColor();
+        atomValues[0] = store.getX()[index];
+        atomValues[1] = store.getY()[index];
+        atomValues[2] = store.getZ()[index];
+        atomValues[3] = atom.getRadius();
+        atomValues[4] = c.getX();
+        atomValues[5] = c.getY();
+        atomValues[6] = c.getZ();
+        atomValues[7] = highlight(atom.isSelected(), atom.isHovered());
+        atomValues[8] = InstanceBuffer.packInt(Molecule.getPickID(atom));
+        atoms.put(index, atomValues);
+    }
+
+    /**
+     * writes the instance data of a bond cylinder
+     * @param index - the instance index
+     * @param cylinder - the cylinder
+     * @param bond - the bond the cylinder belongs to
+     */
+    private void putBond(int index, Cylinder cylinder, Bond bond) {
+        Matrix4f m = cylinder.getModelMatrix();
+        for (int col = 0; col < 4; col++) {
+            for (int row = 0; row < 4; row++) {
+                bondValues[col * 4 + row] = m.get(col, row);
+            }
+        }
+        Vector3f c = cylinder.getColor();
+        bondValues[16] = c.getX();
+        bondValues[17] = c.getY();
+        bondValues[18] = c.getZ();
+        bondValues[19] = highlight(bond.isSelected(), bond.isHovered());
+        bondValues[20] = InstanceBuffer.packInt(Molecule.getPickID(bond));
+        bonds.put(index, bondValues);
+    }
+
+    /**
+     * getter method
+     * @return - the per-atom instance buffer
+     */
+    public InstanceBuffer getAtoms() {
+        return this.atoms;
+    }
+
+    /**
+     * getter method
+     * @return - the per-bond-cylinder instance buffer
+     */
+    public InstanceBuffer getBonds() {
+        return this.bonds;
+    }
+
+    /**
+     * getter method
+     * @param level - the level of detail, from 0 to Sphere.LOD.getLevelCount() - 1
+     * @return - the atoms inside the frustum passed to the last call to cull that are drawn at a level of detail
+     */
+    public InstanceBuffer getVisibleAtoms(int level) {
+        return this.visibleAtoms[level];
+    }
+
+    /**
+     * getter method
+     * @param level - the level of detail, from 0 to Cylinder.LOD.getLevelCount() - 1
+     * @return - the bond cylinders inside the frustum passed to the last call to cull that are drawn at a level of detail
+     */
+    public InstanceBuffer getVisibleBonds(int level) {
+        return this.visibleBonds[level];
+    }
+
+    /**
+     * releases the instance buffers
+     */
+    public void destroy() {
+        atoms.destroy();
+        bonds.destroy();
+        for (InstanceBuffer buffer : visibleAtoms) {
+            buffer.destroy();
+        }
+        for (InstanceBuffer buffer : visibleBonds) {
+            buffer.destroy();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bramerlabs.molecular.molecule;
+
+import com.bramerlabs.molecular.molecule.atom.Atom;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+
+public class MoleculeSelection {
+
+    // the molecule whose atoms are selected
+    private Molecule molecule;
+
+    // the selected atoms, by their index in the molecule
+    private BitSet atoms = new BitSet();
+
+    // the structure version of the molecule when the selection was last read back from the atoms
+    private int structureVersion = -1;
+
+    /**
+     * default constructor
+     * @param molecule - the molecule whose atoms are selected
+     */
+    public MoleculeSelection(Molecule molecule) {
+        this.molecule = molecule;
+    }
+
+    /**
+     * helper method - reads the selection back from the atoms if atoms were added or removed, since their indices may have shifted
+     */
+    private void sync() {
+        if (structureVersion == molecule.getStructureVersion()) {
+            return;
+        }
+        ArrayList<Atom> moleculeAtoms = molecule.getAtoms();
+        atoms.clear();
+        for (int i = 0; i < moleculeAtoms.size(); i++) {
+            if (moleculeAtoms.get(i).isSelected()) {
+                atoms.set(i);
+            }
+        }
+        structureVersion = molecule.getStructureVersion();
+    }
+
+    /**
+     * selects or deselects an atom
+     * @param index - the index of the atom in the molecule
+     * @param selected - true to select the atom
+     */
+    public void set(int index, boolean selected) {
+        sync();
+        atoms.set(index, selected);
+        molecule.getAtoms().get(index).setSelected(selected);
+    }
+
+    /**
+     * selects or deselects an atom
+     * @param atom - the atom
+     * @param selected - true to select the atom
+     * @return - false if the atom is not in this molecule
+     */
+    public boolean set(Atom atom, boolean selected) {
+        // an atom in the molecule's store has the same index there as in the molecule
+        if (atom.getStore() != molecule.getAtomStore()) {
+            return false;
+        }
+        set(atom.getIndex(), selected);
+        return true;
+    }
+
+    /**
+     * selects an atom if it is not selected, and deselects it otherwise
+     * @param index - the index of the atom in the molecule
+     */
+    public void toggle(int index) {
+        sync();
+        set(index, !atoms.get(index));
+    }
+
+    /**
+     * determines if an atom is selected
+     * @param index - the index of the atom in the molecule
+     * @return - true if the atom is selected
+     */
+    public boolean isSelected(int index) {
+        sync();
+        return atoms.get(index);
+    }
+
+    /**
+     * deselects every atom, visiting only the selected ones
+     */
+    public void clear() {
+        sync();
+        ArrayList<Atom> moleculeAtoms = molecule.getAtoms();
+        for (int i = atoms.nextSetBit(0); i >= 0; i = atoms.nextSetBit(i + 1)) {
+            moleculeAtoms.get(i).setSelected(false);
+        }
+        atoms.clear();
+    }
+
+    /**
+     * getter method
+     * @return - the number of selected atoms
+     */
+    public int getCount() {
+        sync();
+        return atoms.cardinality();
+    }
+
+    /**
+     * getter method
+     * @return - the selected atoms, by their index in the molecule - must not be modified
+     */
+    public BitSet getAtoms() {
+        sync();
+        return this.atoms;
+    }
+}
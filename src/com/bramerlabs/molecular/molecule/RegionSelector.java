@@ -0,0 +1,183 @@
+package com.bramerlabs.molecular.molecule;
+
+import com.bramerlabs.engine.math.Matrix4f;
+import com.bramerlabs.engine.math.collision.Frustum;
+import com.bramerlabs.molecular.molecule.atom.AtomStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+
+public class RegionSelector {
+
+    // how far the mouse has to be dragged, in pixels, before a click becomes a region
+    private static final float DRAG_THRESHOLD = 4;
+
+    // how far the mouse has to move, in pixels, before another point is added to a lasso
+    private static final float LASSO_SPACING = 3;
+
+    // the points of the region, in pixels from the bottom left of the window, as x, y pairs
+    // a rectangle keeps the corner it started at and the current corner, a lasso keeps its whole outline
+    private float[] points = new float[64];
+    private int numPoints = 0;
+
+    // if the region is a lasso rather than a rectangle
+    private boolean lasso;
+
+    // the part of the view frustum behind the bounds of the region, used to narrow the atoms down with each molecule's tree
+    private Frustum frustum = new Frustum();
+
+    // the atoms that may be inside the region
+    private BitSet candidates = new BitSet();
+
+    /**
+     * starts a region
+     * @param x - the x position of the mouse, in pixels from the left of the window
+     * @param y - the y position of the mouse, in pixels from the bottom of the window
+     * @param lasso - true for a lasso, false for a rectangle
+     */
+    public void begin(float x, float y, boolean lasso) {
+        this.lasso = lasso;
+        numPoints = 0;
+        addPoint(x, y);
+        addPoint(x, y);
+    }
+
+    /**
+     * moves the current corner of a rectangle, or extends the outline of a lasso
+     * @param x - the x position of the mouse, in pixels from the left of the window
+     * @param y - the y position of the mouse, in pixels from the bottom of the window
+     */
+    public void drag(float x, float y) {
+        if (numPoints == 0) {
+            return;
+        }
+        int last = (numPoints - 1) * 2;
+        if (!lasso) {
+            points[last] = x;
+            points[last + 1] = y;
+            return;
+        }
+        float dx = x - points[last], dy = y - points[last + 1];
+        if (dx * dx + dy * dy >= LASSO_SPACING * LASSO_SPACING) {
+            addPoint(x, y);
+        }
+    }
+
+    /**
+     * helper method - adds a point to the region
+     * @param x - the x position, in pixels
+     * @param y - the y position, in pixels
+     */
+    private void addPoint(float x, float y) {
+        if (numPoints * 2 + 2 > points.length) {
+            points = Arrays.copyOf(points, points.length * 2);
+        }
+        points[numPoints * 2] = x;
+        points[numPoints * 2 + 1] = y;
+        numPoints++;
+    }
+
+    /**
+     * determines if the mouse has moved far enough from where the region started for it to be a region rather than a click
+     * @return - true if the region should be selected
+     */
+    public boolean isDragged() {
+        for (int i = 1; i < numPoints; i++) {
+            float dx = points[i * 2] - points[0], dy = points[i * 2 + 1] - points[1];
+            if (dx * dx + dy * dy >= DRAG_THRESHOLD * DRAG_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * selects every atom whose center is inside the region on screen, and ends the region
+     * atoms already selected stay selected
+     * @param molecules - the molecules to select from
+     * @param view - the view matrix
+     * @param projection - the projection matrix
+     * @param width - the width of the window, in pixels
+     * @param height - the height of the window, in pixels
+     * @return - the number of atoms inside the region
+     */
+    public int select(ArrayList<Molecule> molecules, Matrix4f view, Matrix4f projection, int width, int height) {
+        if (numPoints == 0) {
+            return 0;
+        }
+
+        // the bounds of the region
+        float xMin = Float.POSITIVE_INFINITY, yMin = Float.POSITIVE_INFINITY;
+        float xMax = Float.NEGATIVE_INFINITY, yMax = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < numPoints; i++) {
+            xMin = Math.min(xMin, points[i * 2]);
+            xMax = Math.max(xMax, points[i * 2]);
+            yMin = Math.min(yMin, points[i * 2 + 1]);
+            yMax = Math.max(yMax, points[i * 2 + 1]);
+        }
+        frustum.update(view, projection, 2 * xMin / width - 1, 2 * yMin / height - 1, 2 * xMax / width - 1, 2 * yMax / height - 1);
+
+        // the product is projection * view
+        Matrix4f m = Matrix4f.multiply(view, projection);
+        int count = 0;
+        for (Molecule molecule : molecules) {
+            candidates.clear();
+            molecule.getBVH().findAtoms(frustum, candidates);
+            AtomStore store = molecule.getAtomStore();
+            float[] xs = store.getX(), ys = store.getY(), zs = store.getZ();
+            MoleculeSelection selection = molecule.getSelection();
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                float px = xs[i], py = ys[i], pz = zs[i];
+                float w = m.get(0, 3) * px + m.get(1, 3) * py + m.get(2, 3) * pz + m.get(3, 3);
+                if (w <= 0) {
+                    continue;
+                }
+                float x = m.get(0, 0) * px + m.get(1, 0) * py + m.get(2, 0) * pz + m.get(3, 0);
+                float y = m.get(0, 1) * px + m.get(1, 1) * py + m.get(2, 1) * pz + m.get(3, 1);
+                float sx = (x / w * 0.5f + 0.5f) * width, sy = (y / w * 0.5f + 0.5f) * height;
+                if (sx < xMin || sx > xMax || sy < yMin || sy > yMax || (lasso && !insideLasso(sx, sy))) {
+                    continue;
+                }
+                selection.set(i, true);
+                count++;
+            }
+        }
+        numPoints = 0;
+        return count;
+    }
+
+    /**
+     * helper method - determines if a point is inside the outline of the lasso, which is closed from its last point back to its first
+     * a ray to the right of the point crosses the outline an odd number of times if the point is inside
+     * @param x - the x position of the point, in pixels
+     * @param y - the y position of the point, in pixels
+     * @return - true if the point is inside
+     */
+    private boolean insideLasso(float x, float y) {
+        boolean inside = false;
+        for (int i = 0, j = numPoints - 1; i < numPoints; j = i++) {
+            float xi = points[i * 2], yi = points[i * 2 + 1];
+            float xj = points[j * 2], yj = points[j * 2 + 1];
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * ends the region without selecting anything
+     */
+    public void cancel() {
+        numPoints = 0;
+    }
+
+    /**
+     * getter method
+     * @return - true if a region has been started and not yet ended
+     */
+    public boolean isActive() {
+        return numPoints > 0;
+    }
+}
@@ -4,19 +4,24 @@ import com.bramerlabs.engine.math.Vector3f;
 import com.bramerlabs.engine.objects.shapes.Sphere;
 import com.bramerlabs.molecular.data_compilers.AtomicDataCompiler;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class Atom {
 
-    // ID data
-    private static int curID = 0;
+    // ID data - atoms are also made on the worker threads that load files
+    private static final AtomicInteger curID = new AtomicInteger();
     private int ID;
 
-    // identity data
-    private int atomicNumber; // the atomic number of this atom - default Hydrogen
-    private int charge = 0; // the charge of the atom - default neutral
-    private int numNeutrons = 0; // the amount of neutrons this atom has - default 0
+    // the packed storage holding the position, atomic number, charge, and number of neutrons of this atom, and its index there
+    // null while the atom is not in a molecule, in which case those values are held in the fields below instead
+    private AtomStore store;
+    private int index = -1;
+
+    // the position and identity of the atom while it is not in a molecule
+    private float x, y, z;
+    private int atomicNumber, charge, numNeutrons;
 
     // locational data
-    private Vector3f position; // the position of the atom
     private float radius; // the radius of the atom
 
     // rendering
@@ -24,26 +29,30 @@ public class Atom {
     private Sphere sphere; // the sphere used for rendering the atom
 
     // selection variables
-    private Sphere selectionSphere; // the sphere used for rendering the selection box
-    private Vector3f selectionColor = new Vector3f(0.5f, 0.5f, 0.f); // the color of the selection sphere - default yellow
+    private boolean selected = false; // if the atom is highlighted as selected
+    private boolean hovered = false; // if the atom is under the mouse
 
     // direction of the atom - default +y direction
     private Vector3f direction = new Vector3f(0, 1, 0);
 
+    // if the atom has moved or changed selection or hover since the renderer last read it
+    private boolean changed = false;
+
+    // the number of times the atom has moved - compared against a stored count, it is not cleared by reading it
+    private int moveCount = 0;
+
     /**
      * default constructor
      * @param position - the position of this atom
      * @param atomicNumber - the atomic number of this atom
      */
     public Atom(Vector3f position, int atomicNumber) {
-        this.position = position;
-        this.atomicNumber = atomicNumber;
+        store(position, atomicNumber, 0, 0);
 
         this.radius = AtomicDataCompiler.getVDWRadius(atomicNumber);
         this.color = AtomicDataCompiler.getCPKColor(atomicNumber);
 
         makeSphere();
-        makeSelectionSphere();
         generateID();
     }
 
@@ -55,30 +64,22 @@ public class Atom {
      * @param numNeutrons - the number of neutrons in this atom
      */
     public Atom(Vector3f position, int atomicNumber, int charge, int numNeutrons) {
-        this.position = position;
-        this.atomicNumber = atomicNumber;
-        this.charge = charge;
-        this.numNeutrons = numNeutrons;
+        store(position, atomicNumber, charge, numNeutrons);
 
         this.radius = AtomicDataCompiler.getVDWRadius(atomicNumber);
         this.color = AtomicDataCompiler.getCPKColor(atomicNumber);
 
         makeSphere();
-        makeSelectionSphere();
         generateID();
     }
 
     public Atom(Vector3f position, int atomicNumber, int charge, int numNeutrons, int ID) {
-        this.position = position;
-        this.atomicNumber = atomicNumber;
-        this.charge = charge;
-        this.numNeutrons = numNeutrons;
+        store(position, atomicNumber, charge, numNeutrons);
 
         this.radius = AtomicDataCompiler.getVDWRadius(atomicNumber);
         this.color = AtomicDataCompiler.getCPKColor(atomicNumber);
 
         makeSphere();
-        makeSelectionSphere();
         this.ID = ID;
     }
 
@@ -89,8 +90,7 @@ public class Atom {
      * @param connectedAtom - the atom this atom is bonded to
      */
     public Atom(Vector3f position, int atomicNumber, Atom connectedAtom) {
-        this.position = position;
-        this.atomicNumber = atomicNumber;
+        store(position, atomicNumber, 0, 0);
 
         // the direction of the atom
         this.direction = Vector3f.subtract(position, connectedAtom.getPosition());
@@ -99,19 +99,144 @@ public class Atom {
         this.color = AtomicDataCompiler.getCPKColor(atomicNumber);
 
         makeSphere();
-        makeSelectionSphere();
         generateID();
     }
 
+    /**
+     * helper method - holds the data of a new atom until it is added to a molecule
+     * @param position - the position of this atom
+     * @param atomicNumber - the atomic number of this atom
+     * @param charge - the charge of this atom
+     * @param numNeutrons - the number of neutrons in this atom
+     */
+    private void store(Vector3f position, int atomicNumber, int charge, int numNeutrons) {
+        this.x = position.getX();
+        this.y = position.getY();
+        this.z = position.getZ();
+        this.atomicNumber = atomicNumber;
+        this.charge = charge;
+        this.numNeutrons = numNeutrons;
+    }
+
+    /**
+     * moves the data of this atom to the end of a store - used when the atom is added to a molecule
+     * an atom belongs to one molecule at a time, so it must be removed from a molecule before it is added to another
+     * @param target - the store
+     */
+    public void attach(AtomStore target) {
+        if (store != null) {
+            throw new IllegalStateException("Error: atom " + ID + (store == target ? " is already in this molecule" : " is already in another molecule"));
+        }
+        index = target.add(this, x, y, z, atomicNumber, charge, numNeutrons);
+        store = target;
+    }
+
+    /**
+     * moves the data of this atom out of the store of its molecule - used when the atom is removed from a molecule
+     */
+    public void detach() {
+        if (store == null) {
+            return;
+        }
+        x = getX();
+        y = getY();
+        z = getZ();
+        atomicNumber = getAtomicNumber();
+        charge = getCharge();
+        numNeutrons = getNumNeutrons();
+        store.remove(index);
+        store = null;
+        index = -1;
+    }
+
+    /**
+     * sets the index of this atom in its store, after an atom before it was removed
+     * @param index - the new index
+     */
+    void setIndex(int index) {
+        this.index = index;
+    }
+
     /**
      * moves the atom to a certain position
      * @param position - the new position to move to
      */
     public void moveTo(Vector3f position) {
-        this.position = position;
+        if (store != null) {
+            store.setPosition(index, position.getX(), position.getY(), position.getZ());
+        } else {
+            x = position.getX();
+            y = position.getY();
+            z = position.getZ();
+        }
 
         sphere.moveTo(position);
-        selectionSphere.moveTo(position);
+        changed = true;
+        moveCount++;
+    }
+
+    /**
+     * getter method
+     * @return - the number of times the atom has moved
+     */
+    public int getMoveCount() {
+        return this.moveCount;
+    }
+
+    /**
+     * sets if the atom is highlighted as selected
+     * @param selected - true if the atom is selected
+     */
+    public void setSelected(boolean selected) {
+        if (this.selected != selected) {
+            this.selected = selected;
+            changed = true;
+        }
+    }
+
+    /**
+     * getter method
+     * @return - true if the atom is highlighted as selected
+     */
+    public boolean isSelected() {
+        return this.selected;
+    }
+
+    /**
+     * sets if the atom is highlighted as being under the mouse
+     * @param hovered - true if the atom is under the mouse
+     */
+    public void setHovered(boolean hovered) {
+        if (this.hovered != hovered) {
+            this.hovered = hovered;
+            changed = true;
+        }
+    }
+
+    /**
+     * getter method
+     * @return - true if the atom is highlighted as being under the mouse
+     */
+    public boolean isHovered() {
+        return this.hovered;
+    }
+
+    /**
+     * checks if the atom has moved or changed selection since the last time this method was called, and clears the flag
+     * @return - true if the atom has changed
+     */
+    public boolean pollChanged() {
+        boolean wasChanged = changed;
+        changed = false;
+        return wasChanged;
+    }
+
+    /**
+     * checks if the atom has moved or changed selection since the last time pollChanged was called, without clearing the flag
+     * @return - true if the atom has changed
+     */
+    public boolean hasChanged() {
+        return this.changed;
     }
 
     /**
@@ -135,7 +260,7 @@ public class Atom {
      * @return - the atomic number of this atom
      */
     public int getAtomicNumber() {
-        return this.atomicNumber;
+        return store != null ? store.getAtomicNumbers()[index] : this.atomicNumber;
     }
 
     /**
@@ -143,7 +268,7 @@ public class Atom {
      * @return - the charge of this atom
      */
     public int getCharge() {
-        return this.charge;
+        return store != null ? store.getCharges()[index] : this.charge;
     }
 
     /**
@@ -151,7 +276,7 @@ public class Atom {
      * @return - the number of neutrons in this atom
      */
     public int getNumNeutrons() {
-        return this.numNeutrons;
+        return store != null ? store.getNumNeutrons()[index] : this.numNeutrons;
     }
 
     /**
@@ -159,7 +284,7 @@ public class Atom {
      * @return - the abbreviated name of this atom
      */
     public String getAtomicAbbrName() {
-        return AtomicDataCompiler.getAtomAbbrName(atomicNumber);
+        return AtomicDataCompiler.getAtomAbbrName(getAtomicNumber());
     }
 
     /**
@@ -167,7 +292,11 @@ public class Atom {
      * @param atomicNumber - the atomic number
      */
     public void setAtomicNumber(int atomicNumber) {
-        this.atomicNumber = atomicNumber;
+        if (store != null) {
+            store.setAtomicNumber(index, atomicNumber);
+        } else {
+            this.atomicNumber = atomicNumber;
+        }
     }
 
     /**
@@ -175,7 +304,11 @@ public class Atom {
      * @param charge - the charge
      */
     public void setCharge(int charge) {
-        this.charge = charge;
+        if (store != null) {
+            store.setCharge(index, charge);
+        } else {
+            this.charge = charge;
+        }
     }
 
     /**
@@ -183,55 +316,82 @@ public class Atom {
      * @param neutrons - the number of neutrons
      */
     public void setNumNeutrons(int neutrons) {
-        this.numNeutrons = neutrons;
+        if (store != null) {
+            store.setNumNeutrons(index, neutrons);
+        } else {
+            this.numNeutrons = neutrons;
+        }
     }
 
     /**
      * makes the sphere used for rendering this atom
      */
     private void makeSphere() {
-        sphere = Sphere.makeSphere(position, color, radius);
-        sphere.createMesh();
+        sphere = Sphere.makeSphere(getPosition(), color, radius);
     }
 
     /**
-     * makes the sphere used for rendering the selection box of this atom
+     * getter method
+     * @return - the sphere used to render this atom
      */
-    private void makeSelectionSphere() {
-        selectionSphere = Sphere.makeSphere(position, selectionColor, radius + 0.5f);
-        selectionSphere.createMesh();
+    public Sphere getSphere() {
+        return sphere;
     }
 
     /**
      * getter method
-     * @return - the sphere used to render this atom
+     * @return - the radius of this atom
      */
-    public Sphere getSphere() {
-        return sphere;
+    public float getRadius() {
+        return this.radius;
     }
 
     /**
      * getter method
-     * @return - the sphere used to render the selection box of this atom
+     * @return - a copy of the position of this atom
      */
-    public Sphere getSelectionSphere() {
-        return this.selectionSphere;
+    public Vector3f getPosition() {
+        return new Vector3f(getX(), getY(), getZ());
     }
 
     /**
      * getter method
-     * @return - the radius of this atom
+     * @return - the x position of this atom
      */
-    public float getRadius() {
-        return this.radius;
+    public float getX() {
+        return store != null ? store.getX()[index] : this.x;
     }
 
     /**
      * getter method
-     * @return - the position of this atom
+     * @return - the y position of this atom
      */
-    public Vector3f getPosition() {
-        return this.position;
+    public float getY() {
+        return store != null ? store.getY()[index] : this.y;
+    }
+
+    /**
+     * getter method
+     * @return - the z position of this atom
+     */
+    public float getZ() {
+        return store != null ? store.getZ()[index] : this.z;
+    }
+
+    /**
+     * getter method
+     * @return - the store that holds the data of this atom, or null if the atom is not in a molecule
+     */
+    public AtomStore getStore() {
+        return this.store;
+    }
+
+    /**
+     * getter method
+     * @return - the index of this atom in its store, or -1 if the atom is not in a molecule
+     */
+    public int getIndex() {
+        return this.index;
     }
 
     /**
@@ -254,20 +414,19 @@ public class Atom {
      * sets the current ID
      */
     public void generateID() {
-        this.ID = curID;
-        curID ++;
+        this.ID = curID.getAndIncrement();
     }
 
     @Override
     public String toString() {
         return "atom "
                 + this.ID + " "
-                + this.atomicNumber + " "
-                + this.charge + " "
-                + this.numNeutrons +" "
-                + this.position.getX() + " "
-                + this.position.getY() + " "
-                + this.position.getZ();
+                + getAtomicNumber() + " "
+                + getCharge() + " "
+                + getNumNeutrons() + " "
+                + getX() + " "
+                + getY() + " "
+                + getZ();
     }
 
     /**
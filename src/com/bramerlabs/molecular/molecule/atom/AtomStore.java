@@ -0,0 +1,206 @@
+package com.bramerlabs.molecular.molecule.atom;
+
+import java.util.Arrays;
+
+public class AtomStore {
+
+    // the position of every atom
+    private float[] x, y, z;
+
+    // the identity of every atom
+    private byte[] atomicNumber;
+    private byte[] charge;
+    private short[] numNeutrons;
+
+    // the atom that views each index
+    private Atom[] atoms;
+
+    // the number of atoms in this store
+    private int size = 0;
+
+    /**
+     * default constructor
+     */
+    public AtomStore() {
+        this(16);
+    }
+
+    /**
+     * constructor for a specified starting capacity
+     * @param capacity - the number of atoms there is room for before the arrays grow
+     */
+    public AtomStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+        x = new float[capacity];
+        y = new float[capacity];
+        z = new float[capacity];
+        atomicNumber = new byte[capacity];
+        charge = new byte[capacity];
+        numNeutrons = new short[capacity];
+        atoms = new Atom[capacity];
+    }
+
+    /**
+     * adds an atom to the end of this store
+     * @param atom - the atom that views the new index
+     * @param x - the x position of the atom
+     * @param y - the y position of the atom
+     * @param z - the z position of the atom
+     * @param atomicNumber - the atomic number of the atom
+     * @param charge - the charge of the atom
+     * @param numNeutrons - the number of neutrons in the atom
+     * @return - the index of the atom
+     */
+    int add(Atom atom, float x, float y, float z, int atomicNumber, int charge, int numNeutrons) {
+        if (size == atoms.length) {
+            grow(size * 2);
+        }
+        this.x[size] = x;
+        this.y[size] = y;
+        this.z[size] = z;
+        this.atomicNumber[size] = (byte) atomicNumber;
+        this.charge[size] = (byte) charge;
+        this.numNeutrons[size] = (short) numNeutrons;
+        this.atoms[size] = atom;
+        return size++;
+    }
+
+    /**
+     * removes an atom, moving every atom after it down by one so that the indices stay dense and in order
+     * @param index - the index of the atom
+     */
+    void remove(int index) {
+        int tail = size - index - 1;
+        System.arraycopy(x, index + 1, x, index, tail);
+        System.arraycopy(y, index + 1, y, index, tail);
+        System.arraycopy(z, index + 1, z, index, tail);
+        System.arraycopy(atomicNumber, index + 1, atomicNumber, index, tail);
+        System.arraycopy(charge, index + 1, charge, index, tail);
+        System.arraycopy(numNeutrons, index + 1, numNeutrons, index, tail);
+        System.arraycopy(atoms, index + 1, atoms, index, tail);
+        size--;
+        atoms[size] = null;
+        for (int i = index; i < size; i++) {
+            atoms[i].setIndex(i);
+        }
+    }
+
+    /**
+     * helper method - grows every array, keeping their contents
+     * @param capacity - the new number of atoms there is room for
+     */
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        atomicNumber = Arrays.copyOf(atomicNumber, capacity);
+        charge = Arrays.copyOf(charge, capacity);
+        numNeutrons = Arrays.copyOf(numNeutrons, capacity);
+        atoms = Arrays.copyOf(atoms, capacity);
+    }
+
+    /**
+     * sets the position of an atom
+     * @param index - the index of the atom
+     * @param x - the x position
+     * @param y - the y position
+     * @param z - the z position
+     */
+    void setPosition(int index, float x, float y, float z) {
+        this.x[index] = x;
+        this.y[index] = y;
+        this.z[index] = z;
+    }
+
+    /**
+     * sets the atomic number of an atom
+     * @param index - the index of the atom
+     * @param atomicNumber - the atomic number
+     */
+    void setAtomicNumber(int index, int atomicNumber) {
+        this.atomicNumber[index] = (byte) atomicNumber;
+    }
+
+    /**
+     * sets the charge of an atom
+     * @param index - the index of the atom
+     * @param charge - the charge
+     */
+    void setCharge(int index, int charge) {
+        this.charge[index] = (byte) charge;
+    }
+
+    /**
+     * sets the number of neutrons in an atom
+     * @param index - the index of the atom
+     * @param numNeutrons - the number of neutrons
+     */
+    void setNumNeutrons(int index, int numNeutrons) {
+        this.numNeutrons[index] = (short) numNeutrons;
+    }
+
+    /**
+     * getter method
+     * @return - the number of atoms in this store
+     */
+    public int getSize() {
+        return this.size;
+    }
+
+    /**
+     * getter method
+     * @param index - the index of the atom
+     * @return - the atom that views an index
+     */
+    public Atom getAtom(int index) {
+        return this.atoms[index];
+    }
+
+    /**
+     * getter method
+     * @return - the x position of every atom, valid up to getSize - must not be modified
+     */
+    public float[] getX() {
+        return this.x;
+    }
+
+    /**
+     * getter method
+     * @return - the y position of every atom, valid up to getSize - must not be modified
+     */
+    public float[] getY() {
+        return this.y;
+    }
+
+    /**
+     * getter method
+     * @return - the z position of every atom, valid up to getSize - must not be modified
+     */
+    public float[] getZ() {
+        return this.z;
+    }
+
+    /**
+     * getter method
+     * @return - the atomic number of every atom, valid up to getSize - must not be modified
+     */
+    public byte[] getAtomicNumbers() {
+        return this.atomicNumber;
+    }
+
+    /**
+     * getter method
+     * @return - the charge of every atom, valid up to getSize - must not be modified
+     */
+    public byte[] getCharges() {
+        return this.charge;
+    }
+
+    /**
+     * getter method
+     * @return - the number of neutrons in every atom, valid up to getSize - must not be modified
+     */
+    public short[] getNumNeutrons() {
+        return this.numNeutrons;
+    }
+}
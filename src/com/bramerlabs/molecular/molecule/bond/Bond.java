@@ -6,13 +6,17 @@ import com.bramerlabs.molecular.molecule.atom.Atom;
 import com.bramerlabs.molecular.data_compilers.BondDataCompiler;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class Bond {
 
-    // id information
-    private static int curID = 0;
+    // id information - bonds are also made on the worker threads that load files
+    private static final AtomicInteger curID = new AtomicInteger();
     private int ID;
 
+    // the index of this bond in the list of bonds of its molecule, so that it can be removed without searching the list
+    private int index = -1;
+
     // identity information
     private Atom a1, a2; // the atoms that this bond connects
     private int bondOrder = 1; // the bond order of this bond - default 1 (single bond)
@@ -23,9 +27,9 @@ public class Bond {
     private Vector3f color = new Vector3f(0.3f); // the color of this bond - default gray
 
     // selection variables
-    private ArrayList<Cylinder> selectionCylinders = new ArrayList<>(); // the cylinders used to render the selection box
-    private Vector3f selectionColor = new Vector3f(0.5f, 0.5f, 0.f); // the color of the selection box - default yellow
-    private float selectionRadius = radius + 0.2f;
+    private boolean selected = false; // if the bond is highlighted as selected
+    private boolean hovered = false; // if the bond is under the mouse
+    private boolean changed = false; // if the bond has changed selection or hover since the renderer last read it
 
     /**
      * constructor for bond between two atoms
@@ -36,7 +40,6 @@ public class Bond {
         this.a1 = a1;
         this.a2 = a2;
         makeCylinders();
-        makeSelectionCylinders();
         generateID();
     }
 
@@ -51,7 +54,6 @@ public class Bond {
         this.a2 = a2;
         this.bondOrder = bondOrder;
         makeCylinders();
-        makeSelectionCylinders();
         generateID();
     }
 
@@ -61,7 +63,6 @@ public class Bond {
         this.bondOrder = bondOrder;
         this.ID = ID;
         makeCylinders();
-        makeSelectionCylinders();
         generateID();
     }
 
@@ -80,13 +81,12 @@ public class Bond {
         this.radius = radius;
         this.color = color;
         makeCylinders();
-        makeSelectionCylinders();
         generateID();
     }
 
     /**
      * getter method
-     * @return - the atoms that this bond connects
+     * @return - a new list of the atoms that this bond connects
      */
     public ArrayList<Atom> getAtoms() {
         ArrayList<Atom> atoms = new ArrayList<>();
@@ -95,6 +95,34 @@ public class Bond {
         return atoms;
     }
 
+    /**
+     * getter method
+     * @return - the first atom that this bond connects
+     */
+    public Atom getA1() {
+        return this.a1;
+    }
+
+    /**
+     * getter method
+     * @return - the second atom that this bond connects
+     */
+    public Atom getA2() {
+        return this.a2;
+    }
+
+    /**
+     * gets the atom at the other end of this bond
+     * @param a - one of the atoms that this bond connects
+     * @return - the other atom, or null if this bond does not connect the atom provided
+     */
+    public Atom getOther(Atom a) {
+        if (a == a1) {
+            return a2;
+        }
+        return a == a2 ? a1 : null;
+    }
+
     /**
      * helper method - makes the cylinders used for rendering this bond
      */
@@ -105,11 +133,27 @@ public class Bond {
             bondOrder = 1;
         }
 
+        // one cylinder per bond order - their end points are set by placeCylinders
+        for (int i = 0; i < bondOrder; i++) {
+            cylinders.add(Cylinder.makeCylinder(a1.getPosition(), a2.getPosition(), color, radius));
+        }
+        placeCylinders(cylinders, radius);
+    }
+
+    /**
+     * helper method - moves a set of cylinders so that they span the two atoms of this bond
+     * @param cylinders - the cylinders to move, one per bond order
+     * @param radius - the radius of the cylinders
+     */
+    private void placeCylinders(ArrayList<Cylinder> cylinders, float radius) {
+        Vector3f p1 = a1.getPosition();
+        Vector3f p2 = a2.getPosition();
+
         // if the bond order isn't 1, find a vector normal to the bond to create the parallel cylinders
         Vector3f normal = new Vector3f(0);
         if (bondOrder != 1) {
             // find the direction of the bond
-            Vector3f bondDirection = Vector3f.subtract(a1.getPosition(), a2.getPosition());
+            Vector3f bondDirection = Vector3f.subtract(p1, p2);
 
             // generate a vector normal to the bond direction
             Vector3f v0 = new Vector3f(0, 1, 0);
@@ -119,92 +163,100 @@ public class Bond {
             normal = Vector3f.normalize(Vector3f.cross(bondDirection, v0), 0.8f);
         }
 
-        // create the central bond if its a single or triple bond
+        // the central bond of a single or triple bond
         if (bondOrder == 1 || bondOrder == 3) {
-            cylinders.add(Cylinder.makeCylinder(a1.getPosition(), a2.getPosition(), color, radius));
+            cylinders.get(0).moveTo(p1, p2, radius);
         }
 
-        // create the outside 2 bonds if its a triple bond
+        // the outside 2 bonds of a triple bond
         if (bondOrder == 3) {
-            cylinders.add(Cylinder.makeCylinder(Vector3f.add(a1.getPosition(), normal), Vector3f.add(a2.getPosition(), normal), color, radius));
-            cylinders.add(Cylinder.makeCylinder(Vector3f.subtract(a1.getPosition(), normal), Vector3f.subtract(a2.getPosition(), normal), color, radius));
+            cylinders.get(1).moveTo(Vector3f.add(p1, normal), Vector3f.add(p2, normal), radius);
+            cylinders.get(2).moveTo(Vector3f.subtract(p1, normal), Vector3f.subtract(p2, normal), radius);
         }
 
-        // create the double bonds
+        // the double bonds
         if (bondOrder == 2) {
             normal.scale(0.5f); // divide the normal vector in half
-            cylinders.add(Cylinder.makeCylinder(Vector3f.add(a1.getPosition(), normal), Vector3f.add(a2.getPosition(), normal), color, radius));
-            cylinders.add(Cylinder.makeCylinder(Vector3f.subtract(a1.getPosition(), normal), Vector3f.subtract(a2.getPosition(), normal), color, radius));
-        }
-
-        // create the meshes
-        for (Cylinder cylinder : cylinders) {
-            cylinder.createMesh();
+            cylinders.get(0).moveTo(Vector3f.add(p1, normal), Vector3f.add(p2, normal), radius);
+            cylinders.get(1).moveTo(Vector3f.subtract(p1, normal), Vector3f.subtract(p2, normal), radius);
         }
     }
 
     /**
-     * creates the render cylinders used for the selection box
+     * getter method
+     * @return - the radius around the axis between the two atoms that holds every cylinder of this bond
      */
-    private void makeSelectionCylinders() {
-
-        // make sure the bond order is less than 3 (for now)
-        if (bondOrder > 3) {
-            bondOrder = 1;
-        }
-
-        // if the bond order isn't 1, find a vector normal to the bond to create the parallel cylinders
-        Vector3f normal = new Vector3f(0);
-        if (bondOrder != 1) {
-            // find the direction of the bond
-            Vector3f bondDirection = Vector3f.subtract(a1.getPosition(), a2.getPosition());
-
-            // generate a vector normal to the bond direction
-            Vector3f v0 = new Vector3f(0, 1, 0);
-            if (Vector3f.cross(bondDirection, v0).equals(new Vector3f(0), 0.00001f)) {
-                v0 = new Vector3f(0, 0, 1);
-            }
-            normal = Vector3f.normalize(Vector3f.cross(bondDirection, v0), 0.8f);
+    public float getBoundingRadius() {
+        // the outside cylinders of a double bond are 0.4 from the axis, and those of a triple bond 0.8, as placed by placeCylinders
+        switch (bondOrder) {
+            case 2: return radius + 0.4f;
+            case 3: return radius + 0.8f;
+            default: return radius;
         }
+    }
 
-        // create the central bond if its a single or triple bond
-        if (bondOrder == 1 || bondOrder == 3) {
-            selectionCylinders.add(Cylinder.makeCylinder(a1.getPosition(), a2.getPosition(), selectionColor, selectionRadius));
-        }
+    /**
+     * moves the cylinders of this bond to the current positions of its atoms
+     */
+    public void update() {
+        placeCylinders(cylinders, radius);
+    }
 
-        // create the outside 2 bonds if its a triple bond
-        if (bondOrder == 3) {
-            selectionCylinders.add(Cylinder.makeCylinder(Vector3f.add(a1.getPosition(), normal), Vector3f.add(a2.getPosition(), normal), selectionColor, selectionRadius));
-            selectionCylinders.add(Cylinder.makeCylinder(Vector3f.subtract(a1.getPosition(), normal), Vector3f.subtract(a2.getPosition(), normal), selectionColor, selectionRadius));
+    /**
+     * sets if the bond is highlighted as selected
+     * @param selected - true if the bond is selected
+     */
+    public void setSelected(boolean selected) {
+        if (this.selected != selected) {
+            this.selected = selected;
+            changed = true;
         }
+    }
 
-        // create the double bonds
-        if (bondOrder == 2) {
-            normal.scale(0.5f); // divide the normal vector in half
-            selectionCylinders.add(Cylinder.makeCylinder(Vector3f.add(a1.getPosition(), normal), Vector3f.add(a2.getPosition(), normal), selectionColor, selectionRadius));
-            selectionCylinders.add(Cylinder.makeCylinder(Vector3f.subtract(a1.getPosition(), normal), Vector3f.subtract(a2.getPosition(), normal), selectionColor, selectionRadius));
-        }
+    /**
+     * getter method
+     * @return - true if the bond is highlighted as selected
+     */
+    public boolean isSelected() {
+        return this.selected;
+    }
 
-        // create the meshes
-        for (Cylinder cylinder : selectionCylinders) {
-            cylinder.createMesh();
+    /**
+     * sets if the bond is highlighted as being under the mouse
+     * @param hovered - true if the bond is under the mouse
+     */
+    public void setHovered(boolean hovered) {
+        if (this.hovered != hovered) {
+            this.hovered = hovered;
+            changed = true;
         }
     }
 
     /**
      * getter method
-     * @return - the cylinders that are used to render this bond
+     * @return - true if the bond is highlighted as being under the mouse
      */
-    public ArrayList<Cylinder> getCylinders() {
-        return this.cylinders;
+    public boolean isHovered() {
+        return this.hovered;
+    }
+
+    /**
+     * checks if the bond or either of its atoms has changed since the last time this method was called, and clears the flag of the bond
+     * the flags of the atoms are left for the atoms to clear
+     * @return - true if the bond needs to be updated
+     */
+    public boolean pollChanged() {
+        boolean wasChanged = changed || a1.hasChanged() || a2.hasChanged();
+        changed = false;
+        return wasChanged;
     }
 
     /**
      * getter method
-     * @return - the cylinders that are used to render the selection box of this bond
+     * @return - the cylinders that are used to render this bond
      */
-    public ArrayList<Cylinder> getSelectionCylinders() {
-        return selectionCylinders;
+    public ArrayList<Cylinder> getCylinders() {
+        return this.cylinders;
     }
 
     /**
@@ -232,12 +284,27 @@ public class Bond {
         return this.ID;
     }
 
+    /**
+     * getter method
+     * @return - the index of this bond in the list of bonds of its molecule, or -1 if it is not in a molecule
+     */
+    public int getIndex() {
+        return this.index;
+    }
+
+    /**
+     * sets the index of this bond in the list of bonds of its molecule - only called by the molecule
+     * @param index - the index
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
     /**
      * generates the ID for this bond
      */
     public void generateID() {
-        this.ID = curID;
-        curID++;
+        this.ID = curID.getAndIncrement();
     }
 
     @Override